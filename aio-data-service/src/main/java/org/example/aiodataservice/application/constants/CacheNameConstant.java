@@ -3,7 +3,7 @@ package org.example.aiodataservice.application.constants;
 public final class CacheNameConstant {
     public static final String STAFF_CACHE = "staffCache";
     public static final String STAFF_LIST_CACHE = "staffListCache";
-    public static final String STAFF_DETAIL_CACHE = "staffDetailCache";
+    public static final String STAFF_GROUP_IDS_CACHE = "staffGroupIdsCache";
     public static final String STAFF_GROUP_CACHE = "staffGroupCache";
     public static final String STAFF_GROUP_LIST_CACHE = "staffGroupListCache";
     public static final String RESOLVED_GROUP_MEMBERS_CACHE = "resolvedGroupMembersCache";
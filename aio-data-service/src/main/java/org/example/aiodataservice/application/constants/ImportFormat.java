@@ -0,0 +1,34 @@
+package org.example.aiodataservice.application.constants;
+
+import java.util.Locale;
+
+public enum ImportFormat {
+    JSON,
+    NDJSON,
+    CSV;
+
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+    public static final String CSV_VALUE = "text/csv";
+
+    public static ImportFormat resolve(String contentType, String filename) {
+        if (contentType != null) {
+            String type = contentType.toLowerCase(Locale.ROOT);
+            if (type.startsWith(NDJSON_VALUE) || type.startsWith("application/jsonl")) {
+                return NDJSON;
+            }
+            if (type.startsWith(CSV_VALUE)) {
+                return CSV;
+            }
+        }
+        if (filename != null) {
+            String name = filename.toLowerCase(Locale.ROOT);
+            if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+                return NDJSON;
+            }
+            if (name.endsWith(".csv")) {
+                return CSV;
+            }
+        }
+        return JSON;
+    }
+}
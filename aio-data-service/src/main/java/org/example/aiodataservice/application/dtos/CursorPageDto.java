@@ -0,0 +1,20 @@
+package org.example.aiodataservice.application.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDto<T> {
+    @Builder.Default
+    private List<T> items = new ArrayList<>();
+    private int size;
+    private String nextCursor;
+}
@@ -0,0 +1,25 @@
+package org.example.aiodataservice.application.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReportDto {
+    private int totalRows;
+    private int created;
+    private int updated;
+    private int skipped;
+    private int failed;
+    private long durationMs;
+    private double rowsPerSecond;
+    @Builder.Default
+    private List<ImportRowResultDto> rows = new ArrayList<>();
+}
@@ -0,0 +1,25 @@
+package org.example.aiodataservice.application.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRowResultDto {
+    private int row;
+    private String code;
+    private String id;
+    private ImportRowStatus status;
+    private String message;
+
+    public enum ImportRowStatus {
+        CREATED,
+        UPDATED,
+        SKIPPED,
+        FAILED
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.aiodataservice.application.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReindexJobDto {
+    private String jobId;
+    private String alias;
+    private String sourceIndex;
+    private String targetIndex;
+    private ReindexStatus status;
+    private int slices;
+    private long sourceDocuments;
+    private long copiedDocuments;
+    private long deletedDocuments;
+    private long failedDocuments;
+    private long durationMs;
+    private double docsPerSecond;
+    private LocalDateTime startedAt;
+    private String message;
+
+    public enum ReindexStatus {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.aiodataservice.application.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResultDto<T> {
+    @Builder.Default
+    private List<T> items = new ArrayList<>();
+    private long total;
+    private int page;
+    private int size;
+    @Builder.Default
+    private Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+}
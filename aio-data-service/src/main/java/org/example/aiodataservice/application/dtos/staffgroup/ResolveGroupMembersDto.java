@@ -0,0 +1,22 @@
+package org.example.aiodataservice.application.dtos.staffgroup;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResolveGroupMembersDto {
+    @NotEmpty(message = "Group IDs are required")
+    @Size(max = 1000, message = "Group IDs must not exceed 1000 entries")
+    @Builder.Default
+    private Set<String> groupIds = new HashSet<>();
+}
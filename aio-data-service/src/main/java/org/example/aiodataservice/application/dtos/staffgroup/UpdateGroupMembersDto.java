@@ -0,0 +1,39 @@
+package org.example.aiodataservice.application.dtos.staffgroup;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpdateGroupMembersDto {
+    @Size(max = 10000, message = "Staff IDs to add must not exceed 10000 entries")
+    @Builder.Default
+    private Set<String> add = new HashSet<>();
+
+    @Size(max = 10000, message = "Staff IDs to remove must not exceed 10000 entries")
+    @Builder.Default
+    private Set<String> remove = new HashSet<>();
+
+    @JsonIgnore
+    @AssertTrue(message = "At least one staff ID is required to add or remove")
+    public boolean isNotEmpty() {
+        return (add != null && !add.isEmpty()) || (remove != null && !remove.isEmpty());
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "A staff ID cannot be both added and removed")
+    public boolean isDisjoint() {
+        return add == null || remove == null || Collections.disjoint(add, remove);
+    }
+}
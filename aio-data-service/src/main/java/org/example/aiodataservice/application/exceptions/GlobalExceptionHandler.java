@@ -48,6 +48,48 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(ErrorDetail, HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(LockAcquisitionException.class)
+    public ResponseEntity<ErrorDetail> handleLockAcquisitionException(
+            LockAcquisitionException ex, WebRequest request) {
+
+        ErrorDetail ErrorDetail = new ErrorDetail(
+                LocalDateTime.now(),
+                ex.getMessage(),
+                request.getDescription(false),
+                HttpStatus.CONFLICT.value()
+        );
+
+        return new ResponseEntity<>(ErrorDetail, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorDetail> handleInvalidCursorException(
+            InvalidCursorException ex, WebRequest request) {
+
+        ErrorDetail ErrorDetail = new ErrorDetail(
+                LocalDateTime.now(),
+                ex.getMessage(),
+                request.getDescription(false),
+                HttpStatus.BAD_REQUEST.value()
+        );
+
+        return new ResponseEntity<>(ErrorDetail, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidSearchRequestException.class)
+    public ResponseEntity<ErrorDetail> handleInvalidSearchRequestException(
+            InvalidSearchRequestException ex, WebRequest request) {
+
+        ErrorDetail ErrorDetail = new ErrorDetail(
+                LocalDateTime.now(),
+                ex.getMessage(),
+                request.getDescription(false),
+                HttpStatus.BAD_REQUEST.value()
+        );
+
+        return new ResponseEntity<>(ErrorDetail, HttpStatus.BAD_REQUEST);
+    }
+
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public Map<String, String> handleValidationExceptions(MethodArgumentNotValidException ex) {
@@ -0,0 +1,13 @@
+package org.example.aiodataservice.application.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidSearchRequestException extends RuntimeException {
+
+    public InvalidSearchRequestException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,13 @@
+package org.example.aiodataservice.application.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class LockAcquisitionException extends RuntimeException {
+
+    public LockAcquisitionException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,45 @@
+package org.example.aiodataservice.application.mappers;
+
+import org.example.aiodataservice.application.dtos.ImportReportDto;
+import org.example.aiodataservice.application.dtos.ImportRowResultDto;
+import org.example.aiodataservice.application.dtos.ImportRowResultDto.ImportRowStatus;
+
+import java.util.List;
+import java.util.Map;
+
+public class ImportReportMapper {
+
+    public static void applyFailures(List<ImportRowResultDto> rows, Map<Integer, String> failures) {
+        failures.forEach((row, reason) -> {
+            ImportRowResultDto result = rows.get(row);
+            result.setStatus(ImportRowStatus.FAILED);
+            result.setMessage(reason);
+        });
+    }
+
+    public static ImportReportDto toReport(List<ImportRowResultDto> rows, long startedAtNanos) {
+        long elapsedNanos = Math.max(1, System.nanoTime() - startedAtNanos);
+        int created = 0;
+        int updated = 0;
+        int skipped = 0;
+        int failed = 0;
+        for (ImportRowResultDto row : rows) {
+            switch (row.getStatus()) {
+                case CREATED -> created++;
+                case UPDATED -> updated++;
+                case SKIPPED -> skipped++;
+                case FAILED -> failed++;
+            }
+        }
+        return ImportReportDto.builder()
+                .totalRows(rows.size())
+                .created(created)
+                .updated(updated)
+                .skipped(skipped)
+                .failed(failed)
+                .durationMs(elapsedNanos / 1_000_000)
+                .rowsPerSecond(rows.size() * 1_000_000_000.0 / elapsedNanos)
+                .rows(rows)
+                .build();
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.aiodataservice.application.services;
+
+import org.example.aiodataservice.application.dtos.ReindexJobDto;
+
+public interface IndexAdminService {
+    ReindexJobDto startReindex(String index);
+    ReindexJobDto getReindexJob(String jobId);
+}
@@ -1,15 +1,23 @@
 package org.example.aiodataservice.application.services;
 
+import org.example.aiodataservice.application.constants.ImportFormat;
+import org.example.aiodataservice.application.dtos.CursorPageDto;
+import org.example.aiodataservice.application.dtos.ImportReportDto;
+import org.example.aiodataservice.application.dtos.SearchResultDto;
 import org.example.aiodataservice.application.dtos.staffgroup.CreateStaffGroupDto;
 import org.example.aiodataservice.domain.documents.Staff;
 import org.example.aiodataservice.domain.documents.StaffGroup;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public interface StaffGroupService {
     // Get all groups //add STAFF_GROUP_LIST_CACHE
     List<StaffGroup> getStaffGroups(int page, int size);
+    CursorPageDto<StaffGroup> getStaffGroupsAfter(String cursor, int size, boolean pointInTime);
+    SearchResultDto<StaffGroup> searchStaffGroups(String query, String groupCode, String parentId, String memberId, int page, int size);
 
     // Get group by ID //add STAFF_GROUP_CACHE
     StaffGroup getStaffGroupById(String id);
@@ -20,21 +28,27 @@ public interface StaffGroupService {
     // Update group //remove STAFF_GROUP_LIST_CACHE - STAFF_GROUP_CACHE - RESOLVED_GROUP_MEMBERS_CACHE
     StaffGroup updateStaffGroup(String id, String groupCode, String name, String parentId, Set<String> childrenIds);
 
-    // Delete group //remove STAFF_GROUP_LIST_CACHE - STAFF_GROUP_CACHE - STAFF_DETAIL_CACHE - RESOLVED_GROUP_MEMBERS_CACHE
+    // Delete group //remove STAFF_GROUP_LIST_CACHE - STAFF_GROUP_CACHE - RESOLVED_GROUP_MEMBERS_CACHE
     StaffGroup deleteStaffGroup(String id);
 
-    // Add staff to group //remove STAFF_GROUP_LIST_CACHE - STAFF_GROUP_CACHE - STAFF_DETAIL_CACHE - RESOLVED_GROUP_MEMBERS_CACHE
+    // Add staff to group //remove STAFF_GROUP_LIST_CACHE - STAFF_GROUP_CACHE - STAFF_GROUP_IDS_CACHE - RESOLVED_GROUP_MEMBERS_CACHE
     StaffGroup addStaffToGroup(String id, String staffId);
 
-    // Remove staff from group //remove STAFF_GROUP_LIST_CACHE - STAFF_GROUP_CACHE - STAFF_DETAIL_CACHE - RESOLVED_GROUP_MEMBERS_CACHE
+    // Remove staff from group //remove STAFF_GROUP_LIST_CACHE - STAFF_GROUP_CACHE - STAFF_GROUP_IDS_CACHE - RESOLVED_GROUP_MEMBERS_CACHE
     StaffGroup removeStaffFromGroup(String id, String staffId);
 
+    // Add and remove many staff in one update //remove STAFF_GROUP_LIST_CACHE - STAFF_GROUP_CACHE - STAFF_GROUP_IDS_CACHE - RESOLVED_GROUP_MEMBERS_CACHE
+    StaffGroup updateGroupMembers(String id, Set<String> addStaffIds, Set<String> removeStaffIds);
+
     // resolve group members by group id // add RESOLVED_GROUP_MEMBERS_CACHE
     Set<String> resolveGroupMembers(String id);
 
+    // resolve members of many groups in one call // read/fill RESOLVED_GROUP_MEMBERS_CACHE per group
+    Map<String, Set<String>> resolveGroupMembers(Set<String> ids);
+
     Set<String> getGroupMembersById(String id);
 
     //remove STAFF_GROUP_LIST_CACHE - STAFF_GROUP_CACHE - RESOLVED_GROUP_MEMBERS_CACHE
-    List<StaffGroup> importStaffGroups(byte[] fileContent);
+    ImportReportDto importStaffGroups(InputStream input, ImportFormat format);
 
 }
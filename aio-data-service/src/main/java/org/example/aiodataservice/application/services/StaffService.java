@@ -1,13 +1,20 @@
 package org.example.aiodataservice.application.services;
 
+import org.example.aiodataservice.application.constants.ImportFormat;
+import org.example.aiodataservice.application.dtos.CursorPageDto;
+import org.example.aiodataservice.application.dtos.SearchResultDto;
+import org.example.aiodataservice.application.dtos.ImportReportDto;
 import org.example.aiodataservice.domain.documents.Staff;
 import org.example.aiodataservice.domain.documents.StaffGroup;
 import org.springframework.data.domain.Page;
 
+import java.io.InputStream;
 import java.util.List;
 
 public interface StaffService {
     List<Staff> getStaffs(int page, int size);
+    CursorPageDto<Staff> getStaffsAfter(String cursor, int size, boolean pointInTime);
+    SearchResultDto<Staff> searchStaffs(String query, String staffCode, String email, String groupId, int page, int size);
     Staff getStaffById(String id);
 //    ResponseEntity<?> findByStaffId(String staffId);
 //    ResponseEntity<?> findByEmail(String email);
@@ -15,5 +22,5 @@ public interface StaffService {
     Staff updateStaff(String id, String staffCode, String name, String email);
     Staff deleteStaff(String id);
     List<StaffGroup> getStaffGroupsById(String id);
-    List<Staff> importStaff(byte[] fileContent);
+    ImportReportDto importStaff(InputStream input, ImportFormat format);
 }
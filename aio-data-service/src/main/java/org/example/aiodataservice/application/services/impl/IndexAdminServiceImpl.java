@@ -0,0 +1,39 @@
+package org.example.aiodataservice.application.services.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.example.aiodataservice.application.dtos.ReindexJobDto;
+import org.example.aiodataservice.application.exceptions.ResourceNotFoundException;
+import org.example.aiodataservice.application.services.IndexAdminService;
+import org.example.aiodataservice.domain.documents.GroupMembership;
+import org.example.aiodataservice.domain.documents.Staff;
+import org.example.aiodataservice.domain.documents.StaffGroup;
+import org.example.aiodataservice.infrastructure.indices.IndexReindexer;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class IndexAdminServiceImpl implements IndexAdminService {
+    private static final Map<String, Class<?>> INDEX_TYPES = Map.of(
+            "staff", Staff.class,
+            "staff-group", StaffGroup.class,
+            "group-membership", GroupMembership.class
+    );
+
+    private final IndexReindexer indexReindexer;
+
+    @Override
+    public ReindexJobDto startReindex(String index) {
+        Class<?> type = INDEX_TYPES.get(index);
+        if (type == null) {
+            throw new ResourceNotFoundException("Unknown index: " + index + ", expected one of " + INDEX_TYPES.keySet());
+        }
+        return indexReindexer.start(type);
+    }
+
+    @Override
+    public ReindexJobDto getReindexJob(String jobId) {
+        return indexReindexer.status(jobId);
+    }
+}
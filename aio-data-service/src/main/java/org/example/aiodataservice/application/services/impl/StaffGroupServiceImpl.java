@@ -1,31 +1,49 @@
 package org.example.aiodataservice.application.services.impl;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.aiodataservice.application.constants.CacheNameConstant;
+import org.example.aiodataservice.application.constants.ImportFormat;
+import org.example.aiodataservice.application.dtos.CursorPageDto;
+import org.example.aiodataservice.application.dtos.ImportReportDto;
+import org.example.aiodataservice.application.dtos.ImportRowResultDto;
+import org.example.aiodataservice.application.dtos.ImportRowResultDto.ImportRowStatus;
+import org.example.aiodataservice.application.dtos.SearchResultDto;
 import org.example.aiodataservice.application.dtos.staff.StaffGroupChildDto;
 import org.example.aiodataservice.application.dtos.staffgroup.CreateStaffGroupDto;
 import org.example.aiodataservice.application.dtos.staffgroup.ImportStaffGroupDto;
 import org.example.aiodataservice.application.exceptions.DuplicateResourceException;
 import org.example.aiodataservice.application.exceptions.ResourceNotFoundException;
+import org.example.aiodataservice.application.mappers.ImportReportMapper;
 import org.example.aiodataservice.application.mappers.StaffGroupMapper;
 import org.example.aiodataservice.application.services.StaffGroupService;
 import org.example.aiodataservice.application.services.StaffService;
 import org.example.aiodataservice.domain.documents.Staff;
 import org.example.aiodataservice.domain.documents.StaffGroup;
+import org.example.aiodataservice.infrastructure.caches.GroupCacheInvalidator;
+import org.example.aiodataservice.infrastructure.caches.TwoLevelCache;
+import org.example.aiodataservice.infrastructure.configs.AppImportProperties;
+import org.example.aiodataservice.infrastructure.imports.ImportRecordReader;
+import org.example.aiodataservice.infrastructure.locks.DistributedLock;
+import org.example.aiodataservice.infrastructure.locks.DistributedLockManager;
+import org.example.aiodataservice.infrastructure.repositories.DirectorySearchRepository;
+import org.example.aiodataservice.infrastructure.repositories.ElasticsearchBulkWriter;
+import org.example.aiodataservice.infrastructure.repositories.SearchAfterPager;
+import org.example.aiodataservice.infrastructure.repositories.GroupMembershipStore;
+import org.example.aiodataservice.infrastructure.repositories.StaffGroupHierarchyWriter;
 import org.example.aiodataservice.infrastructure.repositories.StaffGroupRepository;
 import org.example.aiodataservice.infrastructure.repositories.StaffRepository;
+import org.example.aiodataservice.infrastructure.trees.OrgTreeSnapshotManager;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
-import java.time.Duration;
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -34,11 +52,21 @@ import java.util.stream.Collectors;
 @Slf4j
 @Service
 public class StaffGroupServiceImpl implements StaffGroupService {
+    private static final int MGET_CHUNK_SIZE = 1000;
 
     private final StaffRepository staffRepository;
     private final StaffGroupRepository staffGroupRepository;
-    private final RedisTemplate<String, Object> redisTemplate;
-    private final ObjectMapper objectMapper;
+    private final DistributedLockManager lockManager;
+    private final CacheManager cacheManager;
+    private final GroupCacheInvalidator groupCacheInvalidator;
+    private final ImportRecordReader importRecordReader;
+    private final AppImportProperties importProperties;
+    private final ElasticsearchBulkWriter bulkWriter;
+    private final SearchAfterPager searchAfterPager;
+    private final DirectorySearchRepository directorySearchRepository;
+    private final GroupMembershipStore membershipStore;
+    private final OrgTreeSnapshotManager orgTreeSnapshotManager;
+    private final StaffGroupHierarchyWriter hierarchyWriter;
 
     @Override
     @Cacheable(value = CacheNameConstant.STAFF_GROUP_LIST_CACHE)
@@ -49,25 +77,30 @@ public class StaffGroupServiceImpl implements StaffGroupService {
     }
 
     @Override
-    @Cacheable(value = CacheNameConstant.STAFF_GROUP_CACHE, key = "#id", unless = "#result == null")
+    public CursorPageDto<StaffGroup> getStaffGroupsAfter(String cursor, int size, boolean pointInTime) {
+        return searchAfterPager.page(StaffGroup.class, "groupCode", cursor, size, pointInTime);
+    }
+
+    @Override
+    public SearchResultDto<StaffGroup> searchStaffGroups(String query, String groupCode, String parentId, String memberId, int page, int size) {
+        Collection<String> groupIds = null;
+        if (memberId != null && !memberId.isBlank()) {
+            groupIds = membershipStore.findGroupIds(memberId);
+        }
+        return directorySearchRepository.searchGroups(query, groupCode, parentId, groupIds, page, size);
+    }
+
+    @Override
+    @Cacheable(value = CacheNameConstant.STAFF_GROUP_CACHE, key = "#id", sync = true)
     public StaffGroup getStaffGroupById(String id) {
         return staffGroupRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Staff group not found with id: " + id));
     }
 
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = CacheNameConstant.STAFF_GROUP_LIST_CACHE, allEntries = true),
-            @CacheEvict(value = CacheNameConstant.STAFF_GROUP_CACHE, key = "#result.id"),
-            @CacheEvict(value = CacheNameConstant.RESOLVED_GROUP_MEMBERS_CACHE, allEntries = true)
-    })
+    @CacheEvict(value = CacheNameConstant.STAFF_GROUP_LIST_CACHE, allEntries = true)
     public StaffGroup createStaffGroup(String groupCode, String name, String parentId, Set<String> childrenIds) {
-        String lockKey = "lock:staffgroup:create:" + groupCode;
-        try{
-            Boolean locked = redisTemplate.opsForValue().setIfAbsent(lockKey, groupCode, Duration.ofSeconds(10));
-            if (locked == null || !locked) {
-                throw new RuntimeException("Could not acquire lock for groupCode: " + groupCode);
-            }
+        try (DistributedLock lock = lockManager.acquire("staffgroup:create", groupCode)) {
             if (staffGroupRepository.existsByGroupCode(groupCode)) {
                 throw new DuplicateResourceException("StaffGroup already exist with code: " + groupCode);
             }
@@ -105,27 +138,16 @@ public class StaffGroupServiceImpl implements StaffGroupService {
                 parentGroup.setUpdatedAt(LocalDate.now());
                 groupsToSave.add(parentGroup);
             }
-            staffGroupRepository.saveAll(groupsToSave);
+            hierarchyWriter.write(List.of(staffGroup), groupsToSave.subList(1, groupsToSave.size()));
+            groupCacheInvalidator.evictGroups(groupsToSave);
             return staffGroup;
         }
-        finally {
-            redisTemplate.delete(lockKey);
-        }
     }
 
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = CacheNameConstant.STAFF_GROUP_LIST_CACHE, allEntries = true),
-            @CacheEvict(value = CacheNameConstant.STAFF_GROUP_CACHE, key = "#result.id"),
-            @CacheEvict(value = CacheNameConstant.RESOLVED_GROUP_MEMBERS_CACHE, allEntries = true)
-    })
+    @CacheEvict(value = CacheNameConstant.STAFF_GROUP_LIST_CACHE, allEntries = true)
     public StaffGroup updateStaffGroup(String id, String groupCode, String name, String parentId, Set<String> childrenIds) {
-        String lockKey = "lock:staffgroup:" + id;
-        try{
-            Boolean locked = redisTemplate.opsForValue().setIfAbsent(lockKey, id, Duration.ofSeconds(10));
-            if (locked == null || !locked) {
-                throw new RuntimeException("Could not acquire lock for id: " + id);
-            }
+        try (DistributedLock lock = lockManager.acquire("staffgroup", id)) {
             StaffGroup staffGroup = staffGroupRepository.findById(id)
                     .orElseThrow(() -> new ResourceNotFoundException("Staff group not found with id: " + id));
             if(groupCode == null || groupCode.isEmpty()) {
@@ -203,29 +225,17 @@ public class StaffGroupServiceImpl implements StaffGroupService {
                 staffGroup.setParentId(null);
             }
             staffGroup.setUpdatedAt(LocalDate.now());
-            staffGroupRepository.saveAll(groupsToSave);
+            hierarchyWriter.write(List.of(), groupsToSave);
+            groupCacheInvalidator.evictGroups(groupsToSave);
             return staffGroup;
         }
-        finally {
-            redisTemplate.delete(lockKey);
-        }
     }
 
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = CacheNameConstant.STAFF_GROUP_LIST_CACHE, allEntries = true),
-            @CacheEvict(value = CacheNameConstant.STAFF_GROUP_CACHE, key = "#result.id"),
-            @CacheEvict(value = CacheNameConstant.STAFF_DETAIL_CACHE, allEntries = true),
-            @CacheEvict(value = CacheNameConstant.RESOLVED_GROUP_MEMBERS_CACHE, allEntries = true)
-    })
+    @CacheEvict(value = CacheNameConstant.STAFF_GROUP_LIST_CACHE, allEntries = true)
     public StaffGroup deleteStaffGroup(String id) {
 
-        String lockKey = "lock:staffgroup:" + id;
-        try {
-            Boolean locked = redisTemplate.opsForValue().setIfAbsent(lockKey, id, Duration.ofSeconds(10));
-            if (locked == null || !locked) {
-                throw new RuntimeException("Could not acquire lock for group id: " + id);
-            }
+        try (DistributedLock lock = lockManager.acquire("staffgroup", id)) {
 
             StaffGroup staffGroup = staffGroupRepository.findById(id)
                     .orElseThrow(() -> new ResourceNotFoundException("StaffGroup not found with id: " + id));
@@ -250,204 +260,351 @@ public class StaffGroupServiceImpl implements StaffGroupService {
                 }
             }
             if (!groupsToUpdate.isEmpty()) {
-                staffGroupRepository.saveAll(groupsToUpdate);
+                hierarchyWriter.write(List.of(), groupsToUpdate);
             }
             staffGroupRepository.deleteById(id);
+            groupsToUpdate.add(staffGroup);
+            groupCacheInvalidator.evictGroups(groupsToUpdate);
+            membershipStore.removeGroup(id);
             return staffGroup;
-        } finally {
-            redisTemplate.delete(lockKey);
         }
     }
 
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = CacheNameConstant.STAFF_GROUP_LIST_CACHE, allEntries = true),
-            @CacheEvict(value = CacheNameConstant.STAFF_GROUP_CACHE, key = "#result.id"),
-            @CacheEvict(value = CacheNameConstant.STAFF_DETAIL_CACHE, allEntries = true),
-            @CacheEvict(value = CacheNameConstant.RESOLVED_GROUP_MEMBERS_CACHE, allEntries = true)
-    })
+    @CacheEvict(value = CacheNameConstant.STAFF_GROUP_LIST_CACHE, allEntries = true)
     public StaffGroup addStaffToGroup(String id, String staffId) {
-        String lockey = "lock:staffgroup:" + id;
-        try {
-            Boolean locked = redisTemplate.opsForValue().setIfAbsent(lockey, id, Duration.ofSeconds(10));
-            if (locked == null || !locked) {
-                throw new RuntimeException("Could not acquire lock for group id: " + id);
-            }
-            StaffGroup staffGroup = staffGroupRepository.findById(id)
-                    .orElseThrow(() -> new ResourceNotFoundException("Staff Group not found with id: " + id));
-            if (!staffRepository.existsById(staffId)) {
-                throw new ResourceNotFoundException("Staff not found with id: " + staffId);
-            }
-            staffGroup.getMemberIds().add(staffId);
-            staffGroup.setUpdatedAt(LocalDate.now());
-            staffGroupRepository.save(staffGroup);
-            return staffGroup;
-        } finally {
-            redisTemplate.delete(lockey);
+        if (!staffRepository.existsById(staffId)) {
+            throw new ResourceNotFoundException("Staff not found with id: " + staffId);
         }
+        return membershipStore.apply(id, Map.of(staffId, true));
     }
 
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = CacheNameConstant.STAFF_GROUP_LIST_CACHE, allEntries = true),
-            @CacheEvict(value = CacheNameConstant.STAFF_GROUP_CACHE, key = "#result.id"),
-            @CacheEvict(value = CacheNameConstant.STAFF_DETAIL_CACHE, allEntries = true),
-            @CacheEvict(value = CacheNameConstant.RESOLVED_GROUP_MEMBERS_CACHE, allEntries = true)
-    })
+    @CacheEvict(value = CacheNameConstant.STAFF_GROUP_LIST_CACHE, allEntries = true)
     public StaffGroup removeStaffFromGroup(String id, String staffId) {
-        String lockey = "lock:staffgroup:" + id;
-        try {
-            Boolean locked = redisTemplate.opsForValue().setIfAbsent(lockey, id, Duration.ofSeconds(10));
-            if (locked == null || !locked) {
-                throw new RuntimeException("Could not acquire lock for group id: " + id);
-            }
-            StaffGroup staffGroup = staffGroupRepository.findById(id)
-                    .orElseThrow(() -> new ResourceNotFoundException("Staff Group not found with id: " + id));
-            if (!staffRepository.existsById(staffId)) {
-                throw new ResourceNotFoundException("Staff not found with id: " + staffId);
+        if (!staffRepository.existsById(staffId)) {
+            throw new ResourceNotFoundException("Staff not found with id: " + staffId);
+        }
+        return membershipStore.apply(id, Map.of(staffId, false));
+    }
+
+    @Override
+    @CacheEvict(value = CacheNameConstant.STAFF_GROUP_LIST_CACHE, allEntries = true)
+    public StaffGroup updateGroupMembers(String id, Set<String> addStaffIds, Set<String> removeStaffIds) {
+        Map<String, Boolean> changes = new LinkedHashMap<>();
+        if (addStaffIds != null && !addStaffIds.isEmpty()) {
+            Set<String> missing = new HashSet<>(addStaffIds);
+            staffRepository.findAllById(addStaffIds).forEach(staff -> missing.remove(staff.getId()));
+            if (!missing.isEmpty()) {
+                throw new ResourceNotFoundException("Staff not found with ids: " + missing);
             }
-            staffGroup.getMemberIds().remove(staffId);
-            staffGroup.setUpdatedAt(LocalDate.now());
-            staffGroupRepository.save(staffGroup);
-            return staffGroup;
-        } finally {
-            redisTemplate.delete(lockey);
+            addStaffIds.forEach(staffId -> changes.put(staffId, true));
         }
+        if (removeStaffIds != null) {
+            removeStaffIds.forEach(staffId -> changes.put(staffId, false));
+        }
+        return membershipStore.apply(id, changes);
     }
 
     @Override
-    @Cacheable(value = CacheNameConstant.RESOLVED_GROUP_MEMBERS_CACHE, key = "#id", unless = "#result == null")
+    @Cacheable(value = CacheNameConstant.RESOLVED_GROUP_MEMBERS_CACHE, key = "#id", sync = true)
     public Set<String> resolveGroupMembers(String id) {
-        StaffGroup staffGroup = staffGroupRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("StaffGroup not found with id: " + id));
-        return resolveGroupMembersRecursive(staffGroup);
+        Set<String> snapshotMembers = orgTreeSnapshotManager.resolveMembers(id);
+        if (snapshotMembers != null) {
+            return snapshotMembers;
+        }
+        Map<String, StaffGroup> groups = loadSubtrees(Set.of(id));
+        if (!groups.containsKey(id)) {
+            throw new ResourceNotFoundException("StaffGroup not found with id: " + id);
+        }
+        orgTreeSnapshotManager.refresh(Set.of(id));
+        return collectMembers(id, groups, membershipStore.findMembersByGroup(groups.values()));
+    }
+
+    @Override
+    public Map<String, Set<String>> resolveGroupMembers(Set<String> ids) {
+        Map<String, Set<String>> resolved = new HashMap<>();
+        Cache cache = cacheManager.getCache(CacheNameConstant.RESOLVED_GROUP_MEMBERS_CACHE);
+        Set<String> misses = new HashSet<>();
+        for (String id : ids) {
+            Cache.ValueWrapper cached = cache != null ? cache.get(id) : null;
+            if (cached != null && cached.get() instanceof Collection<?> members) {
+                resolved.put(id, members.stream().map(String::valueOf).collect(Collectors.toSet()));
+            } else {
+                misses.add(id);
+            }
+        }
+        if (misses.isEmpty()) {
+            return resolved;
+        }
+
+        Map<String, Set<String>> loaded = new HashMap<>();
+        Set<String> unknown = new HashSet<>();
+        for (String id : misses) {
+            Set<String> members = orgTreeSnapshotManager.resolveMembers(id);
+            if (members != null) {
+                loaded.put(id, members);
+            } else {
+                unknown.add(id);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            // not in the snapshot yet, e.g. created on another replica whose change has not arrived, or still pending
+            Map<String, StaffGroup> groups = loadSubtrees(unknown);
+            Map<String, Set<String>> membersByGroup = membershipStore.findMembersByGroup(groups.values());
+            for (String id : unknown) {
+                if (groups.containsKey(id)) {
+                    loaded.put(id, collectMembers(id, groups, membersByGroup));
+                }
+            }
+            orgTreeSnapshotManager.refresh(groups.keySet());
+        }
+        resolved.putAll(loaded);
+        if (cache instanceof TwoLevelCache twoLevelCache) {
+            loaded.forEach(twoLevelCache::fill);
+        } else if (cache != null) {
+            loaded.forEach(cache::put);
+        }
+        log.debug("Resolved members for {} groups ({} from cache)", resolved.size(), ids.size() - misses.size());
+        return resolved;
     }
 
     @Override
     public Set<String> getGroupMembersById(String id) {
+        Set<String> snapshotMembers = orgTreeSnapshotManager.membersOf(id);
+        if (snapshotMembers != null) {
+            return snapshotMembers;
+        }
         StaffGroup staffGroup = staffGroupRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("StaffGroup not found with id: " + id));
-        return staffGroup.getMemberIds();
+        orgTreeSnapshotManager.refresh(Set.of(id));
+        return membershipStore.findMembersByGroup(List.of(staffGroup)).getOrDefault(id, Set.of());
     }
 
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = CacheNameConstant.STAFF_GROUP_LIST_CACHE, allEntries = true),
-            @CacheEvict(value = CacheNameConstant.STAFF_GROUP_CACHE, allEntries = true),
-            @CacheEvict(value = CacheNameConstant.RESOLVED_GROUP_MEMBERS_CACHE, allEntries = true)
-    })
-    public List<StaffGroup> importStaffGroups(byte[] fileContent) {
+    @CacheEvict(value = CacheNameConstant.STAFF_GROUP_LIST_CACHE, allEntries = true)
+    public ImportReportDto importStaffGroups(InputStream input, ImportFormat format) {
+        long startedAt = System.nanoTime();
+        List<ImportRowResultDto> results = new ArrayList<>();
+        Map<String, ImportStaffGroupDto> importDTOs = new LinkedHashMap<>();
+        Map<String, ImportRowResultDto> resultsByCode = new HashMap<>();
         try {
-            List<ImportStaffGroupDto> importDTOs = objectMapper.readValue(fileContent, new TypeReference<List<ImportStaffGroupDto>>() {});
-            List<StaffGroup> createdGroups = new ArrayList<>();
-            Map<String, String> groupCodeToId = new HashMap<>();
-
-            // Phase 1
-            for (ImportStaffGroupDto dto : importDTOs) {
-                String groupCode = dto.getGroupCode();
-                String lockKey = "lock:staffgroup:import:" + groupCode;
-
-                try {
-                    Boolean locked = redisTemplate.opsForValue().setIfAbsent(lockKey, groupCode, Duration.ofSeconds(10));
-                    if (locked == null || !locked) {
-                        throw new RuntimeException("Could not acquire lock for groupCode: " + groupCode);
-                    }
+            importRecordReader.readChunks(input, format, ImportStaffGroupDto.class, importProperties.getChunkSize(),
+                    chunk -> chunk.forEach(dto -> {
+                        ImportRowResultDto result = ImportRowResultDto.builder()
+                                .row(results.size())
+                                .code(dto.getGroupCode())
+                                .build();
+                        results.add(result);
+                        if (dto.getGroupCode() == null || dto.getGroupCode().isBlank()) {
+                            result.setStatus(ImportRowStatus.FAILED);
+                            result.setMessage("groupCode is required");
+                        } else if (resultsByCode.putIfAbsent(dto.getGroupCode(), result) != null) {
+                            result.setStatus(ImportRowStatus.FAILED);
+                            result.setMessage("Duplicate groupCode in file, first seen at row " + resultsByCode.get(dto.getGroupCode()).getRow());
+                        } else {
+                            importDTOs.put(dto.getGroupCode(), dto);
+                        }
+                    }));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to parse staff group import file: " + e.getMessage(), e);
+        }
 
-                    if (staffGroupRepository.existsByGroupCode(groupCode)) {
-                        continue;
-                    }
+        Map<String, StaffGroup> groupsByCode = findAllByGroupCodeInChunks(importDTOs.keySet());
 
-                    StaffGroup staffGroup = StaffGroup.builder()
-                            .id(UUID.randomUUID().toString())
-                            .groupCode(groupCode)
-                            .name(dto.getName())
-                            .createdAt(LocalDate.now())
-                            .updatedAt(LocalDate.now())
-                            .children(new ArrayList<>())
-                            .build();
-
-                    createdGroups.add(staffGroup);
-                    groupCodeToId.put(groupCode, staffGroup.getId());
-                } finally {
-                    redisTemplate.delete(lockKey);
-                }
+        // Phase 1
+        List<StaffGroup> createdGroups = new ArrayList<>();
+        for (ImportStaffGroupDto dto : importDTOs.values()) {
+            if (groupsByCode.containsKey(dto.getGroupCode())) {
+                continue;
             }
+            StaffGroup staffGroup = StaffGroup.builder()
+                    .id(UUID.randomUUID().toString())
+                    .groupCode(dto.getGroupCode())
+                    .name(dto.getName())
+                    .createdAt(LocalDate.now())
+                    .updatedAt(LocalDate.now())
+                    .children(new ArrayList<>())
+                    .memberIds(new HashSet<>())
+                    .build();
+            createdGroups.add(staffGroup);
+            groupsByCode.put(staffGroup.getGroupCode(), staffGroup);
+        }
 
-            if (!createdGroups.isEmpty()) {
-                staffGroupRepository.saveAll(createdGroups);
+        Set<String> missingParentCodes = importDTOs.values().stream()
+                .map(ImportStaffGroupDto::getParentCode)
+                .filter(parentCode -> parentCode != null && !groupsByCode.containsKey(parentCode))
+                .collect(Collectors.toSet());
+        groupsByCode.putAll(findAllByGroupCodeInChunks(missingParentCodes));
+        Map<String, StaffGroup> groupsById = new HashMap<>();
+        groupsByCode.values().forEach(group -> groupsById.put(group.getId(), group));
+
+        Set<String> missingOldParentIds = new HashSet<>();
+        for (ImportStaffGroupDto dto : importDTOs.values()) {
+            String oldParentId = groupsByCode.get(dto.getGroupCode()).getParentId();
+            if (dto.getParentCode() != null && oldParentId != null && !groupsById.containsKey(oldParentId)) {
+                missingOldParentIds.add(oldParentId);
+            }
+        }
+        findAllByIdInChunks(missingOldParentIds).forEach(group -> groupsById.put(group.getId(), group));
+
+        // Phase 2
+        Map<String, StaffGroup> changedGroups = new LinkedHashMap<>();
+        // input rows whose result depends on each written document, e.g. a child row on its parent's children list
+        Map<String, Set<ImportRowResultDto>> rowsByGroupId = new HashMap<>();
+        for (StaffGroup group : createdGroups) {
+            changedGroups.put(group.getId(), group);
+            rowsByGroupId.computeIfAbsent(group.getId(), id -> new LinkedHashSet<>()).add(resultsByCode.get(group.getGroupCode()));
+        }
+        for (ImportStaffGroupDto dto : importDTOs.values()) {
+            if (dto.getParentCode() == null || dto.getParentCode().equals(dto.getGroupCode())) {
+                continue;
+            }
+            StaffGroup parentGroup = groupsByCode.get(dto.getParentCode());
+            if (parentGroup == null) {
+                throw new ResourceNotFoundException("Parent group not found with code: " + dto.getParentCode());
+            }
+            StaffGroup staffGroup = groupsByCode.get(dto.getGroupCode());
+            if (parentGroup.getId().equals(staffGroup.getParentId())) {
+                continue;
+            }
+            ImportRowResultDto result = resultsByCode.get(dto.getGroupCode());
+            StaffGroup oldParentGroup = staffGroup.getParentId() != null ? groupsById.get(staffGroup.getParentId()) : null;
+            if (oldParentGroup != null && oldParentGroup.getChildren() != null) {
+                oldParentGroup.getChildren().removeIf(child -> child.getId().equals(staffGroup.getId()));
+                oldParentGroup.setUpdatedAt(LocalDate.now());
+                changedGroups.put(oldParentGroup.getId(), oldParentGroup);
+                rowsByGroupId.computeIfAbsent(oldParentGroup.getId(), id -> new LinkedHashSet<>()).add(result);
             }
 
-            // Phase 2
-            List<StaffGroup> updatedGroups = new ArrayList<>();
-
-            for (ImportStaffGroupDto dto : importDTOs) {
-                StaffGroup staffGroup = createdGroups.stream()
-                        .filter(g -> g.getGroupCode().equals(dto.getGroupCode()))
-                        .findFirst()
-                        .orElseGet(() -> staffGroupRepository.findByGroupCode(dto.getGroupCode())
-                                .orElseThrow(() -> new ResourceNotFoundException("Group not found: " + dto.getGroupCode())));
-
-                String lockKey = "lock:staffgroup:import:" + dto.getGroupCode();
-                try {
-                    Boolean locked = redisTemplate.opsForValue().setIfAbsent(lockKey, dto.getGroupCode(), Duration.ofSeconds(10));
-                    if (locked == null || !locked) {
-                        throw new RuntimeException("Could not acquire lock for groupCode: " + dto.getGroupCode());
-                    }
+            staffGroup.setParentId(parentGroup.getId());
+            staffGroup.setUpdatedAt(LocalDate.now());
+            if (parentGroup.getChildren() == null) {
+                parentGroup.setChildren(new ArrayList<>());
+            }
+            parentGroup.getChildren().add(StaffGroupMapper.toChildDto(staffGroup));
+            parentGroup.setUpdatedAt(LocalDate.now());
+            changedGroups.put(staffGroup.getId(), staffGroup);
+            changedGroups.put(parentGroup.getId(), parentGroup);
+            rowsByGroupId.computeIfAbsent(staffGroup.getId(), id -> new LinkedHashSet<>()).add(result);
+            rowsByGroupId.computeIfAbsent(parentGroup.getId(), id -> new LinkedHashSet<>()).add(result);
+        }
 
-                    if (dto.getParentCode() != null) {
-                        String parentId = groupCodeToId.get(dto.getParentCode());
-                        StaffGroup parentGroup;
+        // existing groups get partial updates so a concurrent membership flush on them is not overwritten
+        Set<String> createdIds = createdGroups.stream().map(StaffGroup::getId).collect(Collectors.toSet());
+        List<StaffGroup> written = new ArrayList<>(changedGroups.values());
+        ElasticsearchBulkWriter.Session<StaffGroup> session = bulkWriter.open(StaffGroup.class);
+        try {
+            for (int row = 0; row < written.size(); row++) {
+                StaffGroup group = written.get(row);
+                if (createdIds.contains(group.getId())) {
+                    session.index(group.getId(), group, row);
+                } else {
+                    session.update(group.getId(), group, StaffGroupHierarchyWriter.MEMBERSHIP_FIELDS, row);
+                }
+            }
+        } finally {
+            session.close();
+        }
 
-                        if (parentId != null) {
-                            parentGroup = createdGroups.stream()
-                                    .filter(g -> g.getId().equals(parentId))
-                                    .findFirst()
-                                    .orElseGet(() -> staffGroupRepository.findById(parentId)
-                                            .orElseThrow(() -> new ResourceNotFoundException("Parent group not found with id: " + parentId)));
-                        } else {
-                            parentGroup = staffGroupRepository.findByGroupCode(dto.getParentCode())
-                                    .orElseThrow(() -> new ResourceNotFoundException("Parent group not found with code: " + dto.getParentCode()));
-                        }
+        for (ImportStaffGroupDto dto : importDTOs.values()) {
+            StaffGroup group = groupsByCode.get(dto.getGroupCode());
+            ImportRowResultDto result = resultsByCode.get(dto.getGroupCode());
+            result.setId(group.getId());
+            if (createdIds.contains(group.getId())) {
+                result.setStatus(ImportRowStatus.CREATED);
+            } else if (changedGroups.containsKey(group.getId())) {
+                result.setStatus(ImportRowStatus.UPDATED);
+            } else {
+                result.setStatus(ImportRowStatus.SKIPPED);
+                result.setMessage("Staff group already exists");
+            }
+        }
+        // a rejected document fails every row that relied on it; documents the ingester did write still get evicted below
+        Map<Integer, String> failures = new HashMap<>();
+        Set<String> failedIds = new HashSet<>();
+        session.failures().forEach((row, reason) -> {
+            String groupId = written.get(row).getId();
+            failedIds.add(groupId);
+            for (ImportRowResultDto result : rowsByGroupId.getOrDefault(groupId, Set.of())) {
+                failures.merge(result.getRow(), reason, (first, next) -> first);
+            }
+        });
+        ImportReportMapper.applyFailures(results, failures);
+
+        orgTreeSnapshotManager.onGroupsChanged(createdGroups.stream().map(StaffGroup::getId).filter(id -> !failedIds.contains(id)).toList());
+        List<StaffGroup> updatedExistingGroups = written.stream()
+                .filter(group -> !createdIds.contains(group.getId()) && !failedIds.contains(group.getId()))
+                .toList();
+        if (!updatedExistingGroups.isEmpty()) {
+            groupCacheInvalidator.evictGroups(updatedExistingGroups);
+        }
 
-                        staffGroup.setParentId(parentGroup.getId());
+        ImportReportDto report = ImportReportMapper.toReport(results, startedAt);
+        log.info("Imported staff groups: {} rows, {} created, {} updated, {} skipped, {} failed ({} documents written) in {} ms",
+                report.getTotalRows(), report.getCreated(), report.getUpdated(), report.getSkipped(), report.getFailed(),
+                written.size() - failedIds.size(), report.getDurationMs());
+        return report;
+    }
 
-                        if (parentGroup.getChildren() == null) {
-                            parentGroup.setChildren(new ArrayList<>());
-                        }
-                        parentGroup.getChildren().add(StaffGroupMapper.toChildDto(staffGroup));
-                        parentGroup.setUpdatedAt(LocalDate.now());
+    private Map<String, StaffGroup> findAllByGroupCodeInChunks(Collection<String> groupCodes) {
+        List<String> codeList = new ArrayList<>(groupCodes);
+        Map<String, StaffGroup> groups = new HashMap<>();
+        for (int from = 0; from < codeList.size(); from += importProperties.getChunkSize()) {
+            staffGroupRepository.findAllByGroupCodeIn(codeList.subList(from, Math.min(from + importProperties.getChunkSize(), codeList.size())))
+                    .forEach(group -> groups.put(group.getGroupCode(), group));
+        }
+        return groups;
+    }
 
-                        updatedGroups.add(parentGroup);
+    private Map<String, StaffGroup> loadSubtrees(Collection<String> rootIds) {
+        Map<String, StaffGroup> groups = new HashMap<>();
+        Set<String> frontier = new HashSet<>(rootIds);
+        while (!frontier.isEmpty()) {
+            Set<String> next = new HashSet<>();
+            for (StaffGroup group : findAllByIdInChunks(frontier)) {
+                groups.put(group.getId(), group);
+                if (group.getChildren() == null) {
+                    continue;
+                }
+                for (StaffGroupChildDto child : group.getChildren()) {
+                    if (!groups.containsKey(child.getId()) && !frontier.contains(child.getId())) {
+                        next.add(child.getId());
                     }
-
-                    staffGroup.setUpdatedAt(LocalDate.now());
-                    updatedGroups.add(staffGroup);
-                } finally {
-                    redisTemplate.delete(lockKey);
                 }
             }
-
-            if (!updatedGroups.isEmpty()) {
-                staffGroupRepository.saveAll(updatedGroups);
-            }
-
-            return createdGroups;
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to import staff groups: " + e.getMessage(), e);
+            frontier = next;
         }
+        return groups;
     }
 
-    private Set<String> resolveGroupMembersRecursive(StaffGroup group) {
-        Set<String> members = new HashSet<>(group.getMemberIds());
+    private List<StaffGroup> findAllByIdInChunks(Set<String> ids) {
+        List<String> idList = new ArrayList<>(ids);
+        List<StaffGroup> groups = new ArrayList<>(idList.size());
+        for (int from = 0; from < idList.size(); from += MGET_CHUNK_SIZE) {
+            staffGroupRepository.findAllById(idList.subList(from, Math.min(from + MGET_CHUNK_SIZE, idList.size())))
+                    .forEach(groups::add);
+        }
+        return groups;
+    }
 
-        for (StaffGroupChildDto childDto : group.getChildren()) {
-            StaffGroup childGroup = staffGroupRepository.findById(childDto.getId())
-                    .orElse(null);
-            if (childGroup != null) {
-                members.addAll(resolveGroupMembersRecursive(childGroup));
+    private Set<String> collectMembers(String rootId, Map<String, StaffGroup> groups, Map<String, Set<String>> membersByGroup) {
+        Set<String> members = new HashSet<>();
+        Set<String> visited = new HashSet<>();
+        Deque<String> stack = new ArrayDeque<>();
+        stack.push(rootId);
+        while (!stack.isEmpty()) {
+            StaffGroup group = groups.get(stack.pop());
+            if (group == null || !visited.add(group.getId())) {
+                continue;
+            }
+            members.addAll(membersByGroup.getOrDefault(group.getId(), Set.of()));
+            if (group.getChildren() != null) {
+                for (StaffGroupChildDto child : group.getChildren()) {
+                    stack.push(child.getId());
+                }
             }
         }
-
         return members;
     }
 }
@@ -1,32 +1,49 @@
 package org.example.aiodataservice.application.services.impl;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.aiodataservice.application.constants.CacheNameConstant;
+import org.example.aiodataservice.application.constants.ImportFormat;
+import org.example.aiodataservice.application.dtos.CursorPageDto;
+import org.example.aiodataservice.application.dtos.SearchResultDto;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.example.aiodataservice.application.dtos.ImportReportDto;
+import org.example.aiodataservice.application.dtos.ImportRowResultDto;
+import org.example.aiodataservice.application.dtos.ImportRowResultDto.ImportRowStatus;
 import org.example.aiodataservice.application.dtos.staff.CreateStaffDto;
 import org.example.aiodataservice.application.exceptions.DuplicateResourceException;
 import org.example.aiodataservice.application.exceptions.ResourceNotFoundException;
+import org.example.aiodataservice.application.mappers.ImportReportMapper;
 import org.example.aiodataservice.application.services.StaffService;
 import org.example.aiodataservice.domain.documents.Staff;
 import org.example.aiodataservice.domain.documents.StaffGroup;
+import org.example.aiodataservice.infrastructure.configs.AppImportProperties;
+import org.example.aiodataservice.infrastructure.imports.ImportRecordReader;
+import org.example.aiodataservice.infrastructure.locks.DistributedLock;
+import org.example.aiodataservice.infrastructure.locks.DistributedLockManager;
+import org.example.aiodataservice.infrastructure.repositories.DirectorySearchRepository;
+import org.example.aiodataservice.infrastructure.repositories.ElasticsearchBulkWriter;
+import org.example.aiodataservice.infrastructure.repositories.SearchAfterPager;
+import org.example.aiodataservice.infrastructure.repositories.GroupMembershipStore;
 import org.example.aiodataservice.infrastructure.repositories.StaffGroupRepository;
 import org.example.aiodataservice.infrastructure.repositories.StaffRepository;
+import org.example.aiodataservice.infrastructure.trees.OrgTreeSnapshotManager;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
-import java.time.Duration;
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -35,8 +52,16 @@ public class StaffServiceImpl implements StaffService {
 
     private final StaffRepository staffRepository;
     private final StaffGroupRepository staffGroupRepository;
-    private final RedisTemplate<String, Object> redisTemplate;
-    private final ObjectMapper objectMapper;
+    private final DistributedLockManager lockManager;
+    private final GroupMembershipStore membershipStore;
+    private final ElasticsearchBulkWriter bulkWriter;
+    private final SearchAfterPager searchAfterPager;
+    private final DirectorySearchRepository directorySearchRepository;
+    private final OrgTreeSnapshotManager orgTreeSnapshotManager;
+    private final CacheManager cacheManager;
+    private final AppImportProperties importProperties;
+    private final ImportRecordReader importRecordReader;
+    private final Validator validator;
 
     @Override
     @Cacheable(value = CacheNameConstant.STAFF_LIST_CACHE)
@@ -46,6 +71,26 @@ public class StaffServiceImpl implements StaffService {
         return staffs;
     }
 
+    @Override
+    public CursorPageDto<Staff> getStaffsAfter(String cursor, int size, boolean pointInTime) {
+        return searchAfterPager.page(Staff.class, "staffCode", cursor, size, pointInTime);
+    }
+
+    @Override
+    public SearchResultDto<Staff> searchStaffs(String query, String staffCode, String email, String groupId, int page, int size) {
+        Collection<String> staffIds = null;
+        if (groupId != null && !groupId.isBlank()) {
+            staffIds = orgTreeSnapshotManager.membersOf(groupId);
+            if (staffIds == null) {
+                StaffGroup group = staffGroupRepository.findById(groupId)
+                        .orElseThrow(() -> new ResourceNotFoundException("StaffGroup not found with id: " + groupId));
+                staffIds = membershipStore.findMembersByGroup(List.of(group)).getOrDefault(groupId, Set.of());
+                orgTreeSnapshotManager.refresh(Set.of(groupId));
+            }
+        }
+        return directorySearchRepository.searchStaff(query, staffCode, email, staffIds, page, size);
+    }
+
     @Override
     @Cacheable(value = CacheNameConstant.STAFF_CACHE, key = "#id", unless = "#result == null")
     public Staff getStaffById(String id) {
@@ -60,12 +105,7 @@ public class StaffServiceImpl implements StaffService {
             @CacheEvict(value = CacheNameConstant.STAFF_CACHE, key = "#result.id")
     })
     public Staff createStaff(String staffCode, String name, String email) {
-       String lockKey = "lock:staff:create:" + staffCode;
-        try {
-            Boolean locked = redisTemplate.opsForValue().setIfAbsent(lockKey, staffCode, Duration.ofSeconds(10));
-            if (locked == null || !locked) {
-                throw new RuntimeException("Could not acquire lock for staffCode: " + staffCode);
-            }
+        try (DistributedLock lock = lockManager.acquire("staff:create", staffCode)) {
             if (staffRepository.existsByStaffCode(staffCode)) {
                 throw new DuplicateResourceException("Staff Code already exists: " + staffCode);
             }
@@ -79,8 +119,6 @@ public class StaffServiceImpl implements StaffService {
                     .build();
             staffRepository.save(staff);
             return staff;
-        } finally {
-            redisTemplate.delete(lockKey);
         }
     }
 
@@ -90,12 +128,7 @@ public class StaffServiceImpl implements StaffService {
             @CacheEvict(value = CacheNameConstant.STAFF_CACHE, key = "#id")
     })
     public Staff updateStaff(String id, String staffCode, String name, String email) {
-        String lockKey = "lock:staff:" + id;
-        try{
-            Boolean locked = redisTemplate.opsForValue().setIfAbsent(lockKey, id, Duration.ofSeconds(10));
-            if (locked == null || !locked) {
-                throw new RuntimeException("Could not acquire lock for id: " + id);
-            }
+        try (DistributedLock lock = lockManager.acquire("staff", id)) {
             Staff staff = staffRepository.findById(id)
                     .orElseThrow(() -> new ResourceNotFoundException("Staff not found"));
             staff.setStaffCode(staffCode);
@@ -105,92 +138,141 @@ public class StaffServiceImpl implements StaffService {
             staffRepository.save(staff);
             return staff;
         }
-        finally {
-            redisTemplate.delete(lockKey);
-        }
     }
 
     @Override
     @Caching(evict = {
             @CacheEvict(value = CacheNameConstant.STAFF_LIST_CACHE, allEntries = true),
             @CacheEvict(value = CacheNameConstant.STAFF_CACHE, key = "#id"),
-            @CacheEvict(value = CacheNameConstant.STAFF_DETAIL_CACHE, key = "#id"),
-            @CacheEvict(value = CacheNameConstant.STAFF_GROUP_LIST_CACHE, key = "#id"),
-            @CacheEvict(value = CacheNameConstant.RESOLVED_GROUP_MEMBERS_CACHE, allEntries = true)
+            @CacheEvict(value = CacheNameConstant.STAFF_GROUP_LIST_CACHE, allEntries = true)
     })
     public Staff deleteStaff(String id) {
-        String lockKey = "lock:staff:" + id;
-       try {
-           Staff staff = staffRepository.findById(id)
-                   .orElseThrow(() -> new ResourceNotFoundException("Staff not found"));
-
-           List<StaffGroup> groups = staffGroupRepository.findAllByMemberIds(id);
-           for (StaffGroup group : groups) {
-               group.getMemberIds().remove(id);
-               group.setUpdatedAt(LocalDate.now());
-               staffGroupRepository.save(group);
-           }
-           staffRepository.deleteById(id);
-           return staff;
-       } finally {
-           redisTemplate.delete(lockKey);
-       }
+        try (DistributedLock lock = lockManager.acquire("staff", id)) {
+            Staff staff = staffRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Staff not found"));
+
+            membershipStore.removeStaff(id);
+            staffRepository.deleteById(id);
+            return staff;
+        }
     }
 
     @Override
-    @Cacheable(value = CacheNameConstant.STAFF_DETAIL_CACHE, key = "#id", unless = "#result == null")
     public List<StaffGroup> getStaffGroupsById(String id) {
-        Staff staff = staffRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Staff not found with id: " + id));
-        List<StaffGroup> groups = staffGroupRepository.findAllByMemberIds(id);
+        List<StaffGroup> groups = new ArrayList<>();
+        staffGroupRepository.findAllById(findGroupIds(id)).forEach(groups::add);
         return groups;
     }
 
+    // only the ids are cached, the group documents are read fresh, so group edits never make this entry stale
+    private List<String> findGroupIds(String id) {
+        Cache cache = cacheManager.getCache(CacheNameConstant.STAFF_GROUP_IDS_CACHE);
+        if (cache == null) {
+            return loadGroupIds(id);
+        }
+        try {
+            return cache.get(id, () -> loadGroupIds(id));
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    private List<String> loadGroupIds(String id) {
+        if (!staffRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Staff not found with id: " + id);
+        }
+        return new ArrayList<>(membershipStore.findGroupIds(id));
+    }
+
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = CacheNameConstant.STAFF_LIST_CACHE, allEntries = true),
-            @CacheEvict(value = CacheNameConstant.STAFF_CACHE, allEntries = true)
-    })
-    public List<Staff> importStaff(byte[] fileContent) {
-       try{
-           List<CreateStaffDto> importDTOs = objectMapper.readValue(fileContent, new TypeReference<List<CreateStaffDto>>() {});
-           List<Staff> createdStaff = new ArrayList<>();
-           for (CreateStaffDto dto : importDTOs) {
-               String staffCode = dto.getStaffCode();
-               String lockKey = "lock:staff:create:" + staffCode;
-
-               try {
-                   Boolean locked = redisTemplate.opsForValue().setIfAbsent(lockKey, staffCode, Duration.ofSeconds(10));
-                   if (locked == null || !locked) {
-                       throw new RuntimeException("Could not acquire lock for staffCode: " + staffCode);
-                   }
-
-                   if (staffRepository.existsByStaffCode(staffCode)) {
-                       continue;
-                   }
-
-                   Staff staff = Staff.builder()
-                           .id(UUID.randomUUID().toString())
-                           .staffCode(staffCode)
-                           .name(dto.getName())
-                           .email(dto.getEmail())
-                           .createdAt(LocalDate.now())
-                           .updatedAt(LocalDate.now())
-                           .build();
-
-                   createdStaff.add(staff);
-               } finally {
-                   redisTemplate.delete(lockKey);
-               }
-           }
-
-           if (!createdStaff.isEmpty()) {
-               staffRepository.saveAll(createdStaff);
-           }
-
-           return createdStaff;
-       } catch (Exception e) {
-           throw new RuntimeException("Failed to import staff data: " + e.getMessage());
-       }
+    @CacheEvict(value = CacheNameConstant.STAFF_LIST_CACHE, allEntries = true)
+    public ImportReportDto importStaff(InputStream input, ImportFormat format) {
+        long startedAt = System.nanoTime();
+        List<ImportRowResultDto> results = new ArrayList<>();
+        Map<String, Integer> seenCodes = new HashMap<>();
+        ElasticsearchBulkWriter.Session<Staff> session = bulkWriter.open(Staff.class);
+        try {
+            importRecordReader.readChunks(input, format, CreateStaffDto.class, importProperties.getChunkSize(),
+                    chunk -> importStaffChunk(chunk, seenCodes, session, results));
+        } catch (IOException e) {
+            results.add(ImportRowResultDto.builder()
+                    .row(results.size())
+                    .status(ImportRowStatus.FAILED)
+                    .message("Failed to parse staff import file, stopped reading: " + e.getMessage())
+                    .build());
+        } finally {
+            session.close();
+        }
+        ImportReportMapper.applyFailures(results, session.failures());
+
+        ImportReportDto report = ImportReportMapper.toReport(results, startedAt);
+        log.info("Imported staff: {} rows, {} created, {} skipped, {} failed in {} ms ({} rows/s)",
+                report.getTotalRows(), report.getCreated(), report.getSkipped(), report.getFailed(),
+                report.getDurationMs(), Math.round(report.getRowsPerSecond()));
+        return report;
+    }
+
+    private void importStaffChunk(List<CreateStaffDto> chunk,
+                                  Map<String, Integer> seenCodes,
+                                  ElasticsearchBulkWriter.Session<Staff> session,
+                                  List<ImportRowResultDto> results) {
+        Map<String, ImportRowResultDto> candidates = new LinkedHashMap<>();
+        Map<String, CreateStaffDto> candidateDTOs = new HashMap<>();
+        for (CreateStaffDto dto : chunk) {
+            int row = results.size();
+            ImportRowResultDto result = ImportRowResultDto.builder()
+                    .row(row)
+                    .code(dto.getStaffCode())
+                    .build();
+            results.add(result);
+
+            Set<ConstraintViolation<CreateStaffDto>> violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                result.setStatus(ImportRowStatus.FAILED);
+                result.setMessage(violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                continue;
+            }
+            Integer firstRow = seenCodes.putIfAbsent(dto.getStaffCode(), row);
+            if (firstRow != null) {
+                result.setStatus(ImportRowStatus.FAILED);
+                result.setMessage("Duplicate staffCode in file, first seen at row " + firstRow);
+                continue;
+            }
+            candidates.put(dto.getStaffCode(), result);
+            candidateDTOs.put(dto.getStaffCode(), dto);
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        for (Staff existing : staffRepository.findAllByStaffCodeIn(candidates.keySet())) {
+            ImportRowResultDto result = candidates.remove(existing.getStaffCode());
+            if (result != null) {
+                result.setId(existing.getId());
+                result.setStatus(ImportRowStatus.SKIPPED);
+                result.setMessage("Staff Code already exists");
+            }
+        }
+
+        for (ImportRowResultDto result : candidates.values()) {
+            CreateStaffDto dto = candidateDTOs.get(result.getCode());
+            Staff staff = Staff.builder()
+                    .id(UUID.randomUUID().toString())
+                    .staffCode(dto.getStaffCode())
+                    .name(dto.getName())
+                    .email(dto.getEmail())
+                    .createdAt(LocalDate.now())
+                    .updatedAt(LocalDate.now())
+                    .build();
+            session.index(staff.getId(), staff, result.getRow());
+            result.setId(staff.getId());
+            result.setStatus(ImportRowStatus.CREATED);
+        }
     }
 }
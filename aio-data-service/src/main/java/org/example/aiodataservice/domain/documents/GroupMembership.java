@@ -0,0 +1,38 @@
+package org.example.aiodataservice.domain.documents;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.DateFormat;
+import org.springframework.data.elasticsearch.annotations.Document;
+import org.springframework.data.elasticsearch.annotations.Field;
+import org.springframework.data.elasticsearch.annotations.FieldType;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(indexName = "#{@environment.getProperty('app.elasticsearch.index.group-membership')}", createIndex = false)
+public class GroupMembership {
+    @Id
+    private String id;
+
+    @Field(type = FieldType.Keyword)
+    private String groupId;
+
+    @Field(type = FieldType.Keyword)
+    private String staffId;
+
+    @Field(type = FieldType.Date, format = DateFormat.date)
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate createdAt;
+
+    public static String idOf(String groupId, String staffId) {
+        return groupId + ":" + staffId;
+    }
+}
@@ -12,6 +12,10 @@ import org.springframework.data.elasticsearch.annotations.DateFormat;
 import org.springframework.data.elasticsearch.annotations.Document;
 import org.springframework.data.elasticsearch.annotations.Field;
 import org.springframework.data.elasticsearch.annotations.FieldType;
+import org.springframework.data.elasticsearch.annotations.IndexOptions;
+import org.springframework.data.elasticsearch.annotations.InnerField;
+import org.springframework.data.elasticsearch.annotations.MultiField;
+import org.springframework.data.elasticsearch.annotations.Setting;
 
 import java.time.Instant;
 import java.time.LocalDate;
@@ -23,15 +27,21 @@ import java.util.Set;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Document(indexName = "#{@environment.getProperty('app.elasticsearch.index.staff')}")
+@Document(indexName = "#{@environment.getProperty('app.elasticsearch.index.staff')}", createIndex = false)
+@Setting(settingPath = "elasticsearch/directory-settings.json")
 public class Staff {
     @Id
+    @Field(type = FieldType.Keyword)
     private String id;
 
     @Field(type = FieldType.Keyword)
     private String staffCode;
 
-    @Field(type = FieldType.Text)
+    @MultiField(
+            mainField = @Field(type = FieldType.Text),
+            otherFields = @InnerField(suffix = "autocomplete", type = FieldType.Text, analyzer = "autocomplete",
+                    searchAnalyzer = "autocomplete_search", indexOptions = IndexOptions.docs, norms = false)
+    )
     private String name;
 
     @Field(type = FieldType.Keyword)
@@ -0,0 +1,16 @@
+package org.example.aiodataservice.infrastructure.caches;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheEnvelope {
+    private Object value;
+    private long loadedAt;
+    // logical expiry; the entry stays readable as stale until the Redis TTL removes it
+    private long expiresAt;
+    private long computeMillis;
+}
@@ -0,0 +1,18 @@
+package org.example.aiodataservice.infrastructure.caches;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidationMessage {
+    private String origin;
+    private String cacheName;
+    // null clears the whole cache, unless keys is set
+    private String key;
+    private List<String> keys;
+}
@@ -0,0 +1,39 @@
+package org.example.aiodataservice.infrastructure.caches;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.List;
+
+@Slf4j
+public class CacheInvalidationPublisher {
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final String channel;
+    private final String instanceId;
+
+    public CacheInvalidationPublisher(RedisTemplate<String, Object> redisTemplate, String channel, String instanceId) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.instanceId = instanceId;
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public void publish(String cacheName, String key) {
+        try {
+            redisTemplate.convertAndSend(channel, new CacheInvalidationMessage(instanceId, cacheName, key, null));
+        } catch (Exception e) {
+            log.warn("Failed to publish invalidation for cache {} key {}: {}", cacheName, key, e.getMessage());
+        }
+    }
+
+    public void publishAll(String cacheName, List<String> keys) {
+        try {
+            redisTemplate.convertAndSend(channel, new CacheInvalidationMessage(instanceId, cacheName, null, keys));
+        } catch (Exception e) {
+            log.warn("Failed to publish invalidation for cache {} ({} keys): {}", cacheName, keys.size(), e.getMessage());
+        }
+    }
+}
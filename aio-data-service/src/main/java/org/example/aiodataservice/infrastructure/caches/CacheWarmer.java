@@ -0,0 +1,115 @@
+package org.example.aiodataservice.infrastructure.caches;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.aiodataservice.application.services.StaffGroupService;
+import org.example.aiodataservice.domain.documents.StaffGroup;
+import org.example.aiodataservice.infrastructure.configs.AppWarmupProperties;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHitsIterator;
+import org.springframework.data.elasticsearch.core.query.Criteria;
+import org.springframework.data.elasticsearch.core.query.CriteriaQuery;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs before the application reports ready, so readiness probes keep traffic away until the caches are filled.
+@RequiredArgsConstructor
+@Slf4j
+@Component
+public class CacheWarmer implements ApplicationRunner {
+    private final StaffGroupService staffGroupService;
+    private final HotGroupTracker hotGroupTracker;
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final AppWarmupProperties properties;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long startedAt = System.nanoTime();
+        Set<String> groupIds = new LinkedHashSet<>();
+        try {
+            groupIds.addAll(hotGroupTracker.top(properties.getTopGroups()));
+            if (properties.isIncludeRootGroups()) {
+                groupIds.addAll(findRootGroupIds(properties.getMaxGroups() - groupIds.size()));
+            }
+        } catch (Exception e) {
+            log.warn("Skipping cache warm-up, could not determine groups to preload: {}", e.getMessage());
+            return;
+        }
+        List<String> ids = new ArrayList<>(groupIds).subList(0, Math.min(groupIds.size(), properties.getMaxGroups()));
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, properties.getParallelism()), runnable -> {
+            Thread thread = new Thread(runnable, "cache-warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger warmed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int from = 0; from < ids.size(); from += properties.getChunkSize()) {
+                List<String> chunk = ids.subList(from, Math.min(from + properties.getChunkSize(), ids.size()));
+                tasks.add(executor.submit(() -> warm(chunk, warmed, failed)));
+            }
+            long deadline = System.nanoTime() + properties.getTimeout().toNanos();
+            for (Future<?> task : tasks) {
+                task.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+        } catch (TimeoutException e) {
+            log.warn("Cache warm-up timed out after {}, continuing startup", properties.getTimeout());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.warn("Cache warm-up failed: {}", e.getCause().getMessage());
+        } finally {
+            executor.shutdownNow();
+        }
+        log.info("Cache warm-up loaded {} of {} groups ({} failed) in {} ms", warmed.get(), ids.size(), failed.get(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+    }
+
+    private void warm(List<String> chunk, AtomicInteger warmed, AtomicInteger failed) {
+        Set<String> resolved = staffGroupService.resolveGroupMembers(new HashSet<>(chunk)).keySet();
+        for (String id : chunk) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            if (!resolved.contains(id)) {
+                failed.incrementAndGet();
+                continue;
+            }
+            try {
+                staffGroupService.getStaffGroupById(id);
+                warmed.incrementAndGet();
+            } catch (Exception e) {
+                failed.incrementAndGet();
+            }
+        }
+    }
+
+    private List<String> findRootGroupIds(int limit) {
+        List<String> ids = new ArrayList<>();
+        if (limit <= 0) {
+            return ids;
+        }
+        CriteriaQuery query = new CriteriaQuery(new Criteria("parentId").exists().not());
+        query.addSourceFilter(FetchSourceFilter.of(b -> b.withFetchSource(false)));
+        try (SearchHitsIterator<StaffGroup> hits = elasticsearchOperations.searchForStream(query, StaffGroup.class)) {
+            while (hits.hasNext() && ids.size() < limit) {
+                ids.add(hits.next().getId());
+            }
+        }
+        return ids;
+    }
+}
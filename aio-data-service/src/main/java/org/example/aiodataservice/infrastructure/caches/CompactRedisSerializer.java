@@ -0,0 +1,96 @@
+package org.example.aiodataservice.infrastructure.caches;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.ByteBuffer;
+
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+    private static final byte PLAIN = 0x01;
+    private static final byte LZ4 = 0x02;
+
+    private final ObjectMapper smileMapper;
+    private final RedisSerializer<Object> legacySerializer;
+    private final int compressionThreshold;
+    private final LZ4Compressor compressor;
+    private final LZ4FastDecompressor decompressor;
+
+    public CompactRedisSerializer(ObjectMapper jsonMapper, int compressionThreshold) {
+        SmileFactory smileFactory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        this.smileMapper = new ObjectMapper(smileFactory)
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .activateDefaultTyping(BasicPolymorphicTypeValidator.builder()
+                                .allowIfSubType("org.example.aiodataservice.")
+                                .allowIfSubType("java.util.")
+                                .allowIfSubType("java.time.")
+                                .build(),
+                        ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+        this.legacySerializer = new GenericJackson2JsonRedisSerializer(jsonMapper);
+        this.compressionThreshold = compressionThreshold;
+        LZ4Factory lz4Factory = LZ4Factory.fastestInstance();
+        this.compressor = lz4Factory.fastCompressor();
+        this.decompressor = lz4Factory.fastDecompressor();
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        byte[] payload;
+        try {
+            payload = smileMapper.writeValueAsBytes(value);
+        } catch (Exception e) {
+            throw new SerializationException("Could not write Smile cache value", e);
+        }
+        if (compressionThreshold <= 0 || payload.length < compressionThreshold) {
+            byte[] framed = new byte[payload.length + 1];
+            framed[0] = PLAIN;
+            System.arraycopy(payload, 0, framed, 1, payload.length);
+            return framed;
+        }
+        byte[] compressed = new byte[compressor.maxCompressedLength(payload.length)];
+        int compressedLength = compressor.compress(payload, 0, payload.length, compressed, 0, compressed.length);
+        return ByteBuffer.allocate(1 + Integer.BYTES + compressedLength)
+                .put(LZ4)
+                .putInt(payload.length)
+                .put(compressed, 0, compressedLength)
+                .array();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            return switch (bytes[0]) {
+                case PLAIN -> smileMapper.readValue(bytes, 1, bytes.length - 1, Object.class);
+                case LZ4 -> {
+                    int length = ByteBuffer.wrap(bytes, 1, Integer.BYTES).getInt();
+                    byte[] payload = decompressor.decompress(bytes, 1 + Integer.BYTES, length);
+                    yield smileMapper.readValue(payload, Object.class);
+                }
+                default -> legacySerializer.deserialize(bytes);
+            };
+        } catch (SerializationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new SerializationException("Could not read cache value", e);
+        }
+    }
+}
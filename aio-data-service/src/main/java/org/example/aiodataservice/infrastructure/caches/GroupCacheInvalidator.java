@@ -0,0 +1,107 @@
+package org.example.aiodataservice.infrastructure.caches;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.aiodataservice.application.constants.CacheNameConstant;
+import org.example.aiodataservice.domain.documents.StaffGroup;
+import org.example.aiodataservice.infrastructure.repositories.StaffGroupRepository;
+import org.example.aiodataservice.infrastructure.trees.OrgTreeSnapshot;
+import org.example.aiodataservice.infrastructure.trees.OrgTreeSnapshotManager;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@RequiredArgsConstructor
+@Slf4j
+@Component
+public class GroupCacheInvalidator {
+    private final StaffGroupRepository staffGroupRepository;
+    private final CacheManager cacheManager;
+    private final OrgTreeSnapshotManager orgTreeSnapshotManager;
+
+    // group edits never change memberships, and only group ids are cached per staff, so no staff entry goes stale
+    public void evictGroups(Collection<StaffGroup> changedGroups) {
+        Set<String> groupIds = new HashSet<>();
+        for (StaffGroup group : changedGroups) {
+            groupIds.add(group.getId());
+        }
+        // marked pending in the snapshot first, so entries reloaded right after the eviction come from Elasticsearch
+        orgTreeSnapshotManager.onGroupsChanged(groupIds);
+        Set<String> resolvedKeys = withAncestors(changedGroups);
+
+        evict(CacheNameConstant.STAFF_GROUP_CACHE, groupIds);
+        evict(CacheNameConstant.RESOLVED_GROUP_MEMBERS_CACHE, resolvedKeys);
+        log.debug("Evicted {} group and {} resolved-member entries", groupIds.size(), resolvedKeys.size());
+    }
+
+    // only the changed staff are evicted, not every member of the group
+    public void evictMembershipChange(Collection<StaffGroup> groups, Collection<String> staffIds) {
+        List<String> groupIds = groups.stream().map(StaffGroup::getId).toList();
+        orgTreeSnapshotManager.onGroupsChanged(groupIds);
+        Set<String> resolvedKeys = withAncestors(groups);
+        // embedded memberships live in the group document
+        evict(CacheNameConstant.STAFF_GROUP_CACHE, groupIds);
+        evict(CacheNameConstant.RESOLVED_GROUP_MEMBERS_CACHE, resolvedKeys);
+        evict(CacheNameConstant.STAFF_GROUP_IDS_CACHE, staffIds);
+        log.debug("Evicted {} resolved-member and {} staff group-id entries after membership change",
+                resolvedKeys.size(), staffIds.size());
+    }
+
+    private Set<String> withAncestors(Collection<StaffGroup> groups) {
+        Set<String> seen = new HashSet<>();
+        OrgTreeSnapshot tree = orgTreeSnapshotManager.current();
+        if (tree != null) {
+            for (StaffGroup group : groups) {
+                seen.add(group.getId());
+                seen.addAll(tree.ancestorsOf(group.getId()));
+            }
+            // a deleted group is no longer in the tree, so its former parent chain comes from the document
+            for (StaffGroup group : groups) {
+                if (group.getParentId() != null && !tree.contains(group.getId())) {
+                    seen.add(group.getParentId());
+                    seen.addAll(tree.ancestorsOf(group.getParentId()));
+                }
+            }
+            return seen;
+        }
+        Set<String> frontier = new HashSet<>();
+        for (StaffGroup group : groups) {
+            seen.add(group.getId());
+        }
+        for (StaffGroup group : groups) {
+            if (group.getParentId() != null && !seen.contains(group.getParentId())) {
+                frontier.add(group.getParentId());
+            }
+        }
+        while (!frontier.isEmpty()) {
+            seen.addAll(frontier);
+            Set<String> next = new HashSet<>();
+            for (StaffGroup parent : staffGroupRepository.findAllById(frontier)) {
+                if (parent.getParentId() != null && !seen.contains(parent.getParentId())) {
+                    next.add(parent.getParentId());
+                }
+            }
+            frontier = next;
+        }
+        return seen;
+    }
+
+    private void evict(String cacheName, Collection<String> keys) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null || keys.isEmpty()) {
+            return;
+        }
+        if (cache instanceof TwoLevelCache twoLevelCache) {
+            twoLevelCache.evictAll(keys);
+            return;
+        }
+        for (String key : keys) {
+            cache.evict(key);
+        }
+    }
+}
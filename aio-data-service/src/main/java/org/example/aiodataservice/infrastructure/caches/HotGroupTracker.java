@@ -0,0 +1,108 @@
+package org.example.aiodataservice.infrastructure.caches;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.aiodataservice.infrastructure.configs.AppWarmupProperties;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Component
+public class HotGroupTracker {
+    private final StringRedisTemplate redisTemplate;
+    private final AppWarmupProperties properties;
+    private final ConcurrentMap<String, LongAdder> counts = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "hot-group-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public HotGroupTracker(StringRedisTemplate redisTemplate, AppWarmupProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        long interval = properties.getTrackingFlushInterval().toMillis();
+        flusher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public void record(String groupId) {
+        counts.computeIfAbsent(groupId, id -> new LongAdder()).increment();
+    }
+
+    // sums the daily buckets still inside the retention window, so groups that stopped being read drop out
+    public List<String> top(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        List<String> buckets = new ArrayList<>();
+        for (long day = 0; day < retentionDays(); day++) {
+            buckets.add(bucketKey(today.minusDays(day)));
+        }
+        String union = hashTag() + ":union:" + UUID.randomUUID();
+        try {
+            Long size = redisTemplate.opsForZSet().unionAndStore(buckets.get(0), buckets.subList(1, buckets.size()), union);
+            if (size == null || size == 0) {
+                return List.of();
+            }
+            Set<String> ids = redisTemplate.opsForZSet().reverseRange(union, 0, limit - 1);
+            return ids != null ? new ArrayList<>(ids) : List.of();
+        } finally {
+            redisTemplate.delete(union);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+        flush();
+    }
+
+    private void flush() {
+        if (counts.isEmpty()) {
+            return;
+        }
+        Map<String, Long> snapshot = new HashMap<>();
+        for (String id : new ArrayList<>(counts.keySet())) {
+            LongAdder adder = counts.remove(id);
+            if (adder != null) {
+                snapshot.put(id, adder.sum());
+            }
+        }
+        byte[] key = bucketKey(LocalDate.now(ZoneOffset.UTC)).getBytes(StandardCharsets.UTF_8);
+        // a bucket stops being written at midnight and expires once it falls out of the retention window
+        long expireMillis = Duration.ofDays(retentionDays() + 1).toMillis();
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                snapshot.forEach((id, count) ->
+                        connection.zSetCommands().zIncrBy(key, count, id.getBytes(StandardCharsets.UTF_8)));
+                connection.keyCommands().pExpire(key, expireMillis);
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("Failed to flush {} hot group counters: {}", snapshot.size(), e.getMessage());
+        }
+    }
+
+    private long retentionDays() {
+        return Math.max(1, properties.getTrackingRetention().toDays());
+    }
+
+    // one ZSET per UTC day; the hash tag keeps every bucket in one slot so ZUNIONSTORE also works on a cluster
+    private String bucketKey(LocalDate day) {
+        return hashTag() + ":" + day;
+    }
+
+    private String hashTag() {
+        return "{" + properties.getTrackingKey() + "}";
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.aiodataservice.infrastructure.caches;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.aiodataservice.infrastructure.configs.AppCacheProperties;
+import org.example.aiodataservice.infrastructure.configs.AppLockProperties;
+import org.example.aiodataservice.infrastructure.locks.DistributedLock;
+import org.example.aiodataservice.infrastructure.locks.DistributedLockManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+public class SingleFlightLoader {
+    private final DistributedLockManager lockManager;
+    private final AppLockProperties lockProperties;
+    private final AppCacheProperties.SingleFlight properties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    public SingleFlightLoader(DistributedLockManager lockManager,
+                              AppLockProperties lockProperties,
+                              AppCacheProperties cacheProperties,
+                              MeterRegistry meterRegistry) {
+        this.lockManager = lockManager;
+        this.lockProperties = lockProperties;
+        this.properties = cacheProperties.getSingleFlight();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T load(String cacheName, String key, Supplier<T> cachedValue, Callable<T> valueLoader) throws Exception {
+        String flightKey = cacheName + "::" + key;
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, flight);
+        if (existing != null) {
+            record(cacheName, "coalesced");
+            return (T) join(existing);
+        }
+        try {
+            T value = loadOnce(cacheName, key, cachedValue, valueLoader);
+            flight.complete(value);
+            return value;
+        } catch (Exception e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, flight);
+        }
+    }
+
+    private <T> T loadOnce(String cacheName, String key, Supplier<T> cachedValue, Callable<T> valueLoader) throws Exception {
+        T value = cachedValue.get();
+        if (value != null) {
+            record(cacheName, "cached");
+            return value;
+        }
+        if (!properties.isDistributed()) {
+            record(cacheName, "executed");
+            return valueLoader.call();
+        }
+        Optional<DistributedLock> lock = lockManager.tryAcquire("cache-load:" + cacheName, key,
+                lockProperties.getLease(), properties.getMaxWait());
+        try {
+            value = cachedValue.get();
+            if (value != null) {
+                record(cacheName, "cached");
+                return value;
+            }
+            if (lock.isEmpty()) {
+                log.debug("Loading {} in {} without the cross-replica lock after waiting {}", key, cacheName, properties.getMaxWait());
+            }
+            record(cacheName, "executed");
+            return valueLoader.call();
+        } finally {
+            lock.ifPresent(DistributedLock::close);
+        }
+    }
+
+    private Object join(CompletableFuture<Object> flight) throws Exception {
+        try {
+            return flight.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    private void record(String cacheName, String outcome) {
+        Counter.builder("cache.load")
+                .tag("cache", cacheName)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
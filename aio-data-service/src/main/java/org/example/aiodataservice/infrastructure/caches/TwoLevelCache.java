@@ -0,0 +1,256 @@
+package org.example.aiodataservice.infrastructure.caches;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public class TwoLevelCache implements Cache {
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final Cache remote;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final CacheInvalidationPublisher publisher;
+    private final SingleFlightLoader singleFlightLoader;
+    private final Duration timeToLive;
+    private final Duration staleWhileRevalidate;
+    private final double earlyRefreshBeta;
+    private final Executor refreshExecutor;
+    private final Clock clock;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    public TwoLevelCache(String name,
+                         com.github.benmanes.caffeine.cache.Cache<String, Object> local,
+                         Cache remote,
+                         RedisTemplate<String, Object> redisTemplate,
+                         CacheInvalidationPublisher publisher,
+                         SingleFlightLoader singleFlightLoader,
+                         Duration timeToLive,
+                         Duration staleWhileRevalidate,
+                         double earlyRefreshBeta,
+                         Executor refreshExecutor,
+                         Clock clock) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.redisTemplate = redisTemplate;
+        this.publisher = publisher;
+        this.singleFlightLoader = singleFlightLoader;
+        this.timeToLive = timeToLive;
+        this.staleWhileRevalidate = staleWhileRevalidate;
+        this.earlyRefreshBeta = earlyRefreshBeta;
+        this.refreshExecutor = refreshExecutor;
+        this.clock = clock;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        CacheEnvelope envelope = lookup(key, clock.millis());
+        if (envelope == null || envelope.getExpiresAt() <= clock.millis()) {
+            return null;
+        }
+        return new SimpleValueWrapper(envelope.getValue());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        long now = clock.millis();
+        CacheEnvelope envelope = lookup(key, now);
+        if (envelope != null) {
+            if (envelope.getExpiresAt() <= now || refreshEarly(envelope, now)) {
+                refreshAsync(key, valueLoader);
+            }
+            return (T) envelope.getValue();
+        }
+        try {
+            return singleFlightLoader.load(name, localKey(key), () -> {
+                CacheEnvelope loaded = lookup(key, clock.millis());
+                return loaded != null ? (T) loaded.getValue() : null;
+            }, () -> load(key, valueLoader));
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        String localKey = localKey(key);
+        if (value != null) {
+            CacheEnvelope envelope = envelope(value, 0);
+            remote.put(key, envelope);
+            local.put(localKey, envelope);
+        } else {
+            remote.put(key, null);
+        }
+        publisher.publish(name, localKey);
+    }
+
+    // caches a freshly loaded value like a miss does; unlike put it is not an update, so other replicas keep theirs
+    public void fill(Object key, Object value) {
+        if (value == null) {
+            return;
+        }
+        CacheEnvelope envelope = envelope(value, 0);
+        remote.put(key, envelope);
+        local.put(localKey(key), envelope);
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        String localKey = localKey(key);
+        local.invalidate(localKey);
+        publisher.publish(name, localKey);
+    }
+
+    // one DEL for all keys and one invalidation message carrying the key list
+    public void evictAll(Collection<?> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        List<String> localKeys = new ArrayList<>(keys.size());
+        for (Object key : keys) {
+            localKeys.add(localKey(key));
+        }
+        if (remote instanceof RedisCache redisCache && redisTemplate != null) {
+            String prefix = redisCache.getCacheConfiguration().getKeyPrefixFor(name);
+            List<String> remoteKeys = new ArrayList<>(localKeys.size());
+            for (String localKey : localKeys) {
+                remoteKeys.add(prefix + localKey);
+            }
+            redisTemplate.delete(remoteKeys);
+        } else {
+            keys.forEach(remote::evict);
+        }
+        local.invalidateAll(localKeys);
+        publisher.publishAll(name, localKeys);
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        publisher.publish(name, null);
+    }
+
+    public void invalidateLocal(String key) {
+        if (key == null) {
+            local.invalidateAll();
+        } else {
+            local.invalidate(key);
+        }
+    }
+
+    public void invalidateLocal(Collection<String> keys) {
+        local.invalidateAll(keys);
+    }
+
+    private CacheEnvelope lookup(Object key, long now) {
+        String localKey = localKey(key);
+        Object value = local.getIfPresent(localKey);
+        if (value == null) {
+            ValueWrapper wrapper = remote.get(key);
+            value = wrapper != null ? wrapper.get() : null;
+            if (value == null) {
+                return null;
+            }
+            local.put(localKey, value);
+        }
+        if (!(value instanceof CacheEnvelope envelope)) {
+            return new CacheEnvelope(value, now, Long.MAX_VALUE, 0);
+        }
+        if (envelope.getExpiresAt() + staleWhileRevalidate.toMillis() <= now) {
+            local.invalidate(localKey);
+            return null;
+        }
+        return envelope;
+    }
+
+    // probabilistic early expiration: entries that were slow to compute refresh earlier and more often
+    private boolean refreshEarly(CacheEnvelope envelope, long now) {
+        if (earlyRefreshBeta <= 0 || envelope.getComputeMillis() <= 0) {
+            return false;
+        }
+        double gap = -envelope.getComputeMillis() * earlyRefreshBeta * Math.log(ThreadLocalRandom.current().nextDouble());
+        return now + gap >= envelope.getExpiresAt();
+    }
+
+    private void refreshAsync(Object key, Callable<?> valueLoader) {
+        String localKey = localKey(key);
+        if (!refreshing.add(localKey)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    load(key, valueLoader);
+                    publisher.publish(name, localKey);
+                } catch (Exception e) {
+                    log.warn("Background refresh of {} in {} failed: {}", localKey, name, e.getMessage());
+                } finally {
+                    refreshing.remove(localKey);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(localKey);
+            log.debug("Refresh queue full, serving {} in {} without refresh", localKey, name);
+        }
+    }
+
+    private <T> T load(Object key, Callable<T> valueLoader) throws Exception {
+        long startedAt = System.nanoTime();
+        T value = valueLoader.call();
+        if (value != null) {
+            CacheEnvelope envelope = envelope(value, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+            remote.put(key, envelope);
+            local.put(localKey(key), envelope);
+        }
+        return value;
+    }
+
+    private CacheEnvelope envelope(Object value, long computeMillis) {
+        long now = clock.millis();
+        return new CacheEnvelope(value, now, now + timeToLive.toMillis(), computeMillis);
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
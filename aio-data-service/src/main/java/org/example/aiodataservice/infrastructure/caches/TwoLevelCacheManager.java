@@ -0,0 +1,91 @@
+package org.example.aiodataservice.infrastructure.caches;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.example.aiodataservice.infrastructure.configs.AppCacheProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.*;
+
+public class TwoLevelCacheManager implements CacheManager {
+    private final CacheManager remoteCacheManager;
+    private final AppCacheProperties properties;
+    private final Duration defaultTimeToLive;
+    private final CacheInvalidationPublisher publisher;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final SingleFlightLoader singleFlightLoader;
+    private final ThreadPoolExecutor refreshExecutor;
+    private final Clock clock;
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager,
+                                AppCacheProperties properties,
+                                Duration defaultTimeToLive,
+                                CacheInvalidationPublisher publisher,
+                                RedisTemplate<String, Object> redisTemplate,
+                                SingleFlightLoader singleFlightLoader,
+                                Clock clock) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.properties = properties;
+        this.defaultTimeToLive = defaultTimeToLive;
+        this.publisher = publisher;
+        this.redisTemplate = redisTemplate;
+        this.singleFlightLoader = singleFlightLoader;
+        this.clock = clock;
+        this.refreshExecutor = new ThreadPoolExecutor(properties.getRefreshThreads(), properties.getRefreshThreads(),
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getRefreshQueueSize()), runnable -> {
+            Thread thread = new Thread(runnable, "cache-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    public void onInvalidation(CacheInvalidationMessage message) {
+        if (publisher.getInstanceId().equals(message.getOrigin())) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(message.getCacheName());
+        if (cache == null) {
+            return;
+        }
+        if (message.getKeys() != null) {
+            cache.invalidateLocal(message.getKeys());
+        } else {
+            cache.invalidateLocal(message.getKey());
+        }
+    }
+
+    private TwoLevelCache createCache(String name) {
+        Cache remote = remoteCacheManager.getCache(name);
+        if (remote == null) {
+            throw new IllegalStateException("No remote cache available for " + name);
+        }
+        Duration timeToLive = properties.timeToLiveFor(name, defaultTimeToLive);
+        AppCacheProperties.Local localProperties = properties.getLocal();
+        com.github.benmanes.caffeine.cache.Cache<String, Object> local = Caffeine.newBuilder()
+                .maximumSize(localProperties.maximumSizeFor(name))
+                .expireAfterWrite(localProperties.getExpireAfterWrite())
+                .build();
+        return new TwoLevelCache(name, local, remote, redisTemplate, publisher, singleFlightLoader, timeToLive,
+                properties.getStaleWhileRevalidate(), properties.getEarlyRefreshBeta(), refreshExecutor, clock);
+    }
+
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.aiodataservice.infrastructure.configs;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "app.cache")
+@Component
+@Getter
+@Setter
+@NoArgsConstructor
+public class AppCacheProperties {
+    private String invalidationChannel = "cache:invalidation";
+    private String serializer = "smile";
+    private int compressionThreshold = 1024;
+    private Local local = new Local();
+    private SingleFlight singleFlight = new SingleFlight();
+    private Map<String, Duration> timeToLives = new HashMap<>();
+    private Duration staleWhileRevalidate = Duration.ofMinutes(2);
+    private double earlyRefreshBeta = 1.0;
+    private int refreshThreads = 2;
+    private int refreshQueueSize = 1000;
+
+    public Duration timeToLiveFor(String cacheName, Duration defaultTimeToLive) {
+        return timeToLives.getOrDefault(cacheName, defaultTimeToLive);
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class Local {
+        private boolean enabled = true;
+        private long maximumSize = 10000;
+        private Duration expireAfterWrite = Duration.ofSeconds(60);
+        private Map<String, Long> maximumSizes = new HashMap<>();
+
+        public long maximumSizeFor(String cacheName) {
+            return maximumSizes.getOrDefault(cacheName, maximumSize);
+        }
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class SingleFlight {
+        private boolean distributed = false;
+        private Duration maxWait = Duration.ofSeconds(5);
+    }
+}
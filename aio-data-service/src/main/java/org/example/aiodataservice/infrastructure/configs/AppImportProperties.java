@@ -0,0 +1,22 @@
+package org.example.aiodataservice.infrastructure.configs;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.import")
+@Component
+@Getter
+@Setter
+@NoArgsConstructor
+public class AppImportProperties {
+    private int bulkBatchSize = 1000;
+    private int bulkConcurrency = 2;
+    private Duration bulkFlushInterval = Duration.ofSeconds(1);
+    private String refreshPolicy = "false";
+    private int chunkSize = 1000;
+}
@@ -0,0 +1,21 @@
+package org.example.aiodataservice.infrastructure.configs;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.lock")
+@Component
+@Getter
+@Setter
+@NoArgsConstructor
+public class AppLockProperties {
+    private Duration lease = Duration.ofSeconds(10);
+    private Duration maxWait = Duration.ofSeconds(3);
+    private Duration initialBackoff = Duration.ofMillis(20);
+    private Duration maxBackoff = Duration.ofMillis(250);
+}
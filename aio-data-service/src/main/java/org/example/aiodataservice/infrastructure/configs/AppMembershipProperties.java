@@ -0,0 +1,22 @@
+package org.example.aiodataservice.infrastructure.configs;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.membership")
+@Component
+@Getter
+@Setter
+@NoArgsConstructor
+public class AppMembershipProperties {
+    private String model = "embedded";
+    private Duration coalesceWindow = Duration.ofMillis(20);
+    private int maxBatchSize = 1000;
+    private int flushThreads = 4;
+    private Duration flushTimeout = Duration.ofSeconds(10);
+}
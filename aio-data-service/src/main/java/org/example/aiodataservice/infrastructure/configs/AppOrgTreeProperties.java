@@ -0,0 +1,22 @@
+package org.example.aiodataservice.infrastructure.configs;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.org-tree")
+@Component
+@Getter
+@Setter
+@NoArgsConstructor
+public class AppOrgTreeProperties {
+    private boolean enabled = true;
+    private String changeChannel = "org-tree:changes";
+    private Duration coalesceWindow = Duration.ofMillis(50);
+    private Duration fullRebuildInterval = Duration.ofMinutes(15);
+    private int loadBatchSize = 1000;
+}
@@ -0,0 +1,23 @@
+package org.example.aiodataservice.infrastructure.configs;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.reindex")
+@Component
+@Getter
+@Setter
+@NoArgsConstructor
+public class AppReindexProperties {
+    private int slices = 4;
+    private int batchSize = 1000;
+    private int maxDocsPerSecond = 5000;
+    private Duration scrollKeepAlive = Duration.ofMinutes(2);
+    private int maxCatchUpRounds = 3;
+    private int finalDeltaThreshold = 1000;
+}
@@ -0,0 +1,27 @@
+package org.example.aiodataservice.infrastructure.configs;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.warmup")
+@Component
+@Getter
+@Setter
+@NoArgsConstructor
+public class AppWarmupProperties {
+    private boolean enabled = true;
+    private int topGroups = 200;
+    private boolean includeRootGroups = true;
+    private int maxGroups = 2000;
+    private int parallelism = 4;
+    private int chunkSize = 50;
+    private Duration timeout = Duration.ofMinutes(2);
+    private String trackingKey = "cache:hot-groups";
+    private Duration trackingFlushInterval = Duration.ofSeconds(30);
+    private Duration trackingRetention = Duration.ofDays(7);
+}
@@ -1,6 +1,11 @@
 package org.example.aiodataservice.infrastructure.configs;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.aiodataservice.infrastructure.caches.CacheInvalidationMessage;
+import org.example.aiodataservice.infrastructure.caches.CacheInvalidationPublisher;
+import org.example.aiodataservice.infrastructure.caches.CompactRedisSerializer;
+import org.example.aiodataservice.infrastructure.caches.SingleFlightLoader;
+import org.example.aiodataservice.infrastructure.caches.TwoLevelCacheManager;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
@@ -12,11 +17,18 @@ import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.time.Clock;
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
 
 @Configuration
 @EnableCaching
@@ -49,16 +61,66 @@ public class CacheConfig {
         return template;
     }
 
-    @Bean
-    public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory, ObjectMapper objectMapper) {
+    private RedisCacheManager redisCacheManager(RedisConnectionFactory redisConnectionFactory, ObjectMapper objectMapper,
+                                                AppCacheProperties cacheProperties) {
+        // the two-level cache serves expired entries while it refreshes them, so Redis keeps them a little longer
+        Duration staleWindow = cacheProperties.getLocal().isEnabled() ? cacheProperties.getStaleWhileRevalidate() : Duration.ZERO;
         RedisCacheConfiguration cacheConfiguration = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(timeToLive)
+                .entryTtl(timeToLive.plus(staleWindow))
                 .disableCachingNullValues()
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer(objectMapper)));
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(cacheValueSerializer(objectMapper, cacheProperties)));
+
+        Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
+        cacheProperties.getTimeToLives().forEach((cacheName, cacheTimeToLive) ->
+                cacheConfigurations.put(cacheName, cacheConfiguration.entryTtl(cacheTimeToLive.plus(staleWindow))));
 
-        return RedisCacheManager.builder(redisConnectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(redisConnectionFactory)
                 .cacheDefaults(cacheConfiguration)
+                .withInitialCacheConfigurations(cacheConfigurations)
                 .build();
+        redisCacheManager.afterPropertiesSet();
+        return redisCacheManager;
+    }
+
+    private RedisSerializer<Object> cacheValueSerializer(ObjectMapper objectMapper, AppCacheProperties cacheProperties) {
+        if ("json".equals(cacheProperties.getSerializer())) {
+            return new GenericJackson2JsonRedisSerializer(objectMapper);
+        }
+        return new CompactRedisSerializer(objectMapper, cacheProperties.getCompressionThreshold());
+    }
+
+    @Bean
+    public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory,
+                                     ObjectMapper objectMapper,
+                                     RedisTemplate<String, Object> redisTemplate,
+                                     AppCacheProperties cacheProperties,
+                                     SingleFlightLoader singleFlightLoader) {
+        RedisCacheManager redisCacheManager = redisCacheManager(redisConnectionFactory, objectMapper, cacheProperties);
+        if (!cacheProperties.getLocal().isEnabled()) {
+            return redisCacheManager;
+        }
+        CacheInvalidationPublisher publisher = new CacheInvalidationPublisher(
+                redisTemplate, cacheProperties.getInvalidationChannel(), UUID.randomUUID().toString());
+        return new TwoLevelCacheManager(redisCacheManager, cacheProperties, timeToLive, publisher, redisTemplate, singleFlightLoader,
+                Clock.systemUTC());
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory redisConnectionFactory,
+                                                                            CacheManager cacheManager,
+                                                                            AppCacheProperties cacheProperties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        if (cacheManager instanceof TwoLevelCacheManager twoLevelCacheManager) {
+            GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer();
+            container.addMessageListener((message, pattern) -> {
+                Object payload = serializer.deserialize(message.getBody());
+                if (payload instanceof CacheInvalidationMessage invalidation) {
+                    twoLevelCacheManager.onInvalidation(invalidation);
+                }
+            }, new ChannelTopic(cacheProperties.getInvalidationChannel()));
+        }
+        return container;
     }
 }
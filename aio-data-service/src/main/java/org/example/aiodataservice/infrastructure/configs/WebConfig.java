@@ -1,17 +1,22 @@
 package org.example.aiodataservice.infrastructure.configs;
 
+import lombok.RequiredArgsConstructor;
 import org.apache.catalina.filters.CorsFilter;
+import org.example.aiodataservice.infrastructure.caches.HotGroupAccessInterceptor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 @EnableWebMvc
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
+    private final HotGroupAccessInterceptor hotGroupAccessInterceptor;
 
     @Override
     public void addCorsMappings(CorsRegistry registry) {
@@ -20,4 +25,10 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedMethods("*")
                 .allowedHeaders("*");
     }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(hotGroupAccessInterceptor)
+                .addPathPatterns("/staff-groups/{id}", "/staff-groups/{id}/resolve-members");
+    }
 }
\ No newline at end of file
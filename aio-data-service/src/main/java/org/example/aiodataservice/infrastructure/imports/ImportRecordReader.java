@@ -0,0 +1,58 @@
+package org.example.aiodataservice.infrastructure.imports;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import org.example.aiodataservice.application.constants.ImportFormat;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Component
+public class ImportRecordReader {
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper = new CsvMapper();
+    private final CsvSchema csvSchema = CsvSchema.emptySchema()
+            .withHeader()
+            .withArrayElementSeparator(";");
+
+    public ImportRecordReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    private <T> MappingIterator<T> open(InputStream input, ImportFormat format, Class<T> type) throws IOException {
+        return switch (format) {
+            case CSV -> csvMapper.readerFor(type).with(csvSchema).readValues(input);
+            case JSON, NDJSON -> objectMapper.readerFor(type).readValues(input);
+        };
+    }
+
+    public <T> void readChunks(InputStream input, ImportFormat format, Class<T> type, int chunkSize,
+                               Consumer<List<T>> consumer) throws IOException {
+        List<T> chunk = new ArrayList<>(chunkSize);
+        try (MappingIterator<T> records = open(input, format, type)) {
+            while (records.hasNextValue()) {
+                chunk.add(records.nextValue());
+                if (chunk.size() == chunkSize) {
+                    List<T> full = chunk;
+                    chunk = new ArrayList<>(chunkSize);
+                    consumer.accept(full);
+                }
+            }
+        } catch (IOException e) {
+            // rows parsed before the malformed one are still handed over; a failing consumer is never called again
+            if (!chunk.isEmpty()) {
+                consumer.accept(chunk);
+            }
+            throw e;
+        }
+        if (!chunk.isEmpty()) {
+            consumer.accept(chunk);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.aiodataservice.infrastructure.indices;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.aiodataservice.domain.documents.Staff;
+import org.example.aiodataservice.domain.documents.StaffGroup;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@RequiredArgsConstructor
+@Slf4j
+@Component
+public class IndexAliasManager {
+    private static final String VERSION_SEPARATOR = "_v";
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final ElasticsearchOperations elasticsearchOperations;
+
+    @PostConstruct
+    public void init() throws IOException {
+        ensureIndex(Staff.class);
+        ensureIndex(StaffGroup.class);
+    }
+
+    public String aliasFor(Class<?> type) {
+        return elasticsearchOperations.getIndexCoordinatesFor(type).getIndexName();
+    }
+
+    public void ensureIndex(Class<?> type) throws IOException {
+        String alias = aliasFor(type);
+        if (isAlias(alias)) {
+            return;
+        }
+        if (elasticsearchClient.indices().exists(e -> e.index(alias)).value()) {
+            log.warn("Index {} is a concrete index, not an alias; run a reindex to move it to a versioned index", alias);
+            return;
+        }
+        String index = versionedName(alias, 1);
+        createIndex(type, index);
+        elasticsearchClient.indices().updateAliases(u -> u
+                .actions(a -> a.add(add -> add.index(index).alias(alias).isWriteIndex(true))));
+        log.info("Created index {} behind alias {}", index, alias);
+    }
+
+    public boolean isAlias(String alias) throws IOException {
+        return elasticsearchClient.indices().existsAlias(e -> e.name(alias)).value();
+    }
+
+    public Optional<String> currentIndex(String alias) throws IOException {
+        if (isAlias(alias)) {
+            return elasticsearchClient.indices().getAlias(g -> g.name(alias)).result().keySet().stream().findFirst();
+        }
+        if (elasticsearchClient.indices().exists(e -> e.index(alias)).value()) {
+            return Optional.of(alias);
+        }
+        return Optional.empty();
+    }
+
+    public String nextIndexName(String alias) throws IOException {
+        Pattern pattern = Pattern.compile(Pattern.quote(alias + VERSION_SEPARATOR) + "(\\d+)");
+        int version = 0;
+        for (String index : elasticsearchClient.indices()
+                .get(g -> g.index(alias + VERSION_SEPARATOR + "*").ignoreUnavailable(true).allowNoIndices(true))
+                .result().keySet()) {
+            Matcher matcher = pattern.matcher(index);
+            if (matcher.matches()) {
+                version = Math.max(version, Integer.parseInt(matcher.group(1)));
+            }
+        }
+        return versionedName(alias, version + 1);
+    }
+
+    public void createIndex(Class<?> type, String index) {
+        IndexOperations entityOperations = elasticsearchOperations.indexOps(type);
+        elasticsearchOperations.indexOps(IndexCoordinates.of(index))
+                .create(entityOperations.createSettings(), entityOperations.createMapping());
+    }
+
+    public void switchAlias(String alias, String source, String target) throws IOException {
+        boolean legacy = !isAlias(alias);
+        elasticsearchClient.indices().updateAliases(u -> u
+                .actions(a -> a.add(add -> add.index(target).alias(alias).isWriteIndex(true)))
+                .actions(a -> legacy
+                        ? a.removeIndex(r -> r.index(source))
+                        : a.remove(r -> r.index(source).alias(alias))));
+        log.info("Switched alias {} from {} to {}", alias, source, target);
+    }
+
+    private static String versionedName(String alias, int version) {
+        return alias + VERSION_SEPARATOR + version;
+    }
+}
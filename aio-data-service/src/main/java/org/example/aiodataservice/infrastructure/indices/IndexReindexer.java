@@ -0,0 +1,395 @@
+package org.example.aiodataservice.infrastructure.indices;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.Level;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.Time;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch.core.ScrollResponse;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.aiodataservice.application.dtos.ReindexJobDto;
+import org.example.aiodataservice.application.dtos.ReindexJobDto.ReindexStatus;
+import org.example.aiodataservice.application.exceptions.LockAcquisitionException;
+import org.example.aiodataservice.application.exceptions.ResourceNotFoundException;
+import org.example.aiodataservice.infrastructure.configs.AppLockProperties;
+import org.example.aiodataservice.infrastructure.configs.AppReindexProperties;
+import org.example.aiodataservice.infrastructure.locks.DistributedLock;
+import org.example.aiodataservice.infrastructure.locks.DistributedLockManager;
+import org.example.aiodataservice.infrastructure.repositories.ElasticsearchBulkWriter;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+@Slf4j
+@Component
+public class IndexReindexer {
+    private final ElasticsearchClient elasticsearchClient;
+    private final IndexAliasManager aliasManager;
+    private final ElasticsearchBulkWriter bulkWriter;
+    private final DistributedLockManager lockManager;
+    private final AppLockProperties lockProperties;
+    private final AppReindexProperties properties;
+    private final ConcurrentMap<String, Job> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+
+    public IndexReindexer(ElasticsearchClient elasticsearchClient,
+                          IndexAliasManager aliasManager,
+                          ElasticsearchBulkWriter bulkWriter,
+                          DistributedLockManager lockManager,
+                          AppLockProperties lockProperties,
+                          AppReindexProperties properties) {
+        this.elasticsearchClient = elasticsearchClient;
+        this.aliasManager = aliasManager;
+        this.bulkWriter = bulkWriter;
+        this.lockManager = lockManager;
+        this.lockProperties = lockProperties;
+        this.properties = properties;
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "reindex");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public ReindexJobDto start(Class<?> type) {
+        String alias = aliasManager.aliasFor(type);
+        DistributedLock lock = lockManager.tryAcquire("reindex", alias, lockProperties.getLease(), Duration.ZERO)
+                .orElseThrow(() -> new LockAcquisitionException("A reindex of " + alias + " is already running"));
+        Job job = new Job(UUID.randomUUID().toString(), alias, Math.max(1, properties.getSlices()));
+        jobs.put(job.id, job);
+        try {
+            executor.submit(() -> {
+                try {
+                    run(type, job);
+                    job.status = ReindexStatus.COMPLETED;
+                } catch (Exception e) {
+                    log.error("Reindex {} of {} failed", job.id, alias, e);
+                    job.message = e.getMessage();
+                    job.status = ReindexStatus.FAILED;
+                } finally {
+                    job.finishedNanos = System.nanoTime();
+                    lock.close();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            lock.close();
+            throw e;
+        }
+        return job.toDto();
+    }
+
+    public ReindexJobDto status(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Reindex job not found with id: " + jobId);
+        }
+        return job.toDto();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(Class<?> type, Job job) throws Exception {
+        job.sourceIndex = aliasManager.currentIndex(job.alias)
+                .orElseThrow(() -> new ResourceNotFoundException("No index found for alias: " + job.alias));
+        job.targetIndex = aliasManager.nextIndexName(job.alias);
+        job.sourceDocuments = count(job.sourceIndex);
+        aliasManager.createIndex(type, job.targetIndex);
+        setRefreshInterval(job.targetIndex, "-1");
+        log.info("Reindexing {} from {} into {} with {} slices", job.alias, job.sourceIndex, job.targetIndex, job.slices);
+
+        // per-shard sequence numbers are the high-water mark: every index, update or delete gets a higher one
+        Map<Integer, Long> checkpoints = maxSeqNos(job.sourceIndex);
+        refresh(job.sourceIndex);
+        copy(job, session -> copySlices(job, session));
+        // catch up while writes continue, so the blocked window below only covers the last few changes
+        for (int round = 0; round < properties.getMaxCatchUpRounds(); round++) {
+            Map<Integer, Long> next = maxSeqNos(job.sourceIndex);
+            refresh(job.sourceIndex);
+            Map<Integer, Long> since = checkpoints;
+            long changed = copy(job, session -> copyChangedSince(job, since, session));
+            checkpoints = next;
+            if (changed <= properties.getFinalDeltaThreshold()) {
+                break;
+            }
+        }
+
+        // the full id comparison runs while writes continue; only deletes that land after it are left
+        removeDeleted(job, null);
+
+        Map<Integer, Long> copiedUpTo;
+        long staleDocuments;
+        setWriteBlock(job.sourceIndex, true);
+        try {
+            refresh(job.sourceIndex);
+            Map<Integer, Long> since = checkpoints;
+            copy(job, session -> copyChangedSince(job, since, session));
+            setRefreshInterval(job.targetIndex, "1s");
+            refresh(job.targetIndex);
+            // every live source document is in the target now, so any surplus is a delete we have not mirrored yet
+            staleDocuments = count(job.targetIndex) - count(job.sourceIndex);
+            copiedUpTo = maxSeqNos(job.targetIndex);
+            aliasManager.switchAlias(job.alias, job.sourceIndex, job.targetIndex);
+        } finally {
+            setWriteBlock(job.sourceIndex, false);
+        }
+        if (staleDocuments > 0) {
+            // the source no longer takes writes through the alias; only copies made before the switch are candidates
+            log.info("Removing {} documents deleted from {} after reconciliation", staleDocuments, job.sourceIndex);
+            removeDeleted(job, copiedUpTo);
+        }
+    }
+
+    private long copy(Job job, CopyStep step) throws Exception {
+        long copiedBefore = job.copied.get();
+        // one bulk session per phase, so a catch-up write never races an older copy of the same document
+        ElasticsearchBulkWriter.Session<Object> session = bulkWriter.open(job.targetIndex, "false");
+        try {
+            step.copy(session);
+        } finally {
+            session.close();
+        }
+        job.failed.addAndGet(session.failures().size());
+        if (!session.failures().isEmpty()) {
+            throw new IllegalStateException(session.failures().size() + " documents failed to copy, alias left on "
+                    + job.sourceIndex + ": " + session.failures().values().iterator().next());
+        }
+        return job.copied.get() - copiedBefore;
+    }
+
+    private void copyChangedSince(Job job, Map<Integer, Long> checkpoints, ElasticsearchBulkWriter.Session<Object> session) throws IOException {
+        for (Map.Entry<Integer, Long> checkpoint : checkpoints.entrySet()) {
+            Query changed = Query.of(q -> q.range(r -> r.number(n -> n.field("_seq_no").gt((double) checkpoint.getValue()))));
+            scroll(job.sourceIndex, changed, null, 1, "_shards:" + checkpoint.getKey(), true, hits -> {
+                hits.forEach(hit -> session.indexSource(hit.id(), hit.source(), job.rows.getAndIncrement()));
+                job.copied.addAndGet(hits.size());
+            });
+        }
+    }
+
+    private void copySlices(Job job, ElasticsearchBulkWriter.Session<Object> session) throws Exception {
+        double sliceRate = properties.getMaxDocsPerSecond() > 0 ? (double) properties.getMaxDocsPerSecond() / job.slices : 0;
+        List<Future<?>> slices = new ArrayList<>();
+        for (int slice = 0; slice < job.slices; slice++) {
+            int sliceId = slice;
+            slices.add(executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                AtomicLong sliceCopied = new AtomicLong();
+                scroll(job.sourceIndex, Query.of(q -> q.matchAll(m -> m)), sliceId, job.slices, hits -> {
+                    hits.forEach(hit -> session.indexSource(hit.id(), hit.source(), job.rows.getAndIncrement()));
+                    job.copied.addAndGet(hits.size());
+                    throttle(sliceCopied.addAndGet(hits.size()), startedAt, sliceRate);
+                });
+                return null;
+            }));
+        }
+        for (Future<?> slice : slices) {
+            try {
+                slice.get();
+            } catch (ExecutionException e) {
+                slices.forEach(other -> other.cancel(true));
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+        }
+    }
+
+    private void removeDeleted(Job job, Map<Integer, Long> copiedUpTo) throws IOException {
+        ElasticsearchBulkWriter.Session<Object> session = bulkWriter.open(job.targetIndex, "true");
+        try {
+            if (copiedUpTo == null) {
+                scroll(job.targetIndex, Query.of(q -> q.matchAll(m -> m)), null, 1, null, false,
+                        hits -> deleteMissing(job, hits, false, session));
+            } else {
+                for (Map.Entry<Integer, Long> checkpoint : copiedUpTo.entrySet()) {
+                    Query copied = Query.of(q -> q.range(r -> r.number(n -> n.field("_seq_no").lte((double) checkpoint.getValue()))));
+                    scroll(job.targetIndex, copied, null, 1, "_shards:" + checkpoint.getKey(), false,
+                            hits -> deleteMissing(job, hits, true, session));
+                }
+            }
+        } finally {
+            session.close();
+        }
+        if (!session.failures().isEmpty()) {
+            throw new IllegalStateException(session.failures().size() + " deletes failed, alias left on "
+                    + job.sourceIndex + ": " + session.failures().values().iterator().next());
+        }
+    }
+
+    private void deleteMissing(Job job, List<Hit<ObjectNode>> hits, boolean ifUnchanged, ElasticsearchBulkWriter.Session<Object> session) {
+        List<String> ids = hits.stream().map(Hit::id).toList();
+        Set<String> present = new HashSet<>();
+        try {
+            elasticsearchClient.search(s -> s
+                            .index(job.sourceIndex)
+                            .size(ids.size())
+                            .source(src -> src.fetch(false))
+                            .query(q -> q.ids(i -> i.values(ids))), ObjectNode.class)
+                    .hits().hits().forEach(hit -> present.add(hit.id()));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        for (Hit<ObjectNode> hit : hits) {
+            if (present.contains(hit.id())) {
+                continue;
+            }
+            if (ifUnchanged) {
+                session.deleteIfUnchanged(hit.id(), hit.seqNo(), hit.primaryTerm(), job.rows.getAndIncrement());
+            } else {
+                session.delete(hit.id(), job.rows.getAndIncrement());
+            }
+            job.deleted.incrementAndGet();
+        }
+    }
+
+    private void scroll(String index, Query query, Integer sliceId, int maxSlices, Consumer<List<Hit<ObjectNode>>> consumer) throws IOException {
+        scroll(index, query, sliceId, maxSlices, null, true, consumer);
+    }
+
+    private void scroll(String index, Query query, Integer sliceId, int maxSlices, String preference, boolean fetchSource,
+                        Consumer<List<Hit<ObjectNode>>> consumer) throws IOException {
+        Time keepAlive = Time.of(t -> t.time(properties.getScrollKeepAlive().toSeconds() + "s"));
+        SearchResponse<ObjectNode> response = elasticsearchClient.search(s -> {
+            s.index(index)
+                    .size(properties.getBatchSize())
+                    .scroll(keepAlive)
+                    .sort(so -> so.doc(d -> d.order(SortOrder.Asc)))
+                    .query(query);
+            if (!fetchSource) {
+                s.source(src -> src.fetch(false)).seqNoPrimaryTerm(true);
+            }
+            if (preference != null) {
+                s.preference(preference);
+            }
+            if (sliceId != null && maxSlices > 1) {
+                s.slice(sl -> sl.id(String.valueOf(sliceId)).max(maxSlices));
+            }
+            return s;
+        }, ObjectNode.class);
+        String scrollId = response.scrollId();
+        List<Hit<ObjectNode>> hits = response.hits().hits();
+        try {
+            while (!hits.isEmpty()) {
+                consumer.accept(hits);
+                String currentScrollId = scrollId;
+                ScrollResponse<ObjectNode> next = elasticsearchClient.scroll(s -> s.scrollId(currentScrollId).scroll(keepAlive), ObjectNode.class);
+                scrollId = next.scrollId();
+                hits = next.hits().hits();
+            }
+        } finally {
+            if (scrollId != null) {
+                String currentScrollId = scrollId;
+                elasticsearchClient.clearScroll(c -> c.scrollId(currentScrollId));
+            }
+        }
+    }
+
+    private void throttle(long copied, long startedAt, double docsPerSecond) {
+        if (docsPerSecond <= 0) {
+            return;
+        }
+        long expectedMillis = (long) (copied * 1000 / docsPerSecond);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        if (expectedMillis > elapsedMillis) {
+            try {
+                Thread.sleep(expectedMillis - elapsedMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Reindex interrupted");
+            }
+        }
+    }
+
+    private long count(String index) throws IOException {
+        return elasticsearchClient.count(c -> c.index(index)).count();
+    }
+
+    private void refresh(String... indices) throws IOException {
+        elasticsearchClient.indices().refresh(r -> r.index(Arrays.asList(indices)));
+    }
+
+    private Map<Integer, Long> maxSeqNos(String index) throws IOException {
+        Map<Integer, Long> maxSeqNos = new TreeMap<>();
+        elasticsearchClient.indices().stats(s -> s.index(index).level(Level.Shards))
+                .indices().get(index).shards()
+                .forEach((shard, copies) -> copies.stream()
+                        .filter(copy -> copy.routing().primary())
+                        .findFirst()
+                        .ifPresent(primary -> maxSeqNos.put(Integer.parseInt(shard), primary.seqNo().maxSeqNo())));
+        return maxSeqNos;
+    }
+
+    private void setWriteBlock(String index, boolean blocked) throws IOException {
+        elasticsearchClient.indices().putSettings(s -> s
+                .index(index)
+                .settings(i -> i.blocks(b -> b.write(blocked))));
+        log.info("{} writes on {}", blocked ? "Blocked" : "Unblocked", index);
+    }
+
+    private void setRefreshInterval(String index, String interval) throws IOException {
+        elasticsearchClient.indices().putSettings(s -> s
+                .index(index)
+                .settings(i -> i.refreshInterval(t -> t.time(interval))));
+    }
+
+    private interface CopyStep {
+        void copy(ElasticsearchBulkWriter.Session<Object> session) throws Exception;
+    }
+
+    private static class Job {
+        private final String id;
+        private final String alias;
+        private final int slices;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final long startedNanos = System.nanoTime();
+        private final AtomicLong copied = new AtomicLong();
+        private final AtomicLong deleted = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicInteger rows = new AtomicInteger();
+        private volatile String sourceIndex;
+        private volatile String targetIndex;
+        private volatile long sourceDocuments;
+        private volatile ReindexStatus status = ReindexStatus.RUNNING;
+        private volatile String message;
+        private volatile long finishedNanos;
+
+        private Job(String id, String alias, int slices) {
+            this.id = id;
+            this.alias = alias;
+            this.slices = slices;
+        }
+
+        private ReindexJobDto toDto() {
+            long endNanos = finishedNanos != 0 ? finishedNanos : System.nanoTime();
+            long durationMs = TimeUnit.NANOSECONDS.toMillis(endNanos - startedNanos);
+            return ReindexJobDto.builder()
+                    .jobId(id)
+                    .alias(alias)
+                    .sourceIndex(sourceIndex)
+                    .targetIndex(targetIndex)
+                    .status(status)
+                    .slices(slices)
+                    .sourceDocuments(sourceDocuments)
+                    .copiedDocuments(copied.get())
+                    .deletedDocuments(deleted.get())
+                    .failedDocuments(failed.get())
+                    .durationMs(durationMs)
+                    .docsPerSecond(durationMs > 0 ? copied.get() * 1000.0 / durationMs : 0)
+                    .startedAt(startedAt)
+                    .message(message)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.aiodataservice.infrastructure.locks;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledFuture;
+
+@Slf4j
+public class DistributedLock implements AutoCloseable {
+    private final DistributedLockManager manager;
+    private final String key;
+    private final String owner;
+    private final long fencingToken;
+    private final Duration lease;
+    private volatile boolean held = true;
+    private volatile ScheduledFuture<?> renewal;
+
+    DistributedLock(DistributedLockManager manager, String key, String owner, long fencingToken, Duration lease) {
+        this.manager = manager;
+        this.key = key;
+        this.owner = owner;
+        this.fencingToken = fencingToken;
+        this.lease = lease;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getFencingToken() {
+        return fencingToken;
+    }
+
+    public boolean isHeld() {
+        return held;
+    }
+
+    void startWatchdog(ScheduledFuture<?> renewal) {
+        this.renewal = renewal;
+    }
+
+    void renew() {
+        if (!held) {
+            return;
+        }
+        if (!manager.renew(key, owner, lease)) {
+            held = false;
+            cancelWatchdog();
+            log.warn("Lost lock {} (fencing token {}) before release", key, fencingToken);
+        }
+    }
+
+    @Override
+    public void close() {
+        cancelWatchdog();
+        if (held) {
+            held = false;
+            manager.release(key, owner);
+        }
+    }
+
+    private void cancelWatchdog() {
+        ScheduledFuture<?> current = renewal;
+        if (current != null) {
+            current.cancel(false);
+        }
+    }
+}
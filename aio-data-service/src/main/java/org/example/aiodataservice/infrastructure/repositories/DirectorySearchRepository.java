@@ -0,0 +1,148 @@
+package org.example.aiodataservice.infrastructure.repositories;
+
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.aggregations.CalendarInterval;
+import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.Operator;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import lombok.RequiredArgsConstructor;
+import org.example.aiodataservice.application.dtos.SearchResultDto;
+import org.example.aiodataservice.application.exceptions.InvalidSearchRequestException;
+import org.example.aiodataservice.domain.documents.Staff;
+import org.example.aiodataservice.domain.documents.StaffGroup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregation;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+@RequiredArgsConstructor
+@Component
+public class DirectorySearchRepository {
+    public static final int MAX_PAGE_SIZE = 100;
+    // membership filters are expanded to ids client-side; past this the query is too large to send per request
+    public static final int MAX_FILTER_IDS = 10_000;
+    private static final int MAX_RESULT_WINDOW = 10_000;
+    private static final int FACET_SIZE = 20;
+
+    private final ElasticsearchOperations elasticsearchOperations;
+
+    public SearchResultDto<Staff> searchStaff(String text, String staffCode, String email, Collection<String> staffIds,
+                                              int page, int size) {
+        BoolQuery.Builder bool = new BoolQuery.Builder();
+        addTextQuery(bool, text);
+        addTermFilter(bool, "staffCode", staffCode);
+        addTermFilter(bool, "email", email);
+        addIdsFilter(bool, staffIds);
+
+        NativeQuery query = NativeQuery.builder()
+                .withQuery(q -> q.bool(bool.build()))
+                .withSort(s -> s.score(o -> o.order(SortOrder.Desc)))
+                .withSort(s -> s.field(f -> f.field("staffCode").order(SortOrder.Asc)))
+                .withAggregation("createdMonth", createdMonthAggregation())
+                .withPageable(pageRequest(page, size))
+                .build();
+        return toResult(elasticsearchOperations.search(query, Staff.class), page, size);
+    }
+
+    public SearchResultDto<StaffGroup> searchGroups(String text, String groupCode, String parentId, Collection<String> groupIds,
+                                                    int page, int size) {
+        BoolQuery.Builder bool = new BoolQuery.Builder();
+        addTextQuery(bool, text);
+        addTermFilter(bool, "groupCode", groupCode);
+        addTermFilter(bool, "parentId", parentId);
+        addIdsFilter(bool, groupIds);
+
+        NativeQuery query = NativeQuery.builder()
+                .withQuery(q -> q.bool(bool.build()))
+                .withSort(s -> s.score(o -> o.order(SortOrder.Desc)))
+                .withSort(s -> s.field(f -> f.field("groupCode").order(SortOrder.Asc)))
+                .withAggregation("parentId", Aggregation.of(a -> a.terms(t -> t.field("parentId").size(FACET_SIZE))))
+                .withAggregation("createdMonth", createdMonthAggregation())
+                .withPageable(pageRequest(page, size))
+                .build();
+        return toResult(elasticsearchOperations.search(query, StaffGroup.class), page, size);
+    }
+
+    private void addTextQuery(BoolQuery.Builder bool, String text) {
+        if (text == null || text.isBlank()) {
+            return;
+        }
+        bool.should(Query.of(q -> q.match(m -> m.field("name.autocomplete").query(text).operator(Operator.And).boost(2.0f))))
+                .should(Query.of(q -> q.match(m -> m.field("name").query(text).fuzziness("AUTO").prefixLength(1))))
+                .minimumShouldMatch("1");
+    }
+
+    private void addTermFilter(BoolQuery.Builder bool, String field, String value) {
+        if (value != null && !value.isBlank()) {
+            bool.filter(Query.of(q -> q.term(t -> t.field(field).value(FieldValue.of(value)))));
+        }
+    }
+
+    private void addIdsFilter(BoolQuery.Builder bool, Collection<String> ids) {
+        if (ids == null) {
+            return;
+        }
+        if (ids.size() > MAX_FILTER_IDS) {
+            throw new InvalidSearchRequestException("Membership filter matches " + ids.size() + " records, more than "
+                    + MAX_FILTER_IDS + "; filter on a smaller group");
+        }
+        bool.filter(Query.of(q -> q.ids(i -> i.values(new ArrayList<>(ids)))));
+    }
+
+    private Aggregation createdMonthAggregation() {
+        return Aggregation.of(a -> a.dateHistogram(d -> d
+                .field("createdAt")
+                .calendarInterval(CalendarInterval.Month)
+                .format("yyyy-MM")
+                .minDocCount(1)));
+    }
+
+    private PageRequest pageRequest(int page, int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new InvalidSearchRequestException("page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        if ((long) (page + 1) * size > MAX_RESULT_WINDOW) {
+            throw new InvalidSearchRequestException("Search results are limited to the first " + MAX_RESULT_WINDOW
+                    + " hits, use the cursor listing to scan further");
+        }
+        return PageRequest.of(page, size);
+    }
+
+    private <T> SearchResultDto<T> toResult(SearchHits<T> hits, int page, int size) {
+        List<T> items = hits.getSearchHits().stream().map(SearchHit::getContent).toList();
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        if (hits.getAggregations() instanceof ElasticsearchAggregations aggregations) {
+            for (Map.Entry<String, ElasticsearchAggregation> entry : aggregations.aggregationsAsMap().entrySet()) {
+                facets.put(entry.getKey(), toBuckets(entry.getValue().aggregation().getAggregate()));
+            }
+        }
+        return SearchResultDto.<T>builder()
+                .items(items)
+                .total(hits.getTotalHits())
+                .page(page)
+                .size(size)
+                .facets(facets)
+                .build();
+    }
+
+    private Map<String, Long> toBuckets(Aggregate aggregate) {
+        Map<String, Long> buckets = new LinkedHashMap<>();
+        if (aggregate.isSterms()) {
+            aggregate.sterms().buckets().array()
+                    .forEach(bucket -> buckets.put(bucket.key().stringValue(), bucket.docCount()));
+        } else if (aggregate.isDateHistogram()) {
+            aggregate.dateHistogram().buckets().array()
+                    .forEach(bucket -> buckets.put(bucket.keyAsString(), bucket.docCount()));
+        }
+        return buckets;
+    }
+}
@@ -0,0 +1,132 @@
+package org.example.aiodataservice.infrastructure.repositories;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._helpers.bulk.BulkIngester;
+import co.elastic.clients.elasticsearch._helpers.bulk.BulkListener;
+import co.elastic.clients.elasticsearch._types.Refresh;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.aiodataservice.infrastructure.configs.AppImportProperties;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@RequiredArgsConstructor
+@Slf4j
+@Component
+public class ElasticsearchBulkWriter {
+    private final ElasticsearchClient elasticsearchClient;
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final AppImportProperties importProperties;
+
+    public <T> Session<T> open(Class<T> type) {
+        return open(type, importProperties.getRefreshPolicy());
+    }
+
+    public <T> Session<T> open(Class<T> type, String refreshPolicy) {
+        return new Session<>(elasticsearchOperations.getIndexCoordinatesFor(type).getIndexName(), toRefresh(refreshPolicy));
+    }
+
+    public Session<Object> open(String indexName, String refreshPolicy) {
+        return new Session<>(indexName, toRefresh(refreshPolicy));
+    }
+
+    private static Refresh toRefresh(String refreshPolicy) {
+        return switch (refreshPolicy) {
+            case "true" -> Refresh.True;
+            case "wait_for" -> Refresh.WaitFor;
+            default -> Refresh.False;
+        };
+    }
+
+    public class Session<T> implements AutoCloseable {
+        private final String indexName;
+        private final Map<Integer, String> failures = new ConcurrentHashMap<>();
+        private final Set<Integer> conditionalRows = ConcurrentHashMap.newKeySet();
+        private final BulkIngester<Integer> ingester;
+
+        private Session(String indexName, Refresh refresh) {
+            this.indexName = indexName;
+            this.ingester = BulkIngester.of(b -> b
+                    .client(elasticsearchClient)
+                    .maxOperations(importProperties.getBulkBatchSize())
+                    .maxConcurrentRequests(importProperties.getBulkConcurrency())
+                    .flushInterval(importProperties.getBulkFlushInterval().toMillis(), TimeUnit.MILLISECONDS)
+                    .globalSettings(s -> s.refresh(refresh))
+                    .listener(new FailureCollector()));
+        }
+
+        public void index(String id, T entity, int row) {
+            Document document = Document.create();
+            elasticsearchOperations.getElasticsearchConverter().write(entity, document);
+            ingester.add(op -> op.index(i -> i.index(indexName).id(id).document(document)), row);
+        }
+
+        // partial update from the entity's mapped fields; excluded fields keep whatever the index holds
+        public void update(String id, T entity, Set<String> excludedFields, int row) {
+            Document document = Document.create();
+            elasticsearchOperations.getElasticsearchConverter().write(entity, document);
+            excludedFields.forEach(document::remove);
+            ingester.add(op -> op.update(u -> u.index(indexName).id(id).retryOnConflict(3).action(a -> a.doc(document))), row);
+        }
+
+        public void indexSource(String id, Object source, int row) {
+            ingester.add(op -> op.index(i -> i.index(indexName).id(id).document(source)), row);
+        }
+
+        public void delete(String id, int row) {
+            ingester.add(op -> op.delete(d -> d.index(indexName).id(id)), row);
+        }
+
+        // a delete that loses to a newer write of the same document is skipped rather than reported as failed
+        public void deleteIfUnchanged(String id, long seqNo, long primaryTerm, int row) {
+            conditionalRows.add(row);
+            ingester.add(op -> op.delete(d -> d.index(indexName).id(id).ifSeqNo(seqNo).ifPrimaryTerm(primaryTerm)), row);
+        }
+
+        public Map<Integer, String> failures() {
+            return failures;
+        }
+
+        @Override
+        public void close() {
+            ingester.close();
+        }
+
+        private class FailureCollector implements BulkListener<Integer> {
+            @Override
+            public void beforeBulk(long executionId, BulkRequest request, List<Integer> rows) {
+            }
+
+            @Override
+            public void afterBulk(long executionId, BulkRequest request, List<Integer> rows, BulkResponse response) {
+                List<BulkResponseItem> items = response.items();
+                for (int i = 0; i < items.size(); i++) {
+                    BulkResponseItem item = items.get(i);
+                    boolean conflictSkipped = item.status() == 409 && conditionalRows.contains(rows.get(i));
+                    if (item.error() != null && !conflictSkipped) {
+                        failures.put(rows.get(i), item.error().reason());
+                    }
+                }
+                log.debug("Bulk {} to {} finished: {} operations in {} ms", executionId, indexName, items.size(), response.took());
+            }
+
+            @Override
+            public void afterBulk(long executionId, BulkRequest request, List<Integer> rows, Throwable failure) {
+                log.error("Bulk {} to {} failed: {}", executionId, indexName, failure.getMessage());
+                for (Integer row : rows) {
+                    failures.put(row, failure.getMessage());
+                }
+            }
+        }
+    }
+}
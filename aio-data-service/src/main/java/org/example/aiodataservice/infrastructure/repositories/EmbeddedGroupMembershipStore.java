@@ -0,0 +1,59 @@
+package org.example.aiodataservice.infrastructure.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.example.aiodataservice.domain.documents.StaffGroup;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHitsIterator;
+import org.springframework.data.elasticsearch.core.query.Criteria;
+import org.springframework.data.elasticsearch.core.query.CriteriaQuery;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+@RequiredArgsConstructor
+@Component
+@ConditionalOnProperty(name = "app.membership.model", havingValue = "embedded", matchIfMissing = true)
+public class EmbeddedGroupMembershipStore implements GroupMembershipStore {
+    private final StaffGroupMembershipWriter membershipWriter;
+    private final ElasticsearchOperations elasticsearchOperations;
+
+    @Override
+    public StaffGroup apply(String groupId, Map<String, Boolean> changes) {
+        return membershipWriter.apply(groupId, changes);
+    }
+
+    @Override
+    public void removeStaff(String staffId) {
+        List<CompletableFuture<StaffGroup>> membershipUpdates = findGroupIds(staffId).stream()
+                .map(groupId -> membershipWriter.submit(groupId, Map.of(staffId, false)))
+                .toList();
+        membershipUpdates.forEach(membershipWriter::await);
+    }
+
+    @Override
+    public void removeGroup(String groupId) {
+    }
+
+    @Override
+    public Map<String, Set<String>> findMembersByGroup(Collection<StaffGroup> groups) {
+        Map<String, Set<String>> members = new HashMap<>();
+        for (StaffGroup group : groups) {
+            members.put(group.getId(), group.getMemberIds() != null ? group.getMemberIds() : Set.of());
+        }
+        return members;
+    }
+
+    @Override
+    public List<String> findGroupIds(String staffId) {
+        CriteriaQuery query = new CriteriaQuery(new Criteria("memberIds").is(staffId));
+        query.addSourceFilter(FetchSourceFilter.of(b -> b.withFetchSource(false)));
+        List<String> groupIds = new ArrayList<>();
+        try (SearchHitsIterator<StaffGroup> hits = elasticsearchOperations.searchForStream(query, StaffGroup.class)) {
+            hits.forEachRemaining(hit -> groupIds.add(hit.getId()));
+        }
+        return groupIds;
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.aiodataservice.infrastructure.repositories;
+
+import org.example.aiodataservice.domain.documents.StaffGroup;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface GroupMembershipStore {
+    StaffGroup apply(String groupId, Map<String, Boolean> changes);
+
+    void removeStaff(String staffId);
+
+    void removeGroup(String groupId);
+
+    Map<String, Set<String>> findMembersByGroup(Collection<StaffGroup> groups);
+
+    List<String> findGroupIds(String staffId);
+}
@@ -0,0 +1,134 @@
+package org.example.aiodataservice.infrastructure.repositories;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.aiodataservice.application.exceptions.ResourceNotFoundException;
+import org.example.aiodataservice.domain.documents.GroupMembership;
+import org.example.aiodataservice.domain.documents.StaffGroup;
+import org.example.aiodataservice.infrastructure.caches.GroupCacheInvalidator;
+import org.example.aiodataservice.infrastructure.configs.AppImportProperties;
+import org.example.aiodataservice.infrastructure.indices.IndexAliasManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHitsIterator;
+import org.springframework.data.elasticsearch.core.query.Criteria;
+import org.springframework.data.elasticsearch.core.query.CriteriaQuery;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Consumer;
+
+@RequiredArgsConstructor
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.membership.model", havingValue = "index")
+public class IndexedGroupMembershipStore implements GroupMembershipStore {
+    private static final String REFRESH_POLICY = "wait_for";
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ElasticsearchBulkWriter bulkWriter;
+    private final StaffGroupRepository staffGroupRepository;
+    private final GroupCacheInvalidator groupCacheInvalidator;
+    private final IndexAliasManager indexAliasManager;
+    private final AppImportProperties importProperties;
+
+    @PostConstruct
+    public void createIndex() throws IOException {
+        indexAliasManager.ensureIndex(GroupMembership.class);
+    }
+
+    @Override
+    public StaffGroup apply(String groupId, Map<String, Boolean> changes) {
+        StaffGroup staffGroup = staffGroupRepository.findById(groupId)
+                .orElseThrow(() -> new ResourceNotFoundException("Staff Group not found with id: " + groupId));
+        ElasticsearchBulkWriter.Session<GroupMembership> session = bulkWriter.open(GroupMembership.class, REFRESH_POLICY);
+        try {
+            int row = 0;
+            for (Map.Entry<String, Boolean> change : changes.entrySet()) {
+                String id = GroupMembership.idOf(groupId, change.getKey());
+                if (change.getValue()) {
+                    session.index(id, GroupMembership.builder()
+                            .id(id)
+                            .groupId(groupId)
+                            .staffId(change.getKey())
+                            .createdAt(LocalDate.now())
+                            .build(), row++);
+                } else {
+                    session.delete(id, row++);
+                }
+            }
+        } finally {
+            session.close();
+        }
+        failOnRejected(session, groupId);
+        groupCacheInvalidator.evictMembershipChange(List.of(staffGroup), changes.keySet());
+        return staffGroup;
+    }
+
+    @Override
+    public void removeStaff(String staffId) {
+        List<String> groupIds = findGroupIds(staffId);
+        if (groupIds.isEmpty()) {
+            return;
+        }
+        deleteEdges(new Criteria("staffId").is(staffId), staffId);
+        List<StaffGroup> groups = new ArrayList<>();
+        staffGroupRepository.findAllById(groupIds).forEach(groups::add);
+        groupCacheInvalidator.evictMembershipChange(groups, List.of(staffId));
+    }
+
+    @Override
+    public void removeGroup(String groupId) {
+        deleteEdges(new Criteria("groupId").is(groupId), groupId);
+    }
+
+    @Override
+    public Map<String, Set<String>> findMembersByGroup(Collection<StaffGroup> groups) {
+        Map<String, Set<String>> members = new HashMap<>();
+        if (groups.isEmpty()) {
+            return members;
+        }
+        groups.forEach(group -> members.put(group.getId(), new HashSet<>()));
+        // one terms clause per chunk keeps large subtrees under the max_clause_count / terms limits
+        List<String> groupIds = new ArrayList<>(members.keySet());
+        for (int from = 0; from < groupIds.size(); from += importProperties.getChunkSize()) {
+            List<String> chunk = groupIds.subList(from, Math.min(from + importProperties.getChunkSize(), groupIds.size()));
+            streamEdges(new Criteria("groupId").in(chunk), edge -> members.get(edge.getGroupId()).add(edge.getStaffId()));
+        }
+        return members;
+    }
+
+    @Override
+    public List<String> findGroupIds(String staffId) {
+        List<String> groupIds = new ArrayList<>();
+        streamEdges(new Criteria("staffId").is(staffId), edge -> groupIds.add(edge.getGroupId()));
+        return groupIds;
+    }
+
+    private void streamEdges(Criteria criteria, Consumer<GroupMembership> consumer) {
+        try (SearchHitsIterator<GroupMembership> hits = elasticsearchOperations.searchForStream(new CriteriaQuery(criteria), GroupMembership.class)) {
+            hits.forEachRemaining(hit -> consumer.accept(hit.getContent()));
+        }
+    }
+
+    private void deleteEdges(Criteria criteria, String owner) {
+        ElasticsearchBulkWriter.Session<GroupMembership> session = bulkWriter.open(GroupMembership.class, REFRESH_POLICY);
+        try {
+            int[] row = {0};
+            streamEdges(criteria, edge -> session.delete(edge.getId(), row[0]++));
+        } finally {
+            session.close();
+        }
+        failOnRejected(session, owner);
+    }
+
+    private void failOnRejected(ElasticsearchBulkWriter.Session<GroupMembership> session, String owner) {
+        if (!session.failures().isEmpty()) {
+            throw new IllegalStateException("Failed to update " + session.failures().size() + " membership edges for "
+                    + owner + ": " + session.failures().values().iterator().next());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package org.example.aiodataservice.infrastructure.repositories;
+
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.aiodataservice.application.dtos.CursorPageDto;
+import org.example.aiodataservice.application.exceptions.InvalidCursorException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.ResourceNotFoundException;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+@RequiredArgsConstructor
+@Slf4j
+@Component
+public class SearchAfterPager {
+    public static final int MAX_PAGE_SIZE = 1000;
+    private static final Duration PIT_KEEP_ALIVE = Duration.ofMinutes(1);
+    private static final String SHARD_DOC = "_shard_doc";
+    // _id cannot be sorted on, so the keyword copy of the id breaks ties between equal codes
+    private static final String ID_FIELD = "id";
+    private static final int SORT_VALUES = 2;
+    private static final String SEARCH_CONTEXT_MISSING = "search_context_missing_exception";
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ObjectMapper objectMapper;
+
+    public <T> CursorPageDto<T> page(Class<T> type, String sortField, String cursor, int size, boolean pointInTime) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        CursorState state = cursor != null && !cursor.isBlank() ? decode(cursor) : new CursorState(null, null);
+        String pitId = state.getPitId();
+        // a cursor keeps the mode it was issued in; its sort values only fit that sort
+        if (pitId == null && pointInTime && state.getSearchAfter() == null) {
+            pitId = elasticsearchOperations.openPointInTime(elasticsearchOperations.getIndexCoordinatesFor(type), PIT_KEEP_ALIVE);
+        }
+
+        NativeQueryBuilder builder = NativeQuery.builder()
+                .withPageable(PageRequest.of(0, pageSize + 1));
+        if (pitId != null) {
+            builder.withSort(Sort.by(sortField).and(Sort.by(SHARD_DOC)))
+                    .withPointInTime(new Query.PointInTime(pitId, PIT_KEEP_ALIVE));
+        } else {
+            builder.withSort(Sort.by(sortField).and(Sort.by(ID_FIELD)));
+        }
+        if (state.getSearchAfter() != null) {
+            builder.withSearchAfter(state.getSearchAfter());
+        }
+
+        SearchHits<T> hits;
+        try {
+            hits = elasticsearchOperations.search(builder.build(), type);
+        } catch (RuntimeException e) {
+            if (state.getPitId() == null || !pointInTimeMissing(e)) {
+                throw e;
+            }
+            log.debug("Point in time for cursor is no longer available", e);
+            throw new InvalidCursorException("Cursor has expired, restart from the first page");
+        }
+        if (pitId != null && hits.getPointInTimeId() != null) {
+            pitId = hits.getPointInTimeId();
+        }
+
+        List<SearchHit<T>> searchHits = hits.getSearchHits();
+        boolean hasMore = searchHits.size() > pageSize;
+        List<T> items = new ArrayList<>(Math.min(searchHits.size(), pageSize));
+        for (int i = 0; i < searchHits.size() && i < pageSize; i++) {
+            items.add(searchHits.get(i).getContent());
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            nextCursor = encode(new CursorState(searchHits.get(pageSize - 1).getSortValues(), pitId));
+        } else if (pitId != null) {
+            elasticsearchOperations.closePointInTime(pitId);
+        }
+        return CursorPageDto.<T>builder()
+                .items(items)
+                .size(items.size())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    // an expired or closed point in time comes back as a 404 / search_context_missing_exception; anything else is a real failure
+    private static boolean pointInTimeMissing(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ResourceNotFoundException) {
+                return true;
+            }
+            if (cause instanceof ElasticsearchException elasticsearchException
+                    && String.valueOf(elasticsearchException.response()).contains(SEARCH_CONTEXT_MISSING)) {
+                return true;
+            }
+            if (cause.getMessage() != null && cause.getMessage().contains(SEARCH_CONTEXT_MISSING)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String encode(CursorState state) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(state));
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to encode cursor", e);
+        }
+    }
+
+    private CursorState decode(String cursor) {
+        try {
+            CursorState state = objectMapper.readValue(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8), CursorState.class);
+            if (state.getSearchAfter() == null || state.getSearchAfter().size() != SORT_VALUES) {
+                throw new InvalidCursorException("Invalid cursor");
+            }
+            return state;
+        } catch (InvalidCursorException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CursorState {
+        private List<Object> searchAfter;
+        private String pitId;
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.aiodataservice.infrastructure.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.example.aiodataservice.domain.documents.StaffGroup;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+// Hierarchy edits touch groups other than the one whose lock they hold, so existing groups are written as partial
+// updates that leave memberIds alone; only StaffGroupMembershipWriter changes members, under the group's own lock.
+@RequiredArgsConstructor
+@Component
+public class StaffGroupHierarchyWriter {
+    public static final Set<String> MEMBERSHIP_FIELDS = Set.of("memberIds");
+
+    private final ElasticsearchOperations elasticsearchOperations;
+
+    public void write(Collection<StaffGroup> created, Collection<StaffGroup> updated) {
+        IndexCoordinates index = elasticsearchOperations.getIndexCoordinatesFor(StaffGroup.class);
+        if (!created.isEmpty()) {
+            elasticsearchOperations.save(created, index);
+        }
+        if (!updated.isEmpty()) {
+            List<UpdateQuery> queries = new ArrayList<>(updated.size());
+            for (StaffGroup group : updated) {
+                queries.add(UpdateQuery.builder(group.getId())
+                        .withDocument(hierarchyFields(group))
+                        .withRetryOnConflict(3)
+                        .build());
+            }
+            elasticsearchOperations.bulkUpdate(queries, index);
+        }
+        elasticsearchOperations.indexOps(index).refresh();
+    }
+
+    public Document hierarchyFields(StaffGroup group) {
+        Document document = Document.create();
+        elasticsearchOperations.getElasticsearchConverter().write(group, document);
+        MEMBERSHIP_FIELDS.forEach(document::remove);
+        return document;
+    }
+}
@@ -0,0 +1,202 @@
+package org.example.aiodataservice.infrastructure.repositories;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.aiodataservice.application.exceptions.LockAcquisitionException;
+import org.example.aiodataservice.application.exceptions.ResourceNotFoundException;
+import org.example.aiodataservice.domain.documents.StaffGroup;
+import org.example.aiodataservice.infrastructure.caches.GroupCacheInvalidator;
+import org.example.aiodataservice.infrastructure.configs.AppLockProperties;
+import org.example.aiodataservice.infrastructure.configs.AppMembershipProperties;
+import org.example.aiodataservice.infrastructure.locks.DistributedLock;
+import org.example.aiodataservice.infrastructure.locks.DistributedLockManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.query.ScriptType;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.membership.model", havingValue = "embedded", matchIfMissing = true)
+public class StaffGroupMembershipWriter {
+    private static final String UPDATE_MEMBERS_SCRIPT = """
+            if (ctx._source.memberIds == null) { ctx._source.memberIds = []; }
+            Set members = new LinkedHashSet(ctx._source.memberIds);
+            boolean changed = false;
+            for (def id : params.add) { changed = members.add(id) || changed; }
+            for (def id : params.remove) { changed = members.remove(id) || changed; }
+            if (changed) {
+              ctx._source.memberIds = new ArrayList(members);
+              ctx._source.updatedAt = params.updatedAt;
+            } else {
+              ctx.op = 'noop';
+            }
+            """;
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final StaffGroupRepository staffGroupRepository;
+    private final DistributedLockManager lockManager;
+    private final GroupCacheInvalidator groupCacheInvalidator;
+    private final AppMembershipProperties properties;
+    private final AppLockProperties lockProperties;
+    private final ConcurrentMap<String, PendingBatch> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService executor;
+
+    public StaffGroupMembershipWriter(ElasticsearchOperations elasticsearchOperations,
+                                      StaffGroupRepository staffGroupRepository,
+                                      DistributedLockManager lockManager,
+                                      GroupCacheInvalidator groupCacheInvalidator,
+                                      AppMembershipProperties properties,
+                                      AppLockProperties lockProperties) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.staffGroupRepository = staffGroupRepository;
+        this.lockManager = lockManager;
+        this.groupCacheInvalidator = groupCacheInvalidator;
+        this.properties = properties;
+        this.lockProperties = lockProperties;
+        this.executor = Executors.newScheduledThreadPool(properties.getFlushThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "membership-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public StaffGroup apply(String groupId, Map<String, Boolean> changes) {
+        return await(submit(groupId, changes));
+    }
+
+    public CompletableFuture<StaffGroup> submit(String groupId, Map<String, Boolean> changes) {
+        CompletableFuture<StaffGroup> future = new CompletableFuture<>();
+        boolean[] opened = {false};
+        PendingBatch batch = pending.compute(groupId, (id, existing) -> {
+            PendingBatch current = existing;
+            if (current == null) {
+                current = new PendingBatch();
+                opened[0] = true;
+            }
+            current.changes.putAll(changes);
+            current.waiters.add(future);
+            return current;
+        });
+        if (opened[0]) {
+            executor.schedule(() -> flush(groupId, batch), properties.getCoalesceWindow().toMillis(), TimeUnit.MILLISECONDS);
+        } else if (batch.changes.size() >= properties.getMaxBatchSize()) {
+            executor.execute(() -> flush(groupId, batch));
+        }
+        return future;
+    }
+
+    public StaffGroup await(CompletableFuture<StaffGroup> future) {
+        try {
+            return future.get(properties.getFlushTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Membership update failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for membership update", e);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Timed out waiting for membership update", e);
+        }
+    }
+
+    private void flush(String groupId, PendingBatch batch) {
+        if (!pending.remove(groupId, batch)) {
+            return;
+        }
+        // never block a shared flush thread on a busy group: put the batch back and try again shortly
+        Optional<DistributedLock> acquired = lockManager.tryAcquire("staffgroup", groupId, lockProperties.getLease(), Duration.ZERO);
+        if (acquired.isEmpty()) {
+            retryLater(groupId, batch);
+            return;
+        }
+        List<String> added = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        batch.changes.forEach((staffId, add) -> (add ? added : removed).add(staffId));
+
+        try (DistributedLock lock = acquired.get()) {
+            UpdateQuery updateQuery = UpdateQuery.builder(groupId)
+                    .withScriptType(ScriptType.INLINE)
+                    .withScript(UPDATE_MEMBERS_SCRIPT)
+                    .withLang("painless")
+                    .withParams(Map.of(
+                            "add", added,
+                            "remove", removed,
+                            "updatedAt", LocalDate.now().toString()))
+                    .withRetryOnConflict(3)
+                    .build();
+            elasticsearchOperations.update(updateQuery, elasticsearchOperations.getIndexCoordinatesFor(StaffGroup.class));
+            StaffGroup staffGroup = staffGroupRepository.findById(groupId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Staff Group not found with id: " + groupId));
+            groupCacheInvalidator.evictMembershipChange(List.of(staffGroup), batch.changes.keySet());
+            log.debug("Applied {} membership changes to group {} in one update ({} waiters)",
+                    batch.changes.size(), groupId, batch.waiters.size());
+            batch.waiters.forEach(waiter -> waiter.complete(staffGroup));
+        } catch (Exception e) {
+            RuntimeException failure = groupMissing(groupId)
+                    ? new ResourceNotFoundException("Staff Group not found with id: " + groupId)
+                    : e instanceof RuntimeException runtimeException ? runtimeException : new IllegalStateException(e);
+            log.warn("Failed to apply {} membership changes to group {}: {}", batch.changes.size(), groupId, e.getMessage());
+            batch.waiters.forEach(waiter -> waiter.completeExceptionally(failure));
+        }
+    }
+
+    private void retryLater(String groupId, PendingBatch batch) {
+        long now = System.nanoTime();
+        if (batch.lockWaitStartedAt == 0) {
+            batch.lockWaitStartedAt = now;
+        }
+        if (now - batch.lockWaitStartedAt >= lockProperties.getMaxWait().toNanos()) {
+            LockAcquisitionException failure = new LockAcquisitionException(
+                    "Resource is busy, could not acquire lock staffgroup for: " + groupId);
+            batch.waiters.forEach(waiter -> waiter.completeExceptionally(failure));
+            return;
+        }
+        boolean[] requeued = {false};
+        pending.compute(groupId, (id, newer) -> {
+            if (newer == null) {
+                requeued[0] = true;
+                return batch;
+            }
+            // changes submitted since this batch was taken are newer and win
+            batch.changes.forEach(newer.changes::putIfAbsent);
+            newer.waiters.addAll(batch.waiters);
+            return newer;
+        });
+        if (requeued[0]) {
+            batch.backoffMillis = batch.backoffMillis == 0
+                    ? Math.max(1, lockProperties.getInitialBackoff().toMillis())
+                    : Math.min(batch.backoffMillis * 2, lockProperties.getMaxBackoff().toMillis());
+            long delay = ThreadLocalRandom.current().nextLong(batch.backoffMillis / 2, batch.backoffMillis + 1);
+            executor.schedule(() -> flush(groupId, batch), delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private boolean groupMissing(String groupId) {
+        try {
+            return !staffGroupRepository.existsById(groupId);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static class PendingBatch {
+        private final Map<String, Boolean> changes = new LinkedHashMap<>();
+        private final List<CompletableFuture<StaffGroup>> waiters = new ArrayList<>();
+        private long lockWaitStartedAt;
+        private long backoffMillis;
+    }
+}
@@ -4,6 +4,7 @@ import org.example.aiodataservice.domain.documents.StaffGroup;
 import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,5 +13,6 @@ public interface StaffGroupRepository extends ElasticsearchRepository<StaffGroup
     Optional<StaffGroup> findByGroupCode(String groupCode);
     List<StaffGroup> findByParentId(String parentId);
     Boolean existsByGroupCode(String groupCode);
+    List<StaffGroup> findAllByGroupCodeIn(Collection<String> groupCodes);
     List<StaffGroup> findAllByMemberIds(String id);
 }
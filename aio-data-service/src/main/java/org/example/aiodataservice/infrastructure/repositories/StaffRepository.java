@@ -6,6 +6,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,4 +16,5 @@ public interface StaffRepository extends ElasticsearchRepository<Staff, String>
     Optional<Staff> findByEmail(String email);
     Page<Staff> findAll(Pageable pageable);
     Boolean existsByStaffCode(String staffCode);
+    List<Staff> findAllByStaffCodeIn(Collection<String> staffCodes);
 }
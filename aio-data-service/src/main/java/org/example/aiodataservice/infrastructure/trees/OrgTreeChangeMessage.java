@@ -0,0 +1,16 @@
+package org.example.aiodataservice.infrastructure.trees;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrgTreeChangeMessage {
+    private String origin;
+    // groups whose document or memberships changed; ids that no longer exist are removed
+    private Set<String> groupIds;
+}
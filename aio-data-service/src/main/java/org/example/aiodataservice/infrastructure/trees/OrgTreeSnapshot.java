@@ -0,0 +1,234 @@
+package org.example.aiodataservice.infrastructure.trees;
+
+import java.util.*;
+
+// Immutable view of the whole group tree. A change copies only the slot arrays (references and ints) and recomputes
+// the rows of the groups it touches; removed groups leave an empty slot and new groups are appended, until enough
+// of both accumulate to rebuild the index from scratch.
+public final class OrgTreeSnapshot {
+    private static final int NO_SLOT = -1;
+    private static final int[] NO_CHILDREN = new int[0];
+    private static final int MIN_COMPACTION_THRESHOLD = 1024;
+
+    public record Node(String id, String parentId, String[] childIds, String[] memberIds) {
+    }
+
+    private final long version;
+    private final Node[] nodes;
+    // shared by every snapshot derived from the same full build
+    private final Map<String, Integer> baseIndex;
+    // slots appended since the full build
+    private final Map<String, Integer> addedIndex;
+    private final int[] parents;
+    private final int[][] children;
+    private final int size;
+    private final long memberLinks;
+
+    private OrgTreeSnapshot(long version, Node[] nodes, Map<String, Integer> baseIndex, Map<String, Integer> addedIndex,
+                            int[] parents, int[][] children, int size, long memberLinks) {
+        this.version = version;
+        this.nodes = nodes;
+        this.baseIndex = baseIndex;
+        this.addedIndex = addedIndex;
+        this.parents = parents;
+        this.children = children;
+        this.size = size;
+        this.memberLinks = memberLinks;
+    }
+
+    public static OrgTreeSnapshot of(long version, Collection<Node> nodes) {
+        Node[] slots = nodes.toArray(Node[]::new);
+        Map<String, Integer> index = new HashMap<>(Math.max(16, (int) (slots.length / 0.75f) + 1));
+        long links = 0;
+        for (int slot = 0; slot < slots.length; slot++) {
+            index.put(slots[slot].id(), slot);
+            links += slots[slot].memberIds().length;
+        }
+        OrgTreeSnapshot snapshot = new OrgTreeSnapshot(version, slots, index, Map.of(),
+                new int[slots.length], new int[slots.length][], slots.length, links);
+        for (int slot = 0; slot < slots.length; slot++) {
+            snapshot.link(slot);
+        }
+        return snapshot;
+    }
+
+    public OrgTreeSnapshot withChanges(Map<String, Node> upserts, Collection<String> removedIds) {
+        int appended = 0;
+        for (String id : upserts.keySet()) {
+            if (slotOf(id) == NO_SLOT) {
+                appended++;
+            }
+        }
+        Node[] nextNodes = Arrays.copyOf(nodes, nodes.length + appended);
+        Map<String, Integer> nextAdded = appended > 0 ? new HashMap<>(addedIndex) : addedIndex;
+        int nextSize = size;
+        long links = memberLinks;
+        Set<String> affected = new HashSet<>();
+
+        for (String id : removedIds) {
+            int slot = slotOf(id);
+            if (slot == NO_SLOT || upserts.containsKey(id)) {
+                continue;
+            }
+            affectNeighbours(nodes[slot], affected);
+            links -= nodes[slot].memberIds().length;
+            nextNodes[slot] = null;
+            nextSize--;
+        }
+        int nextFree = nodes.length;
+        for (Node node : upserts.values()) {
+            int slot = slotOf(node.id());
+            if (slot == NO_SLOT) {
+                slot = nextFree++;
+                nextAdded.put(node.id(), slot);
+                nextSize++;
+            } else {
+                affectNeighbours(nodes[slot], affected);
+                links -= nodes[slot].memberIds().length;
+            }
+            nextNodes[slot] = node;
+            links += node.memberIds().length;
+            affected.add(node.id());
+            affectNeighbours(node, affected);
+        }
+
+        OrgTreeSnapshot next = new OrgTreeSnapshot(version + 1, nextNodes, baseIndex, nextAdded,
+                Arrays.copyOf(parents, nextNodes.length), Arrays.copyOf(children, nextNodes.length), nextSize, links);
+        for (String id : removedIds) {
+            int slot = slotOf(id);
+            if (slot != NO_SLOT && nextNodes[slot] == null) {
+                next.parents[slot] = NO_SLOT;
+                next.children[slot] = NO_CHILDREN;
+            }
+        }
+        for (String id : affected) {
+            int slot = next.slotOf(id);
+            if (slot != NO_SLOT) {
+                next.link(slot);
+            }
+        }
+        int threshold = Math.max(MIN_COMPACTION_THRESHOLD, nextNodes.length / 8);
+        if (nextAdded.size() > threshold || nextNodes.length - nextSize > threshold) {
+            return of(next.version, next.liveNodes());
+        }
+        return next;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long memberLinks() {
+        return memberLinks;
+    }
+
+    public boolean contains(String id) {
+        return slotOf(id) != NO_SLOT;
+    }
+
+    public Set<String> membersOf(String id) {
+        int slot = slotOf(id);
+        return slot != NO_SLOT ? new HashSet<>(Arrays.asList(nodes[slot].memberIds())) : null;
+    }
+
+    public List<String> ancestorsOf(String id) {
+        List<String> ancestors = new ArrayList<>();
+        int slot = slotOf(id);
+        if (slot == NO_SLOT) {
+            return ancestors;
+        }
+        BitSet visited = new BitSet(nodes.length);
+        visited.set(slot);
+        for (int parent = parents[slot]; parent != NO_SLOT && !visited.get(parent); parent = parents[parent]) {
+            visited.set(parent);
+            ancestors.add(nodes[parent].id());
+        }
+        return ancestors;
+    }
+
+    public Set<String> resolveMembers(String id) {
+        return resolveMembers(id, Set.of());
+    }
+
+    // null when the group is unknown or its subtree contains a group listed in stale
+    public Set<String> resolveMembers(String id, Set<String> stale) {
+        int root = slotOf(id);
+        if (root == NO_SLOT) {
+            return null;
+        }
+        Set<String> members = new HashSet<>();
+        BitSet visited = new BitSet(nodes.length);
+        int[] stack = new int[16];
+        int top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            int slot = stack[--top];
+            Node node = nodes[slot];
+            if (node == null || visited.get(slot)) {
+                continue;
+            }
+            if (stale.contains(node.id())) {
+                return null;
+            }
+            visited.set(slot);
+            Collections.addAll(members, node.memberIds());
+            for (int child : children[slot]) {
+                if (top == stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[top++] = child;
+            }
+        }
+        return members;
+    }
+
+    private int slotOf(String id) {
+        Integer slot = addedIndex.get(id);
+        if (slot == null) {
+            slot = baseIndex.get(id);
+        }
+        return slot != null && nodes[slot] != null && nodes[slot].id().equals(id) ? slot : NO_SLOT;
+    }
+
+    private void link(int slot) {
+        Node node = nodes[slot];
+        parents[slot] = node.parentId() != null ? slotOf(node.parentId()) : NO_SLOT;
+        children[slot] = slotsOf(node.childIds());
+    }
+
+    private int[] slotsOf(String[] ids) {
+        if (ids.length == 0) {
+            return NO_CHILDREN;
+        }
+        int[] slots = new int[ids.length];
+        int count = 0;
+        for (String id : ids) {
+            int slot = slotOf(id);
+            if (slot != NO_SLOT) {
+                slots[count++] = slot;
+            }
+        }
+        return count == slots.length ? slots : Arrays.copyOf(slots, count);
+    }
+
+    private List<Node> liveNodes() {
+        List<Node> live = new ArrayList<>(size);
+        for (Node node : nodes) {
+            if (node != null) {
+                live.add(node);
+            }
+        }
+        return live;
+    }
+
+    private static void affectNeighbours(Node node, Set<String> affected) {
+        if (node.parentId() != null) {
+            affected.add(node.parentId());
+        }
+        Collections.addAll(affected, node.childIds());
+    }
+}
@@ -0,0 +1,310 @@
+package org.example.aiodataservice.infrastructure.trees;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.aiodataservice.application.constants.CacheNameConstant;
+import org.example.aiodataservice.application.dtos.staff.StaffGroupChildDto;
+import org.example.aiodataservice.domain.documents.StaffGroup;
+import org.example.aiodataservice.infrastructure.caches.TwoLevelCache;
+import org.example.aiodataservice.infrastructure.configs.AppOrgTreeProperties;
+import org.example.aiodataservice.infrastructure.repositories.GroupMembershipStore;
+import org.example.aiodataservice.infrastructure.repositories.StaffGroupRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHitsIterator;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Keeps a replica-local snapshot of the group tree. Local and remote changes are loaded and applied in coalesced batches
+// on one background thread; until then the changed groups are pending and reads touching them use Elasticsearch, so a
+// replica still reads its own writes. A periodic full rebuild repairs missed change messages.
+// Runs before the cache warm-up so warm-up resolves members from the snapshot.
+@RequiredArgsConstructor
+@Slf4j
+@Component
+@Order(0)
+public class OrgTreeSnapshotManager implements ApplicationRunner {
+    private final StaffGroupRepository staffGroupRepository;
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ObjectProvider<GroupMembershipStore> membershipStore;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final CacheManager cacheManager;
+    private final MeterRegistry meterRegistry;
+    private final AppOrgTreeProperties properties;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    // group id to the sequence of its latest change, so a change that arrives mid-batch is not dropped
+    private final Map<String, Long> pendingGroupIds = new ConcurrentHashMap<>();
+    private final AtomicLong changeSequence = new AtomicLong();
+    private final Set<String> changedDuringRebuild = new HashSet<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "org-tree");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile OrgTreeSnapshot snapshot;
+    private boolean rebuilding;
+
+    @PostConstruct
+    public void subscribe() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer();
+        listenerContainer.addMessageListener((message, pattern) -> {
+            Object payload = serializer.deserialize(message.getBody());
+            if (payload instanceof OrgTreeChangeMessage change && !instanceId.equals(change.getOrigin())) {
+                enqueue(change.getGroupIds());
+            }
+        }, new ChannelTopic(properties.getChangeChannel()));
+        Gauge.builder("org_tree.groups", this, manager -> manager.snapshot != null ? manager.snapshot.size() : 0)
+                .register(meterRegistry);
+        Gauge.builder("org_tree.member_links", this, manager -> manager.snapshot != null ? manager.snapshot.memberLinks() : 0)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        rebuildQuietly();
+        long intervalMs = properties.getFullRebuildInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::rebuildQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    // null while disabled, before the first build or after a failed update; callers then read Elasticsearch
+    public OrgTreeSnapshot current() {
+        return snapshot;
+    }
+
+    // null when the snapshot cannot answer: not built, unknown group, or a change in the subtree not applied yet
+    public Set<String> resolveMembers(String groupId) {
+        OrgTreeSnapshot current = snapshot;
+        return current != null ? current.resolveMembers(groupId, pendingGroupIds.keySet()) : null;
+    }
+
+    public Set<String> membersOf(String groupId) {
+        OrgTreeSnapshot current = snapshot;
+        return current != null && !pendingGroupIds.containsKey(groupId) ? current.membersOf(groupId) : null;
+    }
+
+    // the groups stay pending, so reads fall back to Elasticsearch until the snapshot has the change
+    public void onGroupsChanged(Collection<String> groupIds) {
+        if (!properties.isEnabled() || groupIds.isEmpty()) {
+            return;
+        }
+        enqueue(groupIds);
+        try {
+            redisTemplate.convertAndSend(properties.getChangeChannel(), new OrgTreeChangeMessage(instanceId, new HashSet<>(groupIds)));
+        } catch (Exception e) {
+            log.warn("Failed to publish org tree change for {} groups: {}", groupIds.size(), e.getMessage());
+        }
+    }
+
+    // a group that Elasticsearch has but the snapshot does not, e.g. because its change message was lost
+    public void refresh(Collection<String> groupIds) {
+        OrgTreeSnapshot current = snapshot;
+        if (!properties.isEnabled() || current == null) {
+            return;
+        }
+        boolean added = false;
+        for (String groupId : groupIds) {
+            if (!current.contains(groupId)) {
+                added |= pendingGroupIds.putIfAbsent(groupId, changeSequence.incrementAndGet()) == null;
+            }
+        }
+        if (added) {
+            scheduleDrain();
+        }
+    }
+
+    private void enqueue(Collection<String> groupIds) {
+        for (String groupId : groupIds) {
+            pendingGroupIds.put(groupId, changeSequence.incrementAndGet());
+        }
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this::drain, properties.getCoalesceWindow().toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // runs on the single org-tree thread, so batches are applied in the order they were loaded
+    private void drain() {
+        drainScheduled.set(false);
+        Map<String, Long> batch = new HashMap<>(pendingGroupIds);
+        if (batch.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                // the next full build reads the current state anyway
+                if (rebuilding) {
+                    changedDuringRebuild.addAll(batch.keySet());
+                }
+                batch.forEach(pendingGroupIds::remove);
+                return;
+            }
+        }
+        try {
+            long startedAt = System.nanoTime();
+            List<StaffGroup> groups = new ArrayList<>(batch.size());
+            staffGroupRepository.findAllById(batch.keySet()).forEach(groups::add);
+            Map<String, OrgTreeSnapshot.Node> upserts = new HashMap<>();
+            for (OrgTreeSnapshot.Node node : toNodes(groups)) {
+                upserts.put(node.id(), node);
+            }
+            Set<String> removedIds = new HashSet<>(batch.keySet());
+            removedIds.removeAll(upserts.keySet());
+            synchronized (this) {
+                if (rebuilding) {
+                    changedDuringRebuild.addAll(batch.keySet());
+                }
+                if (snapshot != null) {
+                    snapshot = snapshot.withChanges(upserts, removedIds);
+                }
+            }
+            // a group changed again while this batch loaded stays pending for the next one
+            batch.forEach(pendingGroupIds::remove);
+            // entries another replica resolved before its change message arrived were computed from the old tree
+            evictResolved(batch.keySet());
+            record("incremental", startedAt);
+        } catch (Exception e) {
+            discard(e);
+        }
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("Failed to build org tree snapshot, tree reads use Elasticsearch until the next attempt: {}", e.getMessage());
+        }
+    }
+
+    void rebuild() {
+        synchronized (this) {
+            rebuilding = true;
+            changedDuringRebuild.clear();
+        }
+        try {
+            long startedAt = System.nanoTime();
+            List<OrgTreeSnapshot.Node> nodes = new ArrayList<>();
+            Query query = Query.findAll();
+            query.setPageable(PageRequest.of(0, properties.getLoadBatchSize()));
+            try (SearchHitsIterator<StaffGroup> hits = elasticsearchOperations.searchForStream(query, StaffGroup.class)) {
+                List<StaffGroup> batch = new ArrayList<>(properties.getLoadBatchSize());
+                while (hits.hasNext()) {
+                    batch.add(hits.next().getContent());
+                    if (batch.size() == properties.getLoadBatchSize()) {
+                        nodes.addAll(toNodes(batch));
+                        batch.clear();
+                    }
+                }
+                nodes.addAll(toNodes(batch));
+            }
+            OrgTreeSnapshot built = OrgTreeSnapshot.of(snapshot != null ? snapshot.getVersion() + 1 : 1, nodes);
+            Set<String> replay;
+            synchronized (this) {
+                snapshot = built;
+                rebuilding = false;
+                replay = new HashSet<>(changedDuringRebuild);
+                changedDuringRebuild.clear();
+            }
+            // the stream may have read these groups before the change that was applied to the old snapshot
+            if (!replay.isEmpty()) {
+                enqueue(replay);
+            }
+            long elapsedNanos = record("full", startedAt);
+            log.info("Built org tree snapshot v{}: {} groups, {} member links in {} ms", snapshot.getVersion(),
+                    snapshot.size(), snapshot.memberLinks(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        } finally {
+            synchronized (this) {
+                rebuilding = false;
+            }
+        }
+    }
+
+    private List<OrgTreeSnapshot.Node> toNodes(List<StaffGroup> groups) {
+        if (groups.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Set<String>> membersByGroup = membershipStore.getObject().findMembersByGroup(groups);
+        List<OrgTreeSnapshot.Node> nodes = new ArrayList<>(groups.size());
+        for (StaffGroup group : groups) {
+            String[] childIds = group.getChildren() == null ? new String[0]
+                    : group.getChildren().stream().map(StaffGroupChildDto::getId).toArray(String[]::new);
+            String[] memberIds = membersByGroup.getOrDefault(group.getId(), Set.of()).toArray(String[]::new);
+            nodes.add(new OrgTreeSnapshot.Node(group.getId(), group.getParentId(), childIds, memberIds));
+        }
+        return nodes;
+    }
+
+    private void evictResolved(Collection<String> groupIds) {
+        Cache cache = cacheManager.getCache(CacheNameConstant.RESOLVED_GROUP_MEMBERS_CACHE);
+        OrgTreeSnapshot current = snapshot;
+        if (cache == null || current == null) {
+            return;
+        }
+        Set<String> keys = new HashSet<>(groupIds);
+        for (String groupId : groupIds) {
+            keys.addAll(current.ancestorsOf(groupId));
+        }
+        // one DEL and one invalidation message per batch instead of one per key
+        if (cache instanceof TwoLevelCache twoLevelCache) {
+            twoLevelCache.evictAll(keys);
+            return;
+        }
+        keys.forEach(cache::evict);
+    }
+
+    private void discard(Exception e) {
+        log.warn("Failed to update org tree snapshot, rebuilding it: {}", e.getMessage());
+        snapshot = null;
+        scheduler.execute(this::rebuildQuietly);
+        // pending groups are cleared by a drain that runs after the rebuild
+        scheduleDrain();
+    }
+
+    private long record(String type, long startedAt) {
+        long elapsedNanos = System.nanoTime() - startedAt;
+        Timer.builder("org_tree.build")
+                .tag("type", type)
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        return elapsedNanos;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
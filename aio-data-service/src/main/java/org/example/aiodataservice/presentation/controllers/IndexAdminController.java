@@ -0,0 +1,31 @@
+package org.example.aiodataservice.presentation.controllers;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.example.aiodataservice.application.dtos.ReindexJobDto;
+import org.example.aiodataservice.application.services.IndexAdminService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/indices")
+@RequiredArgsConstructor
+@Tag(name = "Index Administration", description = "APIs for rebuilding Elasticsearch indices behind their aliases")
+public class IndexAdminController {
+    private final IndexAdminService indexAdminService;
+
+    @PostMapping("/{index}/reindex")
+    @Operation(summary = "Start a background reindex",
+            description = "Copies the index behind the alias (staff, staff-group or group-membership) into a new versioned index with the current mapping, then switches the alias atomically.")
+    public ResponseEntity<ReindexJobDto> reindex(@PathVariable String index) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(indexAdminService.startReindex(index));
+    }
+
+    @GetMapping("/reindex/{jobId}")
+    @Operation(summary = "Get reindex job progress")
+    public ResponseEntity<ReindexJobDto> getReindexJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(indexAdminService.getReindexJob(jobId));
+    }
+}
@@ -6,8 +6,13 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.example.aiodataservice.application.constants.ImportFormat;
+import org.example.aiodataservice.application.dtos.CursorPageDto;
+import org.example.aiodataservice.application.dtos.SearchResultDto;
+import org.example.aiodataservice.application.dtos.ImportReportDto;
 import org.example.aiodataservice.application.dtos.staff.CreateStaffDto;
 import org.example.aiodataservice.application.dtos.staff.UpdateStaffDto;
 import org.example.aiodataservice.application.services.StaffService;
@@ -20,6 +25,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -38,6 +45,29 @@ public class StaffController {
         return ResponseEntity.ok(staffService.getStaffs(page, size));
     }
 
+    @GetMapping("/cursor")
+    @Operation(summary = "List staff members by cursor",
+            description = "Returns one page sorted by staffCode and an opaque nextCursor for the following page. Pass pit=true on the first request to page over a consistent point-in-time snapshot.")
+    public ResponseEntity<CursorPageDto<Staff>> findAllByCursor(@RequestParam(required = false) String cursor,
+                                                                @RequestParam(defaultValue = "100") int size,
+                                                                @RequestParam(defaultValue = "false") boolean pit)
+    {
+        return ResponseEntity.ok(staffService.getStaffsAfter(cursor, size, pit));
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search staff members",
+            description = "Matches name prefixes (typeahead) and misspellings, with optional exact staffCode, email and group membership filters. Returns hits with createdMonth counts.")
+    public ResponseEntity<SearchResultDto<Staff>> search(@RequestParam(required = false) String q,
+                                                         @RequestParam(required = false) String staffCode,
+                                                         @RequestParam(required = false) String email,
+                                                         @RequestParam(required = false) String groupId,
+                                                         @RequestParam(defaultValue = "0") int page,
+                                                         @RequestParam(defaultValue = "20") int size)
+    {
+        return ResponseEntity.ok(staffService.searchStaffs(q, staffCode, email, groupId, page, size));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get staff by ID")
     public ResponseEntity<Staff> findById(@PathVariable String id) {
@@ -73,8 +103,8 @@ public class StaffController {
     }
 
     @Operation(
-            summary = "Import staff from JSON file",
-            description = "Uploads a JSON file containing a list of staff records (staffCode, name, email). Returns created staff.",
+            summary = "Import staff from file",
+            description = "Uploads a JSON array, NDJSON or CSV file of staff records (staffCode, name, email). The format is taken from the format parameter, the file content type or its extension. Returns a per-row import report.",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
@@ -84,16 +114,27 @@ public class StaffController {
             }
     )
     @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<List<Staff>> importStaff(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<ImportReportDto> importStaff(@RequestParam("file") MultipartFile file,
+                                                       @RequestParam(value = "format", required = false) ImportFormat format) {
         if (file.isEmpty()) {
             return ResponseEntity.badRequest().body(null);
         }
-        try {
-            List<Staff> importedStaff = staffService.importStaff(file.getBytes());
-            return ResponseEntity.ok(importedStaff);
+        ImportFormat importFormat = format != null ? format : ImportFormat.resolve(file.getContentType(), file.getOriginalFilename());
+        try (InputStream input = file.getInputStream()) {
+            ImportReportDto report = staffService.importStaff(input, importFormat);
+            return ResponseEntity.ok(report);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(null);
         }
     }
 
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, ImportFormat.NDJSON_VALUE, ImportFormat.CSV_VALUE})
+    @Operation(summary = "Import staff from request body",
+            description = "Streams a JSON array, NDJSON or CSV request body of staff records, chosen by Content-Type. Returns a per-row import report.")
+    public ResponseEntity<ImportReportDto> importStaffStream(HttpServletRequest request) throws IOException {
+        ImportFormat importFormat = ImportFormat.resolve(request.getContentType(), null);
+        ImportReportDto report = staffService.importStaff(request.getInputStream(), importFormat);
+        return ResponseEntity.ok(report);
+    }
+
 }
@@ -5,11 +5,18 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.example.aiodataservice.application.constants.ImportFormat;
+import org.example.aiodataservice.application.dtos.CursorPageDto;
+import org.example.aiodataservice.application.dtos.ImportReportDto;
+import org.example.aiodataservice.application.dtos.SearchResultDto;
 import org.example.aiodataservice.application.dtos.staff.CreateStaffDto;
 import org.example.aiodataservice.application.dtos.staff.UpdateStaffDto;
 import org.example.aiodataservice.application.dtos.staffgroup.CreateStaffGroupDto;
+import org.example.aiodataservice.application.dtos.staffgroup.ResolveGroupMembersDto;
+import org.example.aiodataservice.application.dtos.staffgroup.UpdateGroupMembersDto;
 import org.example.aiodataservice.application.dtos.staffgroup.UpdateStaffGroupDto;
 import org.example.aiodataservice.application.services.StaffGroupService;
 import org.example.aiodataservice.application.services.StaffService;
@@ -21,7 +28,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @RestController
@@ -39,6 +49,29 @@ public class StaffGroupController {
         return ResponseEntity.ok(staffGroupService.getStaffGroups(page, size));
     }
 
+    @GetMapping("/cursor")
+    @Operation(summary = "List staff groups by cursor",
+            description = "Returns one page sorted by groupCode and an opaque nextCursor for the following page. Pass pit=true on the first request to page over a consistent point-in-time snapshot.")
+    public ResponseEntity<CursorPageDto<StaffGroup>> findAllByCursor(@RequestParam(required = false) String cursor,
+                                                                     @RequestParam(defaultValue = "100") int size,
+                                                                     @RequestParam(defaultValue = "false") boolean pit)
+    {
+        return ResponseEntity.ok(staffGroupService.getStaffGroupsAfter(cursor, size, pit));
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search staff groups",
+            description = "Matches name prefixes (typeahead) and misspellings, with optional exact groupCode, parentId and member filters. Returns hits with parentId and createdMonth counts.")
+    public ResponseEntity<SearchResultDto<StaffGroup>> search(@RequestParam(required = false) String q,
+                                                              @RequestParam(required = false) String groupCode,
+                                                              @RequestParam(required = false) String parentId,
+                                                              @RequestParam(required = false) String memberId,
+                                                              @RequestParam(defaultValue = "0") int page,
+                                                              @RequestParam(defaultValue = "20") int size)
+    {
+        return ResponseEntity.ok(staffGroupService.searchStaffGroups(q, groupCode, parentId, memberId, page, size));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get staff group by ID")
     public ResponseEntity<StaffGroup> findById(@PathVariable String id) {
@@ -87,6 +120,14 @@ public class StaffGroupController {
         return ResponseEntity.status(HttpStatus.ACCEPTED).body(result);
     }
 
+    @PostMapping("/{id}/members:batch")
+    @Operation(summary = "Add and remove many staff in one call",
+            description = "Validates the staff to add with one multi-get and applies all additions and removals to the group in a single update.")
+    public ResponseEntity<StaffGroup> updateGroupMembers(@PathVariable String id, @Valid @RequestBody UpdateGroupMembersDto request) {
+        var result = staffGroupService.updateGroupMembers(id, request.getAdd(), request.getRemove());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(result);
+    }
+
     @GetMapping("/{id}/members")
     @Operation(summary = "Get members by group ID")
     public ResponseEntity<Set<String>> getGroupMembers(@PathVariable String id) {
@@ -101,25 +142,44 @@ public class StaffGroupController {
         return ResponseEntity.ok(result);
     }
 
+    @PostMapping("/resolve-members")
+    @Operation(summary = "Resolve members of many groups",
+            description = "Resolves the hierarchy-wide members of every requested group in one call. Unknown group IDs are left out of the result.")
+    public ResponseEntity<Map<String, Set<String>>> resolveGroupMembers(@Valid @RequestBody ResolveGroupMembersDto request) {
+        var result = staffGroupService.resolveGroupMembers(request.getGroupIds());
+        return ResponseEntity.ok(result);
+    }
+
     @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @Operation(
-            summary = "Import staff groups from JSON file",
-            description = "Uploads a JSON file containing a list of staff group records (groupCode, name, parentId, childrenIds). Returns created staff groups.",
+            summary = "Import staff groups from file",
+            description = "Uploads a JSON array, NDJSON or CSV file of staff group records (groupCode, name, parentCode, childrenCodes). CSV list columns are separated by ';'. Returns a per-row import report.",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Staff imported successfully"),
                     @ApiResponse(responseCode = "400", description = "Invalid file or JSON format")
             }
     )
-    public ResponseEntity<List<StaffGroup>> importStaffGroup(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<ImportReportDto> importStaffGroup(@RequestParam("file") MultipartFile file,
+                                                       @RequestParam(value = "format", required = false) ImportFormat format) {
         if (file.isEmpty()) {
             return ResponseEntity.badRequest().body(null);
         }
-        try {
-            List<StaffGroup> importedStaffGroup = staffGroupService.importStaffGroups(file.getBytes());
-            return ResponseEntity.ok(importedStaffGroup);
+        ImportFormat importFormat = format != null ? format : ImportFormat.resolve(file.getContentType(), file.getOriginalFilename());
+        try (InputStream input = file.getInputStream()) {
+            ImportReportDto report = staffGroupService.importStaffGroups(input, importFormat);
+            return ResponseEntity.ok(report);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(null);
         }
     }
 
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, ImportFormat.NDJSON_VALUE, ImportFormat.CSV_VALUE})
+    @Operation(summary = "Import staff groups from request body",
+            description = "Streams a JSON array, NDJSON or CSV request body of staff group records, chosen by Content-Type. Returns a per-row import report.")
+    public ResponseEntity<ImportReportDto> importStaffGroupStream(HttpServletRequest request) throws IOException {
+        ImportFormat importFormat = ImportFormat.resolve(request.getContentType(), null);
+        ImportReportDto report = staffGroupService.importStaffGroups(request.getInputStream(), importFormat);
+        return ResponseEntity.ok(report);
+    }
+
 }
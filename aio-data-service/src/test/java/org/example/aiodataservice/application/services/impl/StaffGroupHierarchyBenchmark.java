@@ -0,0 +1,115 @@
+package org.example.aiodataservice.application.services.impl;
+
+import org.example.aiodataservice.application.constants.CacheNameConstant;
+import org.example.aiodataservice.application.dtos.staff.StaffGroupChildDto;
+import org.example.aiodataservice.application.services.StaffGroupService;
+import org.example.aiodataservice.domain.documents.StaffGroup;
+import org.example.aiodataservice.infrastructure.repositories.StaffGroupRepository;
+import org.example.aiodataservice.infrastructure.trees.OrgTreeSnapshotManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.elasticsearch.ElasticsearchContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Uncached resolve of a whole synthetic tree through Elasticsearch (snapshot switched off), one mget per level.
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = "app.warmup.enabled=false")
+class StaffGroupHierarchyBenchmark {
+	// {depth, fan-out}
+	private static final int[][] SHAPES = {{2, 1_000}, {3, 40}, {5, 8}, {8, 3}, {12, 2}};
+	private static final int MEMBERS_PER_GROUP = 5;
+	private static final int ROUNDS = 10;
+
+	@Container
+	static ElasticsearchContainer elasticsearch = new ElasticsearchContainer("docker.elastic.co/elasticsearch/elasticsearch:8.18.1")
+			.withEnv("xpack.security.enabled", "false");
+
+	@Container
+	static GenericContainer<?> redis = new GenericContainer<>("redis:7.2-alpine").withExposedPorts(6379);
+
+	@DynamicPropertySource
+	static void properties(DynamicPropertyRegistry registry) {
+		registry.add("spring.elasticsearch.uris", elasticsearch::getHttpHostAddress);
+		registry.add("spring.data.redis.host", redis::getHost);
+		registry.add("spring.data.redis.port", () -> redis.getMappedPort(6379));
+	}
+
+	@MockitoBean
+	private OrgTreeSnapshotManager orgTreeSnapshotManager;
+
+	@Autowired
+	private StaffGroupRepository staffGroupRepository;
+
+	@Autowired
+	private StaffGroupService staffGroupService;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Test
+	void resolveTreesOfVaryingDepthAndFanOut() {
+		Cache resolved = cacheManager.getCache(CacheNameConstant.RESOLVED_GROUP_MEMBERS_CACHE);
+		System.out.println("hierarchy resolution through Elasticsearch");
+		for (int[] shape : SHAPES) {
+			String root = "d" + shape[0] + "f" + shape[1];
+			List<StaffGroup> groups = new ArrayList<>();
+			addSubtree(root, null, shape[0], shape[1], groups);
+			for (int from = 0; from < groups.size(); from += 5_000) {
+				staffGroupRepository.saveAll(groups.subList(from, Math.min(from + 5_000, groups.size())));
+			}
+
+			long[] elapsed = new long[ROUNDS];
+			int members = 0;
+			for (int round = 0; round < ROUNDS; round++) {
+				resolved.clear();
+				long startedAt = System.nanoTime();
+				members = staffGroupService.resolveGroupMembers(root).size();
+				elapsed[round] = System.nanoTime() - startedAt;
+			}
+			assertThat(members).isEqualTo(groups.size() * MEMBERS_PER_GROUP);
+			Arrays.sort(elapsed);
+			System.out.printf("  depth %2d fan-out %4d: %5d groups, %6d members, %2d mget levels, median %.1f ms%n",
+					shape[0], shape[1], groups.size(), members, shape[0], elapsed[ROUNDS / 2] / 1e6);
+		}
+	}
+
+	private static void addSubtree(String id, String parentId, int levels, int fanOut, List<StaffGroup> groups) {
+		List<StaffGroupChildDto> children = new ArrayList<>();
+		if (levels > 1) {
+			for (int i = 0; i < fanOut; i++) {
+				String childId = id + "." + i;
+				children.add(StaffGroupChildDto.builder().id(childId).groupCode(childId).name(childId).parentId(id).build());
+				addSubtree(childId, id, levels - 1, fanOut, groups);
+			}
+		}
+		Set<String> memberIds = new HashSet<>();
+		for (int m = 0; m < MEMBERS_PER_GROUP; m++) {
+			memberIds.add(id + "#" + m);
+		}
+		groups.add(StaffGroup.builder()
+				.id(id)
+				.groupCode(id)
+				.name(id)
+				.parentId(parentId)
+				.children(children)
+				.memberIds(memberIds)
+				.createdAt(LocalDate.now())
+				.updatedAt(LocalDate.now())
+				.build());
+	}
+}
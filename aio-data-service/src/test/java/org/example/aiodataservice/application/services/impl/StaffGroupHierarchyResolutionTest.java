@@ -0,0 +1,157 @@
+package org.example.aiodataservice.application.services.impl;
+
+import org.example.aiodataservice.application.dtos.staff.StaffGroupChildDto;
+import org.example.aiodataservice.application.exceptions.ResourceNotFoundException;
+import org.example.aiodataservice.domain.documents.StaffGroup;
+import org.example.aiodataservice.infrastructure.repositories.GroupMembershipStore;
+import org.example.aiodataservice.infrastructure.repositories.StaffGroupRepository;
+import org.example.aiodataservice.infrastructure.trees.OrgTreeSnapshotManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.cache.CacheManager;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+// Elasticsearch path of the resolver, taken when the org-tree snapshot cannot answer.
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class StaffGroupHierarchyResolutionTest {
+	@Mock
+	private StaffGroupRepository staffGroupRepository;
+
+	@Mock
+	private GroupMembershipStore membershipStore;
+
+	@Mock
+	private OrgTreeSnapshotManager orgTreeSnapshotManager;
+
+	@Mock
+	private CacheManager cacheManager;
+
+	@InjectMocks
+	private StaffGroupServiceImpl staffGroupService;
+
+	private final Map<String, StaffGroup> stored = new HashMap<>();
+
+	@BeforeEach
+	void answerFromStoredGroups() {
+		when(orgTreeSnapshotManager.resolveMembers(anyString())).thenReturn(null);
+		when(staffGroupRepository.findAllById(any())).thenAnswer(invocation -> {
+			List<StaffGroup> found = new ArrayList<>();
+			for (String id : invocation.<Iterable<String>>getArgument(0)) {
+				if (stored.containsKey(id)) {
+					found.add(stored.get(id));
+				}
+			}
+			return found;
+		});
+		when(membershipStore.findMembersByGroup(anyCollection())).thenAnswer(invocation -> {
+			Map<String, Set<String>> members = new HashMap<>();
+			for (StaffGroup group : invocation.<Collection<StaffGroup>>getArgument(0)) {
+				members.put(group.getId(), group.getMemberIds());
+			}
+			return members;
+		});
+	}
+
+	@Test
+	void fetchesEachTreeLevelWithOneLookup() {
+		int depth = 4;
+		int fanOut = 3;
+		Set<String> expected = new HashSet<>();
+		buildTree("g", depth, fanOut, expected);
+
+		Set<String> members = staffGroupService.resolveGroupMembers("g");
+
+		assertThat(members).isEqualTo(expected);
+		verify(staffGroupRepository, times(depth)).findAllById(any());
+		verify(staffGroupRepository, never()).findById(anyString());
+	}
+
+	@Test
+	void stopsOnCycles() {
+		store("a", List.of("b"), "staff-a");
+		store("b", List.of("c"), "staff-b");
+		store("c", List.of("a"), "staff-c");
+
+		assertThat(staffGroupService.resolveGroupMembers("a")).containsExactlyInAnyOrder("staff-a", "staff-b", "staff-c");
+		verify(staffGroupRepository, times(3)).findAllById(any());
+	}
+
+	@Test
+	void skipsChildrenThatNoLongerExist() {
+		store("root", List.of("gone", "kept"), "staff-root");
+		store("kept", List.of(), "staff-kept");
+
+		assertThat(staffGroupService.resolveGroupMembers("root")).containsExactlyInAnyOrder("staff-root", "staff-kept");
+	}
+
+	@Test
+	void bulkResolutionSharesLevelsAcrossRoots() {
+		store("root", List.of("left", "right"), "staff-root");
+		store("left", List.of("leaf"), "staff-left");
+		store("right", List.of(), "staff-right");
+		store("leaf", List.of(), "staff-leaf");
+
+		Map<String, Set<String>> resolved = staffGroupService.resolveGroupMembers(Set.of("left", "right"));
+
+		assertThat(resolved.get("left")).containsExactlyInAnyOrder("staff-left", "staff-leaf");
+		assertThat(resolved.get("right")).containsExactly("staff-right");
+		verify(staffGroupRepository, times(2)).findAllById(any());
+	}
+
+	@Test
+	void bulkResolutionLeavesOutUnknownGroups() {
+		store("root", List.of("gone"), "staff-root");
+
+		Map<String, Set<String>> resolved = staffGroupService.resolveGroupMembers(Set.of("root", "missing"));
+
+		assertThat(resolved).containsOnlyKeys("root");
+		assertThat(resolved.get("root")).containsExactly("staff-root");
+	}
+
+	@Test
+	void unknownGroupIsNotFound() {
+		assertThatThrownBy(() -> staffGroupService.resolveGroupMembers("missing"))
+				.isInstanceOf(ResourceNotFoundException.class);
+	}
+
+	private void buildTree(String id, int levels, int fanOut, Set<String> members) {
+		List<String> children = new ArrayList<>();
+		if (levels > 1) {
+			for (int i = 0; i < fanOut; i++) {
+				children.add(id + "." + i);
+				buildTree(id + "." + i, levels - 1, fanOut, members);
+			}
+		}
+		store(id, children, "staff-" + id);
+		members.add("staff-" + id);
+	}
+
+	private void store(String id, List<String> childIds, String memberId) {
+		List<StaffGroupChildDto> children = new ArrayList<>();
+		for (String childId : childIds) {
+			children.add(StaffGroupChildDto.builder().id(childId).groupCode(childId).name(childId).parentId(id).build());
+		}
+		stored.put(id, StaffGroup.builder()
+				.id(id)
+				.groupCode(id)
+				.name(id)
+				.children(children)
+				.memberIds(new HashSet<>(Set.of(memberId)))
+				.build());
+	}
+}
@@ -0,0 +1,89 @@
+package org.example.aiodataservice.application.services.impl;
+
+import org.example.aiodataservice.application.constants.ImportFormat;
+import org.example.aiodataservice.application.dtos.ImportReportDto;
+import org.example.aiodataservice.application.services.StaffGroupService;
+import org.example.aiodataservice.infrastructure.repositories.StaffGroupRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.elasticsearch.ElasticsearchContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 50k-row NDJSON import of a fan-out 10 tree: a fresh import, then a re-import that moves every group to a new parent.
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = "app.warmup.enabled=false")
+class StaffGroupImportBenchmark {
+	private static final int GROUPS = 50_000;
+	private static final int FAN_OUT = 10;
+	private static final int ROUNDS = 3;
+
+	@Container
+	static ElasticsearchContainer elasticsearch = new ElasticsearchContainer("docker.elastic.co/elasticsearch/elasticsearch:8.18.1")
+			.withEnv("xpack.security.enabled", "false");
+
+	@Container
+	static GenericContainer<?> redis = new GenericContainer<>("redis:7.2-alpine").withExposedPorts(6379);
+
+	@DynamicPropertySource
+	static void properties(DynamicPropertyRegistry registry) {
+		registry.add("spring.elasticsearch.uris", elasticsearch::getHttpHostAddress);
+		registry.add("spring.data.redis.host", redis::getHost);
+		registry.add("spring.data.redis.port", () -> redis.getMappedPort(6379));
+	}
+
+	@Autowired
+	private StaffGroupService staffGroupService;
+
+	@Autowired
+	private StaffGroupRepository staffGroupRepository;
+
+	@Test
+	void importFiftyThousandGroups() {
+		long[] created = new long[ROUNDS];
+		long[] moved = new long[ROUNDS];
+		for (int round = 0; round < ROUNDS; round++) {
+			String prefix = "r" + round + "-";
+			long startedAt = System.nanoTime();
+			ImportReportDto report = staffGroupService.importStaffGroups(ndjson(prefix, 0), ImportFormat.NDJSON);
+			created[round] = System.nanoTime() - startedAt;
+			assertThat(report.getCreated()).isEqualTo(GROUPS);
+
+			startedAt = System.nanoTime();
+			staffGroupService.importStaffGroups(ndjson(prefix, 1), ImportFormat.NDJSON);
+			moved[round] = System.nanoTime() - startedAt;
+			assertThat(staffGroupRepository.findByGroupCode(prefix + (GROUPS - 1)).orElseThrow().getParentId())
+					.isEqualTo(staffGroupRepository.findByGroupCode(prefix + ((GROUPS - 1) / FAN_OUT - 1)).orElseThrow().getId());
+		}
+		Arrays.sort(created);
+		Arrays.sort(moved);
+		System.out.printf("staff group import, %d rows: create median %.2f s, reparent all median %.2f s%n",
+				GROUPS, created[ROUNDS / 2] / 1e9, moved[ROUNDS / 2] / 1e9);
+	}
+
+	// row i hangs under (i - 1) / FAN_OUT; shift moves every non-root group one parent to the left
+	private static ByteArrayInputStream ndjson(String prefix, int shift) {
+		StringBuilder body = new StringBuilder(GROUPS * 64);
+		for (int i = 0; i < GROUPS; i++) {
+			String parentCode = null;
+			if (i > 0) {
+				int parent = (i - 1) / FAN_OUT;
+				parentCode = prefix + (parent >= shift && parent - shift != i ? parent - shift : parent);
+			}
+			body.append(StaffGroupImportTest.row(prefix + i, parentCode)).append('\n');
+		}
+		return new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,230 @@
+package org.example.aiodataservice.application.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.aiodataservice.application.constants.ImportFormat;
+import org.example.aiodataservice.application.dtos.ImportReportDto;
+import org.example.aiodataservice.application.dtos.ImportRowResultDto;
+import org.example.aiodataservice.application.dtos.ImportRowResultDto.ImportRowStatus;
+import org.example.aiodataservice.application.dtos.staff.StaffGroupChildDto;
+import org.example.aiodataservice.application.exceptions.ResourceNotFoundException;
+import org.example.aiodataservice.domain.documents.StaffGroup;
+import org.example.aiodataservice.infrastructure.caches.GroupCacheInvalidator;
+import org.example.aiodataservice.infrastructure.configs.AppImportProperties;
+import org.example.aiodataservice.infrastructure.imports.ImportRecordReader;
+import org.example.aiodataservice.infrastructure.repositories.ElasticsearchBulkWriter;
+import org.example.aiodataservice.infrastructure.repositories.StaffGroupHierarchyWriter;
+import org.example.aiodataservice.infrastructure.repositories.StaffGroupRepository;
+import org.example.aiodataservice.infrastructure.trees.OrgTreeSnapshotManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class StaffGroupImportTest {
+	@Mock
+	private StaffGroupRepository staffGroupRepository;
+
+	@Mock
+	private ElasticsearchBulkWriter bulkWriter;
+
+	@Mock
+	private ElasticsearchBulkWriter.Session<StaffGroup> session;
+
+	@Mock
+	private GroupCacheInvalidator groupCacheInvalidator;
+
+	@Mock
+	private OrgTreeSnapshotManager orgTreeSnapshotManager;
+
+	@Spy
+	private ImportRecordReader importRecordReader = new ImportRecordReader(new ObjectMapper());
+
+	@Spy
+	private AppImportProperties importProperties = new AppImportProperties();
+
+	@InjectMocks
+	private StaffGroupServiceImpl staffGroupService;
+
+	private final Map<String, StaffGroup> existing = new HashMap<>();
+	private final List<StaffGroup> written = new ArrayList<>();
+	private final Set<String> rejected = new HashSet<>();
+	private final Map<Integer, String> failures = new HashMap<>();
+
+	@BeforeEach
+	void fakeElasticsearch() {
+		when(staffGroupRepository.findAllByGroupCodeIn(anyCollection())).thenAnswer(invocation -> {
+			List<StaffGroup> found = new ArrayList<>();
+			for (String code : invocation.<Collection<String>>getArgument(0)) {
+				if (existing.containsKey(code)) {
+					found.add(existing.get(code));
+				}
+			}
+			return found;
+		});
+		when(staffGroupRepository.findAllById(any())).thenAnswer(invocation -> {
+			List<StaffGroup> found = new ArrayList<>();
+			for (String id : invocation.<Iterable<String>>getArgument(0)) {
+				existing.values().stream().filter(group -> group.getId().equals(id)).forEach(found::add);
+			}
+			return found;
+		});
+		when(bulkWriter.open(StaffGroup.class)).thenReturn(session);
+		doAnswer(invocation -> write(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)))
+				.when(session).index(anyString(), any(), anyInt());
+		doAnswer(invocation -> write(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(3)))
+				.when(session).update(anyString(), any(), anySet(), anyInt());
+		when(session.failures()).thenReturn(failures);
+	}
+
+	@Test
+	void buildsANewHierarchyWritingEachGroupOnce() {
+		ImportReportDto report = importRows(
+				row("root", null), row("a", "root"), row("b", "root"), row("c", "a"));
+
+		assertThat(report.getCreated()).isEqualTo(4);
+		assertThat(report.getRows()).extracting(ImportRowResultDto::getCode).containsExactly("root", "a", "b", "c");
+		assertThat(written).extracting(StaffGroup::getGroupCode).containsExactlyInAnyOrder("root", "a", "b", "c");
+		assertThat(childCodes(byCode("root"))).containsExactly("a", "b");
+		assertThat(childCodes(byCode("a"))).containsExactly("c");
+		assertThat(byCode("c").getParentId()).isEqualTo(byCode("a").getId());
+		verify(staffGroupRepository, times(1)).findAllByGroupCodeIn(anyCollection());
+		verify(bulkWriter, times(1)).open(StaffGroup.class);
+		verify(staffGroupRepository, never()).findByGroupCode(anyString());
+	}
+
+	@Test
+	void attachesNewGroupsToAnExistingParentFetchedOnce() {
+		StaffGroup headquarters = existingGroup("hq", null);
+
+		importRows(row("x", "hq"), row("y", "hq"));
+
+		assertThat(written.stream().filter(group -> group.getGroupCode().equals("hq")).count()).isEqualTo(1);
+		assertThat(childCodes(headquarters)).containsExactly("x", "y");
+		verify(session).update(eq("id-hq"), eq(headquarters), eq(StaffGroupHierarchyWriter.MEMBERSHIP_FIELDS), anyInt());
+		verify(session, never()).index(eq("id-hq"), any(), anyInt());
+		verify(staffGroupRepository, times(2)).findAllByGroupCodeIn(anyCollection());
+		verify(groupCacheInvalidator).evictGroups(List.of(headquarters));
+	}
+
+	@Test
+	void movesAnExistingGroupToItsNewParent() {
+		StaffGroup oldParent = existingGroup("old", null);
+		StaffGroup newParent = existingGroup("new", null);
+		StaffGroup moved = existingGroup("moved", oldParent);
+		existingGroup("untouched", null);
+
+		ImportReportDto report = importRows(row("moved", "new"), row("untouched", null));
+
+		assertThat(report.getRows()).extracting(ImportRowResultDto::getStatus)
+				.containsExactly(ImportRowStatus.UPDATED, ImportRowStatus.SKIPPED);
+		assertThat(childCodes(oldParent)).isEmpty();
+		assertThat(childCodes(newParent)).containsExactly("moved");
+		assertThat(moved.getParentId()).isEqualTo(newParent.getId());
+		assertThat(written).containsExactlyInAnyOrder(oldParent, newParent, moved);
+	}
+
+	@Test
+	void failsWhenAParentIsUnknown() {
+		assertThatThrownBy(() -> importRows(row("orphan", "nowhere")))
+				.isInstanceOf(ResourceNotFoundException.class);
+		verify(bulkWriter, never()).open(StaffGroup.class);
+	}
+
+	@Test
+	void reportsBlankAndDuplicateCodesPerRow() {
+		ImportReportDto report = importRows(row("a", null), "{\"name\":\"no code\"}", row("a", null));
+
+		assertThat(report.getRows()).extracting(ImportRowResultDto::getStatus)
+				.containsExactly(ImportRowStatus.CREATED, ImportRowStatus.FAILED, ImportRowStatus.FAILED);
+		assertThat(report.getRows().get(2).getMessage()).contains("row 0");
+		assertThat(written).hasSize(1);
+	}
+
+	@Test
+	void aRejectedParentFailsTheRowsThatDependOnItAndKeepsTheRestConsistent() {
+		StaffGroup headquarters = existingGroup("hq", null);
+		rejected.add(headquarters.getId());
+
+		ImportReportDto report = importRows(row("x", "hq"), row("y", null));
+
+		assertThat(report.getRows()).extracting(ImportRowResultDto::getStatus)
+				.containsExactly(ImportRowStatus.FAILED, ImportRowStatus.CREATED);
+		assertThat(report.getRows().get(0).getMessage()).isEqualTo("rejected");
+		assertThat(report.getFailed()).isEqualTo(1);
+		verify(orgTreeSnapshotManager).onGroupsChanged(List.of(byCode("x").getId(), byCode("y").getId()));
+		verify(groupCacheInvalidator, never()).evictGroups(any());
+	}
+
+	@Test
+	void groupsWrittenBeforeAFailureAreStillEvicted() {
+		StaffGroup headquarters = existingGroup("hq", null);
+		StaffGroup branch = existingGroup("branch", null);
+		rejected.add("x");
+
+		ImportReportDto report = importRows(row("x", "hq"), row("branch", "hq"));
+
+		assertThat(report.getRows()).extracting(ImportRowResultDto::getStatus)
+				.containsExactly(ImportRowStatus.FAILED, ImportRowStatus.UPDATED);
+		verify(orgTreeSnapshotManager).onGroupsChanged(List.of());
+		verify(groupCacheInvalidator).evictGroups(argThat(groups -> groups.size() == 2
+				&& groups.containsAll(List.of(branch, headquarters))));
+	}
+
+	static String row(String code, String parentCode) {
+		return parentCode == null
+				? "{\"groupCode\":\"" + code + "\",\"name\":\"" + code + "\"}"
+				: "{\"groupCode\":\"" + code + "\",\"name\":\"" + code + "\",\"parentCode\":\"" + parentCode + "\"}";
+	}
+
+	private boolean write(String id, StaffGroup group, int row) {
+		if (rejected.contains(id) || rejected.contains(group.getGroupCode())) {
+			failures.put(row, "rejected");
+		}
+		return written.add(group);
+	}
+
+	private ImportReportDto importRows(String... rows) {
+		byte[] body = String.join("\n", rows).getBytes(StandardCharsets.UTF_8);
+		return staffGroupService.importStaffGroups(new ByteArrayInputStream(body), ImportFormat.NDJSON);
+	}
+
+	private StaffGroup existingGroup(String code, StaffGroup parent) {
+		StaffGroup group = StaffGroup.builder()
+				.id("id-" + code)
+				.groupCode(code)
+				.name(code)
+				.parentId(parent != null ? parent.getId() : null)
+				.children(new ArrayList<>())
+				.memberIds(new HashSet<>())
+				.build();
+		if (parent != null) {
+			parent.getChildren().add(StaffGroupChildDto.builder().id(group.getId()).groupCode(code).name(code).parentId(parent.getId()).build());
+		}
+		existing.put(code, group);
+		return group;
+	}
+
+	private StaffGroup byCode(String code) {
+		return written.stream().filter(group -> group.getGroupCode().equals(code)).findFirst().orElseThrow();
+	}
+
+	private static List<String> childCodes(StaffGroup group) {
+		return group.getChildren().stream().map(StaffGroupChildDto::getGroupCode).toList();
+	}
+}
@@ -0,0 +1,77 @@
+package org.example.aiodataservice.application.services.impl;
+
+import org.example.aiodataservice.application.exceptions.ResourceNotFoundException;
+import org.example.aiodataservice.domain.documents.Staff;
+import org.example.aiodataservice.domain.documents.StaffGroup;
+import org.example.aiodataservice.infrastructure.repositories.GroupMembershipStore;
+import org.example.aiodataservice.infrastructure.repositories.StaffRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class StaffGroupMembersUpdateTest {
+	@Mock
+	private StaffRepository staffRepository;
+
+	@Mock
+	private GroupMembershipStore membershipStore;
+
+	@InjectMocks
+	private StaffGroupServiceImpl staffGroupService;
+
+	private final Set<String> storedStaff = new HashSet<>(Set.of("s1", "s2"));
+
+	@BeforeEach
+	void answerFromStoredStaff() {
+		when(staffRepository.findAllById(any())).thenAnswer(invocation -> {
+			List<Staff> found = new ArrayList<>();
+			for (String id : invocation.<Iterable<String>>getArgument(0)) {
+				if (storedStaff.contains(id)) {
+					found.add(Staff.builder().id(id).staffCode(id).build());
+				}
+			}
+			return found;
+		});
+		when(membershipStore.apply(anyString(), anyMap())).thenReturn(StaffGroup.builder().id("g1").build());
+	}
+
+	@Test
+	void rejectsUnknownStaffIdsWithoutTouchingTheGroup() {
+		assertThatThrownBy(() -> staffGroupService.updateGroupMembers("g1", Set.of("s1", "ghost"), Set.of("s2")))
+				.isInstanceOf(ResourceNotFoundException.class)
+				.hasMessageContaining("ghost")
+				.hasMessageNotContaining("s1");
+		verify(membershipStore, never()).apply(anyString(), anyMap());
+	}
+
+	@Test
+	void appliesAddsAndRemovesOfKnownStaffInOneChange() {
+		staffGroupService.updateGroupMembers("g1", Set.of("s1", "s2"), Set.of("s3"));
+
+		verify(staffRepository, times(1)).findAllById(any());
+		verify(membershipStore).apply("g1", Map.of("s1", true, "s2", true, "s3", false));
+	}
+
+	@Test
+	void removalsAreNotLookedUp() {
+		// staff deleted since they joined must still be removable
+		staffGroupService.updateGroupMembers("g1", Set.of(), Set.of("deleted"));
+
+		verify(staffRepository, never()).findAllById(any());
+		verify(membershipStore).apply("g1", Map.of("deleted", false));
+	}
+}
@@ -0,0 +1,159 @@
+package org.example.aiodataservice.application.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.example.aiodataservice.application.constants.ImportFormat;
+import org.example.aiodataservice.application.dtos.ImportReportDto;
+import org.example.aiodataservice.application.dtos.ImportRowResultDto;
+import org.example.aiodataservice.application.dtos.ImportRowResultDto.ImportRowStatus;
+import org.example.aiodataservice.domain.documents.Staff;
+import org.example.aiodataservice.infrastructure.configs.AppImportProperties;
+import org.example.aiodataservice.infrastructure.imports.ImportRecordReader;
+import org.example.aiodataservice.infrastructure.repositories.ElasticsearchBulkWriter;
+import org.example.aiodataservice.infrastructure.repositories.StaffRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class StaffImportTest {
+	@Mock
+	private StaffRepository staffRepository;
+
+	@Mock
+	private ElasticsearchBulkWriter bulkWriter;
+
+	@Mock
+	private ElasticsearchBulkWriter.Session<Staff> session;
+
+	@Spy
+	private ImportRecordReader importRecordReader = new ImportRecordReader(new ObjectMapper());
+
+	@Spy
+	private AppImportProperties importProperties = new AppImportProperties();
+
+	@Spy
+	private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+	@InjectMocks
+	private StaffServiceImpl staffService;
+
+	private final Map<String, Staff> existing = new HashMap<>();
+	private final List<Staff> written = new ArrayList<>();
+	private final Set<String> rejected = new HashSet<>();
+	private final Map<Integer, String> failures = new HashMap<>();
+
+	@BeforeEach
+	void fakeElasticsearch() {
+		// small chunks so duplicates and lookups span chunk boundaries
+		importProperties.setChunkSize(2);
+		when(staffRepository.findAllByStaffCodeIn(anyCollection())).thenAnswer(invocation -> {
+			List<Staff> found = new ArrayList<>();
+			for (String code : invocation.<Collection<String>>getArgument(0)) {
+				if (existing.containsKey(code)) {
+					found.add(existing.get(code));
+				}
+			}
+			return found;
+		});
+		when(bulkWriter.open(Staff.class)).thenReturn(session);
+		doAnswer(invocation -> {
+			Staff staff = invocation.getArgument(1);
+			if (rejected.contains(staff.getStaffCode())) {
+				failures.put(invocation.getArgument(2), "rejected");
+			}
+			return written.add(staff);
+		}).when(session).index(anyString(), any(), anyInt());
+		when(session.failures()).thenReturn(failures);
+	}
+
+	@Test
+	void reportCountsEveryOutcome() {
+		existingStaff("S002");
+		rejected.add("S005");
+
+		ImportReportDto report = importRows(
+				row("S001"),
+				row("S002"),
+				row("S001"),
+				"{\"staffCode\":\"S004\",\"name\":\"no email\"}",
+				row("S005"),
+				row("S006"));
+
+		assertThat(report.getRows()).extracting(ImportRowResultDto::getStatus).containsExactly(
+				ImportRowStatus.CREATED,
+				ImportRowStatus.SKIPPED,
+				ImportRowStatus.FAILED,
+				ImportRowStatus.FAILED,
+				ImportRowStatus.FAILED,
+				ImportRowStatus.CREATED);
+		assertThat(report.getTotalRows()).isEqualTo(6);
+		assertThat(report.getCreated()).isEqualTo(2);
+		assertThat(report.getSkipped()).isEqualTo(1);
+		assertThat(report.getFailed()).isEqualTo(3);
+		assertThat(report.getRows()).extracting(ImportRowResultDto::getMessage).containsExactly(
+				null,
+				"Staff Code already exists",
+				"Duplicate staffCode in file, first seen at row 0",
+				"Email is required",
+				"rejected",
+				null);
+		assertThat(report.getRows().get(1).getId()).isEqualTo("id-S002");
+		assertThat(written).extracting(Staff::getStaffCode).containsExactly("S001", "S005", "S006");
+		// the second chunk holds only the duplicate and the invalid row, so it never reaches Elasticsearch
+		verify(staffRepository, times(2)).findAllByStaffCodeIn(anyCollection());
+		verify(bulkWriter, times(1)).open(Staff.class);
+		verify(session).close();
+	}
+
+	@Test
+	void chunkOfOnlyInvalidRowsSkipsTheLookup() {
+		ImportReportDto report = importRows("{\"name\":\"no code\",\"email\":\"a@example.org\"}", "{\"staffCode\":\"S001\"}");
+
+		assertThat(report.getFailed()).isEqualTo(2);
+		assertThat(report.getRows().get(1).getMessage()).isEqualTo("Email is required; Name is required");
+		verify(staffRepository, never()).findAllByStaffCodeIn(anyCollection());
+		verify(session, never()).index(anyString(), any(), anyInt());
+	}
+
+	@Test
+	void unreadableRecordKeepsTheRowsBeforeItAndEndsTheReport() {
+		ImportReportDto report = importRows(row("S001"), row("S002"), row("S003"), "{not json");
+
+		assertThat(report.getRows()).extracting(ImportRowResultDto::getStatus).containsExactly(
+				ImportRowStatus.CREATED, ImportRowStatus.CREATED, ImportRowStatus.CREATED, ImportRowStatus.FAILED);
+		assertThat(report.getRows().get(3).getMessage()).startsWith("Failed to parse staff import file");
+		assertThat(report.getCreated()).isEqualTo(3);
+		assertThat(report.getFailed()).isEqualTo(1);
+		verify(session).close();
+	}
+
+	static String row(String code) {
+		return "{\"staffCode\":\"" + code + "\",\"name\":\"" + code + "\",\"email\":\"" + code.toLowerCase() + "@example.org\"}";
+	}
+
+	private ImportReportDto importRows(String... rows) {
+		byte[] body = String.join("\n", rows).getBytes(StandardCharsets.UTF_8);
+		return staffService.importStaff(new ByteArrayInputStream(body), ImportFormat.NDJSON);
+	}
+
+	private void existingStaff(String code) {
+		existing.put(code, Staff.builder().id("id-" + code).staffCode(code).name(code).build());
+	}
+}
@@ -0,0 +1,159 @@
+package org.example.aiodataservice.infrastructure.caches;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.aiodataservice.infrastructure.configs.AppCacheProperties;
+import org.example.aiodataservice.infrastructure.configs.AppLockProperties;
+import org.example.aiodataservice.infrastructure.configs.CacheConfig;
+import org.example.aiodataservice.infrastructure.locks.DistributedLockManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+// two replicas sharing one Redis: an update on one must drop the near-cache entry on the other
+@Testcontainers(disabledWithoutDocker = true)
+class CacheInvalidationTest {
+	@Container
+	static GenericContainer<?> redis = new GenericContainer<>("redis:7.2-alpine").withExposedPorts(6379);
+
+	private final List<Replica> replicas = new ArrayList<>();
+	private TwoLevelCache first;
+	private TwoLevelCache second;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		first = startReplica().cache("staffGroup");
+		second = startReplica().cache("staffGroup");
+		replicas.get(0).redisTemplate.getRequiredConnectionFactory().getConnection().serverCommands().flushAll();
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		for (Replica replica : replicas) {
+			replica.stop();
+		}
+	}
+
+	@Test
+	void putOnOneReplicaReplacesTheLocalCopyOnTheOther() throws Exception {
+		first.put("g1", "v1");
+		assertThat(second.get("g1").get()).isEqualTo("v1");
+
+		first.put("g1", "v2");
+
+		awaitTrue(() -> "v2".equals(valueOf(second, "g1")));
+	}
+
+	@Test
+	void evictOnOneReplicaDropsTheLocalCopyOnTheOther() throws Exception {
+		first.put("g1", "v1");
+		assertThat(second.get("g1").get()).isEqualTo("v1");
+
+		first.evict("g1");
+
+		// Redis no longer has the key, so only the local Caffeine entry could still answer
+		awaitTrue(() -> second.get("g1") == null);
+	}
+
+	@Test
+	void batchEvictionCarriesEveryKey() throws Exception {
+		first.put("g1", "v1");
+		first.put("g2", "v2");
+		first.put("g3", "v3");
+		List.of("g1", "g2", "g3").forEach(key -> assertThat(second.get(key)).isNotNull());
+
+		first.evictAll(List.of("g1", "g2"));
+
+		awaitTrue(() -> second.get("g1") == null && second.get("g2") == null);
+		assertThat(second.get("g3").get()).isEqualTo("v3");
+	}
+
+	@Test
+	void clearOnOneReplicaEmptiesTheOther() throws Exception {
+		first.put("g1", "v1");
+		assertThat(second.get("g1")).isNotNull();
+
+		first.clear();
+
+		awaitTrue(() -> second.get("g1") == null);
+	}
+
+	private Replica startReplica() throws Exception {
+		Replica replica = new Replica();
+		replicas.add(replica);
+		return replica;
+	}
+
+	private static Object valueOf(Cache cache, String key) {
+		Cache.ValueWrapper wrapper = cache.get(key);
+		return wrapper != null ? wrapper.get() : null;
+	}
+
+	private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean()) {
+			assertThat(System.nanoTime()).as("condition not met within 5s").isLessThan(deadline);
+			Thread.sleep(20);
+		}
+	}
+
+	private static class Replica {
+		private final LettuceConnectionFactory connectionFactory;
+		private final RedisTemplate<String, Object> redisTemplate;
+		private final TwoLevelCacheManager cacheManager;
+		private final RedisMessageListenerContainer listenerContainer;
+
+		private Replica() throws Exception {
+			connectionFactory = new LettuceConnectionFactory(redis.getHost(), redis.getMappedPort(6379));
+			connectionFactory.afterPropertiesSet();
+			connectionFactory.start();
+			CacheConfig config = new CacheConfig();
+			ReflectionTestUtils.setField(config, "timeToLive", Duration.ofMinutes(10));
+			AppCacheProperties properties = new AppCacheProperties();
+			redisTemplate = config.redisTemplate(connectionFactory);
+			SingleFlightLoader singleFlightLoader = new SingleFlightLoader(mock(DistributedLockManager.class),
+					new AppLockProperties(), properties, new SimpleMeterRegistry());
+			cacheManager = (TwoLevelCacheManager) config.cacheManager(connectionFactory, new ObjectMapper(), redisTemplate,
+					properties, singleFlightLoader);
+			listenerContainer = config.cacheInvalidationListenerContainer(connectionFactory, cacheManager, properties);
+			listenerContainer.afterPropertiesSet();
+			listenerContainer.start();
+			// subscriptions are set up asynchronously; a message published before then would be lost
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while (!listenerContainer.isListening()) {
+				if (System.nanoTime() > deadline) {
+					throw new IllegalStateException("Listener did not subscribe");
+				}
+				Thread.sleep(20);
+			}
+		}
+
+		private TwoLevelCache cache(String name) {
+			return (TwoLevelCache) cacheManager.getCache(name);
+		}
+
+		private void stop() throws Exception {
+			listenerContainer.stop();
+			listenerContainer.destroy();
+			cacheManager.shutdown();
+			connectionFactory.destroy();
+		}
+	}
+}
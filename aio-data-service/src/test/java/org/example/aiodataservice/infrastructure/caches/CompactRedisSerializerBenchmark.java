@@ -0,0 +1,53 @@
+package org.example.aiodataservice.infrastructure.caches;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.example.aiodataservice.domain.documents.StaffGroup;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.Arrays;
+
+// Payload size and encode/decode time of a cached StaffGroup, JSON (the previous format) against Smile + LZ4.
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CompactRedisSerializerBenchmark {
+	private static final int[] MEMBERS = {10, 1_000, 10_000, 50_000};
+	private static final int ROUNDS = 50;
+
+	private final ObjectMapper jsonMapper = new ObjectMapper()
+			.registerModule(new JavaTimeModule())
+			.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+	@Test
+	void compareWithJson() {
+		RedisSerializer<Object> json = new GenericJackson2JsonRedisSerializer(jsonMapper);
+		RedisSerializer<Object> compact = new CompactRedisSerializer(jsonMapper, 1024);
+		System.out.println("cached StaffGroup payloads");
+		for (int members : MEMBERS) {
+			CacheEnvelope envelope = new CacheEnvelope(CompactRedisSerializerTest.group(members), 0, Long.MAX_VALUE, 0);
+			measure("json", json, envelope, members);
+			measure("smile+lz4", compact, envelope, members);
+		}
+	}
+
+	private static void measure(String label, RedisSerializer<Object> serializer, Object value, int members) {
+		long[] encode = new long[ROUNDS];
+		long[] decode = new long[ROUNDS];
+		byte[] bytes = null;
+		for (int round = 0; round < ROUNDS; round++) {
+			long startedAt = System.nanoTime();
+			bytes = serializer.serialize(value);
+			encode[round] = System.nanoTime() - startedAt;
+			startedAt = System.nanoTime();
+			serializer.deserialize(bytes);
+			decode[round] = System.nanoTime() - startedAt;
+		}
+		Arrays.sort(encode);
+		Arrays.sort(decode);
+		System.out.printf("  %6d members %-10s %9d bytes, encode median %7.3f ms, decode median %7.3f ms%n",
+				members, label, bytes.length, encode[ROUNDS / 2] / 1e6, decode[ROUNDS / 2] / 1e6);
+	}
+}
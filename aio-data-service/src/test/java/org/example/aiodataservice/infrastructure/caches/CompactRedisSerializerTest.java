@@ -0,0 +1,104 @@
+package org.example.aiodataservice.infrastructure.caches;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.example.aiodataservice.application.dtos.staff.StaffGroupChildDto;
+import org.example.aiodataservice.domain.documents.StaffGroup;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactRedisSerializerTest {
+	private static final int THRESHOLD = 1024;
+
+	private final ObjectMapper jsonMapper = new ObjectMapper()
+			.registerModule(new JavaTimeModule())
+			.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+	private final CompactRedisSerializer serializer = new CompactRedisSerializer(jsonMapper, THRESHOLD);
+
+	@Test
+	void smallValuesAreStoredAsPlainSmile() {
+		StaffGroup group = group(3);
+
+		byte[] bytes = serializer.serialize(group);
+
+		assertThat(bytes[0]).isEqualTo((byte) 0x01);
+		assertThat(bytes.length).isLessThan(THRESHOLD + 1);
+		assertThat(serializer.deserialize(bytes)).isEqualTo(group);
+	}
+
+	@Test
+	void largeValuesAreCompressedAndRoundTrip() {
+		StaffGroup group = group(5_000);
+
+		byte[] bytes = serializer.serialize(group);
+
+		assertThat(bytes[0]).isEqualTo((byte) 0x02);
+		assertThat(bytes.length).isLessThan(new GenericJackson2JsonRedisSerializer(jsonMapper).serialize(group).length);
+		assertThat(serializer.deserialize(bytes)).isEqualTo(group);
+	}
+
+	@Test
+	void envelopesKeepTheTypeOfTheirValue() {
+		CacheEnvelope envelope = new CacheEnvelope(group(2_000), 1L, 2L, 3L);
+
+		Object read = serializer.deserialize(serializer.serialize(envelope));
+
+		assertThat(read).isEqualTo(envelope);
+		assertThat(((CacheEnvelope) read).getValue()).isInstanceOf(StaffGroup.class);
+	}
+
+	@Test
+	void zeroThresholdDisablesCompression() {
+		CompactRedisSerializer uncompressed = new CompactRedisSerializer(jsonMapper, 0);
+		StaffGroup group = group(5_000);
+
+		byte[] bytes = uncompressed.serialize(group);
+
+		assertThat(bytes[0]).isEqualTo((byte) 0x01);
+		assertThat(uncompressed.deserialize(bytes)).isEqualTo(group);
+	}
+
+	@Test
+	void readsEntriesWrittenByTheJsonSerializer() {
+		Map<String, Object> legacy = new LinkedHashMap<>();
+		legacy.put("id", "g1");
+		legacy.put("memberIds", List.of("s1", "s2"));
+		byte[] bytes = new GenericJackson2JsonRedisSerializer(jsonMapper).serialize(legacy);
+
+		assertThat(serializer.deserialize(bytes)).isEqualTo(legacy);
+	}
+
+	@Test
+	void nullIsAnEmptyPayload() {
+		assertThat(serializer.serialize(null)).isEmpty();
+		assertThat(serializer.deserialize(new byte[0])).isNull();
+		assertThat(serializer.deserialize(null)).isNull();
+	}
+
+	static StaffGroup group(int members) {
+		Set<String> memberIds = new HashSet<>();
+		for (int i = 0; i < members; i++) {
+			memberIds.add(UUID.nameUUIDFromBytes(("staff-" + i).getBytes()).toString());
+		}
+		List<StaffGroupChildDto> children = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			children.add(StaffGroupChildDto.builder().id("c" + i).groupCode("C" + i).name("Child " + i).parentId("g1")
+					.createdAt(LocalDate.of(2026, 1, 1)).updatedAt(LocalDate.of(2026, 1, 1)).build());
+		}
+		return StaffGroup.builder()
+				.id("g1")
+				.groupCode("G1")
+				.name("Group one")
+				.children(children)
+				.memberIds(memberIds)
+				.createdAt(LocalDate.of(2026, 1, 1))
+				.updatedAt(LocalDate.of(2026, 2, 1))
+				.build();
+	}
+}
@@ -0,0 +1,74 @@
+package org.example.aiodataservice.infrastructure.caches;
+
+import org.example.aiodataservice.infrastructure.configs.AppWarmupProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+class HotGroupTrackerTest {
+	@Container
+	static GenericContainer<?> redis = new GenericContainer<>("redis:7.2-alpine").withExposedPorts(6379);
+
+	private final AppWarmupProperties properties = new AppWarmupProperties();
+	private LettuceConnectionFactory connectionFactory;
+	private StringRedisTemplate redisTemplate;
+
+	@BeforeEach
+	void setUp() {
+		connectionFactory = new LettuceConnectionFactory(redis.getHost(), redis.getMappedPort(6379));
+		connectionFactory.afterPropertiesSet();
+		connectionFactory.start();
+		redisTemplate = new StringRedisTemplate(connectionFactory);
+		redisTemplate.getRequiredConnectionFactory().getConnection().serverCommands().flushAll();
+		properties.setTrackingRetention(Duration.ofDays(7));
+	}
+
+	@AfterEach
+	void tearDown() {
+		connectionFactory.destroy();
+	}
+
+	@Test
+	void ranksGroupsBySummedDailyCounts() {
+		LocalDate today = LocalDate.now(ZoneOffset.UTC);
+		redisTemplate.opsForZSet().add(bucket(today.minusDays(1)), "yesterday-favourite", 5);
+		redisTemplate.opsForZSet().add(bucket(today.minusDays(3)), "steady", 3);
+		HotGroupTracker tracker = new HotGroupTracker(redisTemplate, properties);
+		for (int i = 0; i < 4; i++) {
+			tracker.record("steady");
+		}
+		tracker.record("new");
+		tracker.shutdown();
+
+		assertThat(tracker.top(2)).containsExactly("steady", "yesterday-favourite");
+		assertThat(redisTemplate.getExpire(bucket(today))).isGreaterThan(Duration.ofDays(7).toSeconds());
+	}
+
+	@Test
+	void countsOlderThanTheRetentionWindowNoLongerRank() {
+		LocalDate today = LocalDate.now(ZoneOffset.UTC);
+		redisTemplate.opsForZSet().add(bucket(today.minusDays(7)), "last-quarter", 1_000);
+		redisTemplate.opsForZSet().add(bucket(today), "current", 1);
+		HotGroupTracker tracker = new HotGroupTracker(redisTemplate, properties);
+
+		assertThat(tracker.top(10)).containsExactly("current");
+		assertThat(redisTemplate.keys("*union*")).isEmpty();
+		tracker.shutdown();
+	}
+
+	private String bucket(LocalDate day) {
+		return "{" + properties.getTrackingKey() + "}:" + day;
+	}
+}
@@ -0,0 +1,134 @@
+package org.example.aiodataservice.infrastructure.caches;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.aiodataservice.infrastructure.configs.AppCacheProperties;
+import org.example.aiodataservice.infrastructure.configs.AppLockProperties;
+import org.example.aiodataservice.infrastructure.locks.DistributedLockManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class SingleFlightLoaderTest {
+	private static final int CALLERS = 16;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final DistributedLockManager lockManager = mock(DistributedLockManager.class);
+	private final AppCacheProperties cacheProperties = new AppCacheProperties();
+	private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+	private SingleFlightLoader loader;
+
+	@BeforeEach
+	void setUp() {
+		loader = new SingleFlightLoader(lockManager, new AppLockProperties(), cacheProperties, meterRegistry);
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void concurrentMissesForOneKeyLoadOnce() throws Exception {
+		AtomicInteger calls = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+
+		List<Future<String>> results = loadConcurrently("k", () -> {
+			calls.incrementAndGet();
+			release.await();
+			return "value";
+		});
+		awaitCount("coalesced", CALLERS - 1);
+		release.countDown();
+
+		for (Future<String> result : results) {
+			assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+		}
+		assertThat(calls).hasValue(1);
+		assertThat(count("executed")).isEqualTo(1);
+		assertThat(count("coalesced")).isEqualTo(CALLERS - 1);
+		verifyNoInteractions(lockManager);
+	}
+
+	@Test
+	void aFailedLoadFailsEveryWaiterAndIsNotRemembered() throws Exception {
+		AtomicInteger calls = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+
+		List<Future<String>> results = loadConcurrently("k", () -> {
+			calls.incrementAndGet();
+			release.await();
+			throw new IllegalStateException("backend down");
+		});
+		awaitCount("coalesced", CALLERS - 1);
+		release.countDown();
+
+		for (Future<String> result : results) {
+			assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+					.hasCauseInstanceOf(IllegalStateException.class);
+		}
+		assertThat(calls).hasValue(1);
+		assertThat(loader.load("cache", "k", () -> null, () -> "recovered")).isEqualTo("recovered");
+	}
+
+	@Test
+	void differentKeysDoNotShareAFlight() throws Exception {
+		AtomicInteger calls = new AtomicInteger();
+
+		assertThat(loader.load("cache", "a", () -> null, () -> "a" + calls.incrementAndGet())).isEqualTo("a1");
+		assertThat(loader.load("cache", "b", () -> null, () -> "b" + calls.incrementAndGet())).isEqualTo("b2");
+		assertThat(count("executed")).isEqualTo(2);
+	}
+
+	@Test
+	void distributedLoadRechecksTheCacheAfterWaitingForTheLock() throws Exception {
+		cacheProperties.getSingleFlight().setDistributed(true);
+		AtomicReference<String> cached = new AtomicReference<>();
+		// another replica fills the cache while this one waits for the lock
+		when(lockManager.tryAcquire(anyString(), anyString(), any(), any())).thenAnswer(invocation -> {
+			cached.set("from-other-replica");
+			return Optional.empty();
+		});
+
+		String value = loader.load("cache", "k", cached::get, () -> {
+			throw new AssertionError("loader must not run");
+		});
+
+		assertThat(value).isEqualTo("from-other-replica");
+		assertThat(count("cached")).isEqualTo(1);
+		assertThat(count("executed")).isZero();
+	}
+
+	private List<Future<String>> loadConcurrently(String key, Callable<String> valueLoader) {
+		List<Future<String>> results = new ArrayList<>();
+		for (int i = 0; i < CALLERS; i++) {
+			results.add(executor.submit(() -> loader.load("cache", key, () -> null, valueLoader)));
+		}
+		return results;
+	}
+
+	private void awaitCount(String outcome, long expected) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (count(outcome) < expected && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+	}
+
+	private double count(String outcome) {
+		Counter counter = meterRegistry.find("cache.load").tag("cache", "cache").tag("outcome", outcome).counter();
+		return counter != null ? counter.count() : 0;
+	}
+}
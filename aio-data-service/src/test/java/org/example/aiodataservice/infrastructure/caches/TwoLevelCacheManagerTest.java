@@ -0,0 +1,118 @@
+package org.example.aiodataservice.infrastructure.caches;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.aiodataservice.infrastructure.configs.AppCacheProperties;
+import org.example.aiodataservice.infrastructure.configs.AppLockProperties;
+import org.example.aiodataservice.infrastructure.locks.DistributedLockManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class TwoLevelCacheManagerTest {
+	private static final Duration DEFAULT_TTL = Duration.ofSeconds(30);
+
+	private final MutableClock clock = new MutableClock(Instant.parse("2026-03-01T08:00:00Z"));
+	private final ConcurrentMapCacheManager remoteCacheManager = new ConcurrentMapCacheManager();
+	private final AppCacheProperties properties = new AppCacheProperties();
+	private final CacheInvalidationPublisher publisher = mock(CacheInvalidationPublisher.class);
+	private TwoLevelCacheManager cacheManager;
+
+	@BeforeEach
+	void setUp() {
+		when(publisher.getInstanceId()).thenReturn("me");
+		properties.getTimeToLives().put("short", Duration.ofSeconds(5));
+		properties.setStaleWhileRevalidate(Duration.ofMinutes(1));
+		properties.setEarlyRefreshBeta(0);
+		properties.setRefreshThreads(1);
+		properties.setRefreshQueueSize(1);
+		SingleFlightLoader singleFlightLoader = new SingleFlightLoader(mock(DistributedLockManager.class),
+				new AppLockProperties(), properties, new SimpleMeterRegistry());
+		cacheManager = new TwoLevelCacheManager(remoteCacheManager, properties, DEFAULT_TTL, publisher, null,
+				singleFlightLoader, clock);
+	}
+
+	@AfterEach
+	void tearDown() {
+		cacheManager.shutdown();
+	}
+
+	@Test
+	void envelopesUseThePerCacheTimeToLive() {
+		long now = clock.millis();
+		cache("short").fill("k", "v");
+		cache("other").fill("k", "v");
+
+		assertThat(remoteEnvelope("short", "k").getExpiresAt()).isEqualTo(now + 5_000);
+		assertThat(remoteEnvelope("other", "k").getExpiresAt()).isEqualTo(now + DEFAULT_TTL.toMillis());
+		assertThat(cacheManager.getCache("short")).isSameAs(cacheManager.getCache("short"));
+	}
+
+	@Test
+	void invalidationsFromOtherInstancesDropTheLocalEntry() {
+		TwoLevelCache cache = cache("groups");
+		cache.fill("k1", "v1");
+		cache.fill("k2", "v2");
+		// only the local tier is left, so a hit proves the local entry is still there
+		remoteCacheManager.getCache("groups").clear();
+
+		cacheManager.onInvalidation(new CacheInvalidationMessage("me", "groups", "k1", null));
+		assertThat(cache.get("k1").get()).isEqualTo("v1");
+
+		cacheManager.onInvalidation(new CacheInvalidationMessage("other", "groups", null, List.of("k1")));
+		cacheManager.onInvalidation(new CacheInvalidationMessage("other", "unknown", "k2", null));
+		assertThat(cache.get("k1")).isNull();
+		assertThat(cache.get("k2").get()).isEqualTo("v2");
+
+		cacheManager.onInvalidation(new CacheInvalidationMessage("other", "groups", null, null));
+		assertThat(cache.get("k2")).isNull();
+	}
+
+	@Test
+	void refreshPoolIsBoundedAndServesStaleWhenFull() throws Exception {
+		TwoLevelCache cache = cache("groups");
+		for (String key : List.of("a", "b", "c")) {
+			cache.fill(key, "old");
+		}
+		clock.advance(DEFAULT_TTL.plusSeconds(1));
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch done = new CountDownLatch(2);
+
+		for (String key : List.of("a", "b", "c")) {
+			assertThat(cache.get(key, () -> {
+				loads.incrementAndGet();
+				release.await();
+				done.countDown();
+				return "new";
+			})).isEqualTo("old");
+		}
+		release.countDown();
+
+		assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+		// one refresh running and one queued; the third was rejected and keeps serving the stale value
+		assertThat(loads).hasValue(2);
+		assertThat(cache.get("c", () -> "unused")).isEqualTo("old");
+	}
+
+	private TwoLevelCache cache(String name) {
+		Cache cache = cacheManager.getCache(name);
+		assertThat(cache).isInstanceOf(TwoLevelCache.class);
+		return (TwoLevelCache) cache;
+	}
+
+	private CacheEnvelope remoteEnvelope(String cacheName, String key) {
+		return (CacheEnvelope) remoteCacheManager.getCache(cacheName).get(key).get();
+	}
+}
@@ -0,0 +1,162 @@
+package org.example.aiodataservice.infrastructure.caches;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.aiodataservice.infrastructure.configs.AppCacheProperties;
+import org.example.aiodataservice.infrastructure.configs.AppLockProperties;
+import org.example.aiodataservice.infrastructure.locks.DistributedLockManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class TwoLevelCacheTest {
+	private static final Duration TTL = Duration.ofSeconds(10);
+	private static final Duration STALE_WHILE_REVALIDATE = Duration.ofSeconds(60);
+
+	private final MutableClock clock = new MutableClock(Instant.parse("2026-03-01T08:00:00Z"));
+	private final Cache remote = new ConcurrentMapCache("groups");
+	private final com.github.benmanes.caffeine.cache.Cache<String, Object> local = Caffeine.newBuilder().build();
+	private final CacheInvalidationPublisher publisher = mock(CacheInvalidationPublisher.class);
+	private final SingleFlightLoader singleFlightLoader = new SingleFlightLoader(mock(DistributedLockManager.class),
+			new AppLockProperties(), new AppCacheProperties(), new SimpleMeterRegistry());
+	private final Queue<Runnable> refreshes = new ArrayDeque<>();
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@Test
+	void freshHitIsServedWithoutLoadingOrRefreshing() {
+		TwoLevelCache cache = cache(0, refreshes::add);
+		cache.fill("k", "v1");
+		clock.advance(Duration.ofSeconds(9));
+
+		assertThat(cache.get("k", loader("v2"))).isEqualTo("v1");
+		assertThat(cache.get("k").get()).isEqualTo("v1");
+		assertThat(loads).hasValue(0);
+		assertThat(refreshes).isEmpty();
+	}
+
+	@Test
+	void staleHitServesTheOldValueAndRefreshesOnce() throws Exception {
+		TwoLevelCache cache = cache(0, refreshes::add);
+		cache.fill("k", "v1");
+		clock.advance(Duration.ofSeconds(15));
+
+		assertThat(cache.get("k", loader("v2"))).isEqualTo("v1");
+		assertThat(cache.get("k", loader("v2"))).isEqualTo("v1");
+		assertThat(refreshes).hasSize(1);
+		assertThat(loads).hasValue(0);
+
+		refreshes.poll().run();
+
+		assertThat(loads).hasValue(1);
+		assertThat(cache.get("k", loader("v3"))).isEqualTo("v2");
+		assertThat(refreshes).isEmpty();
+		verify(publisher).publish("groups", "k");
+	}
+
+	@Test
+	void hardExpiryLoadsSynchronously() {
+		TwoLevelCache cache = cache(0, refreshes::add);
+		cache.fill("k", "v1");
+		clock.advance(TTL.plus(STALE_WHILE_REVALIDATE));
+
+		assertThat(cache.get("k", loader("v2"))).isEqualTo("v2");
+		assertThat(loads).hasValue(1);
+		assertThat(refreshes).isEmpty();
+	}
+
+	@Test
+	void legacyValuesWithoutAnEnvelopeAreServedAsFresh() {
+		TwoLevelCache cache = cache(1.0, refreshes::add);
+		remote.put("k", "raw");
+		clock.advance(Duration.ofDays(1));
+
+		assertThat(cache.get("k", loader("v2"))).isEqualTo("raw");
+		assertThat(cache.get("k").get()).isEqualTo("raw");
+		assertThat(loads).hasValue(0);
+		assertThat(refreshes).isEmpty();
+	}
+
+	@Test
+	void envelopesCarryTheLoadTimeAndTimeToLive() {
+		TwoLevelCache cache = cache(0, refreshes::add);
+		long loadedAt = clock.millis();
+		cache.fill("k", "v1");
+
+		CacheEnvelope envelope = (CacheEnvelope) remote.get("k").get();
+		assertThat(envelope.getLoadedAt()).isEqualTo(loadedAt);
+		assertThat(envelope.getExpiresAt()).isEqualTo(loadedAt + TTL.toMillis());
+		assertThat(local.getIfPresent("k")).isEqualTo(envelope);
+
+		// a plain get does not hand out stale values, only the loading get does
+		clock.advance(TTL);
+		assertThat(cache.get("k")).isNull();
+	}
+
+	@Test
+	void slowEntriesCloseToExpiryRefreshEarly() {
+		long now = clock.millis();
+		remote.put("slow", new CacheEnvelope("v1", now - 9_000, now + 1, 1_000));
+		remote.put("fast", new CacheEnvelope("v1", now, now + Duration.ofMinutes(10).toMillis(), 1));
+
+		TwoLevelCache cache = cache(1_000, refreshes::add);
+
+		assertThat(cache.get("fast", loader("v2"))).isEqualTo("v1");
+		assertThat(refreshes).isEmpty();
+		assertThat(cache.get("slow", loader("v2"))).isEqualTo("v1");
+		assertThat(refreshes).hasSize(1);
+	}
+
+	@Test
+	void earlyRefreshIsOffWithoutBeta() {
+		long now = clock.millis();
+		remote.put("slow", new CacheEnvelope("v1", now - 9_000, now + 1, 1_000));
+
+		assertThat(cache(0, refreshes::add).get("slow", loader("v2"))).isEqualTo("v1");
+		assertThat(refreshes).isEmpty();
+	}
+
+	@Test
+	void rejectedRefreshServesStaleAndRetriesOnTheNextHit() {
+		AtomicBoolean accepting = new AtomicBoolean(false);
+		TwoLevelCache cache = cache(0, task -> {
+			if (!accepting.get()) {
+				throw new RejectedExecutionException("queue full");
+			}
+			refreshes.add(task);
+		});
+		cache.fill("k", "v1");
+		clock.advance(Duration.ofSeconds(15));
+
+		assertThat(cache.get("k", loader("v2"))).isEqualTo("v1");
+		assertThat(refreshes).isEmpty();
+
+		accepting.set(true);
+		assertThat(cache.get("k", loader("v2"))).isEqualTo("v1");
+		assertThat(refreshes).hasSize(1);
+	}
+
+	private TwoLevelCache cache(double earlyRefreshBeta, Executor refreshExecutor) {
+		return new TwoLevelCache("groups", local, remote, null, publisher, singleFlightLoader, TTL, STALE_WHILE_REVALIDATE,
+				earlyRefreshBeta, refreshExecutor, clock);
+	}
+
+	private Callable<String> loader(String value) {
+		return () -> {
+			loads.incrementAndGet();
+			return value;
+		};
+	}
+}
@@ -0,0 +1,91 @@
+package org.example.aiodataservice.infrastructure.imports;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.aiodataservice.application.constants.ImportFormat;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImportRecordReaderTest {
+
+	private final ImportRecordReader reader = new ImportRecordReader(new ObjectMapper());
+
+	@Test
+	void splitsRecordsIntoChunksAndFlushesTheTail() throws IOException {
+		List<List<Map>> chunks = new ArrayList<>();
+
+		reader.readChunks(input("{\"c\":\"1\"}\n{\"c\":\"2\"}\n{\"c\":\"3\"}\n{\"c\":\"4\"}\n{\"c\":\"5\"}"),
+				ImportFormat.NDJSON, Map.class, 2, chunks::add);
+
+		assertThat(chunks).extracting(List::size).containsExactly(2, 2, 1);
+	}
+
+	@Test
+	void readsCsvWithHeader() throws IOException {
+		List<List<Map>> chunks = new ArrayList<>();
+
+		reader.readChunks(input("c,name\n1,a\n2,b\n3,c\n"), ImportFormat.CSV, Map.class, 2, chunks::add);
+
+		assertThat(chunks).extracting(List::size).containsExactly(2, 1);
+		assertThat(chunks.get(1).get(0)).containsEntry("c", "3").containsEntry("name", "c");
+	}
+
+	@Test
+	void failingConsumerIsNotCalledAgainWithTheSameChunk() {
+		List<List<Map>> delivered = new ArrayList<>();
+
+		assertThatThrownBy(() -> reader.readChunks(input("[{\"c\":\"1\"},{\"c\":\"2\"},{\"c\":\"3\"}]"),
+				ImportFormat.JSON, Map.class, 2, chunk -> {
+					delivered.add(chunk);
+					throw new IllegalStateException("bulk failed");
+				}))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessage("bulk failed");
+
+		assertThat(delivered).hasSize(1);
+	}
+
+	@Test
+	void failingConsumerOnTheTailIsCalledOnce() {
+		List<List<Map>> delivered = new ArrayList<>();
+
+		assertThatThrownBy(() -> reader.readChunks(input("{\"c\":\"1\"}"), ImportFormat.NDJSON, Map.class, 2,
+				chunk -> {
+					delivered.add(chunk);
+					throw new IllegalStateException("bulk failed");
+				}))
+				.isInstanceOf(IllegalStateException.class);
+
+		assertThat(delivered).hasSize(1);
+	}
+
+	@Test
+	void deliversRowsParsedBeforeAMalformedRecordOnce() {
+		List<Map> rows = new ArrayList<>();
+		List<Integer> sizes = new ArrayList<>();
+
+		assertThatThrownBy(() -> reader.readChunks(
+				input("{\"c\":\"1\"}\n{\"c\":\"2\"}\n{\"c\":\"3\"}\n{\"c\": oops}\n{\"c\":\"5\"}"),
+				ImportFormat.NDJSON, Map.class, 2, chunk -> {
+					sizes.add(chunk.size());
+					rows.addAll(chunk);
+				}))
+				.isInstanceOf(IOException.class);
+
+		assertThat(sizes).containsExactly(2, 1);
+		assertThat(rows).extracting(row -> row.get("c")).containsExactly("1", "2", "3");
+	}
+
+	private static InputStream input(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,188 @@
+package org.example.aiodataservice.infrastructure.indices;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.Refresh;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.example.aiodataservice.application.dtos.ReindexJobDto;
+import org.example.aiodataservice.application.dtos.ReindexJobDto.ReindexStatus;
+import org.example.aiodataservice.application.exceptions.LockAcquisitionException;
+import org.example.aiodataservice.domain.documents.Staff;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.elasticsearch.ElasticsearchContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {
+		"app.warmup.enabled=false",
+		"app.reindex.slices=2",
+		"app.reindex.batch-size=25",
+		"app.reindex.max-docs-per-second=200",
+		"app.reindex.max-catch-up-rounds=5",
+		"app.reindex.final-delta-threshold=0"
+})
+class IndexReindexerTest {
+	@Container
+	static ElasticsearchContainer elasticsearch = new ElasticsearchContainer("docker.elastic.co/elasticsearch/elasticsearch:8.18.1")
+			.withEnv("xpack.security.enabled", "false");
+
+	@Container
+	static GenericContainer<?> redis = new GenericContainer<>("redis:7.2-alpine").withExposedPorts(6379);
+
+	@DynamicPropertySource
+	static void properties(DynamicPropertyRegistry registry) {
+		registry.add("spring.elasticsearch.uris", elasticsearch::getHttpHostAddress);
+		registry.add("spring.data.redis.host", redis::getHost);
+		registry.add("spring.data.redis.port", () -> redis.getMappedPort(6379));
+	}
+
+	@Autowired
+	private IndexReindexer indexReindexer;
+
+	@Autowired
+	private IndexAliasManager aliasManager;
+
+	@Autowired
+	private ElasticsearchClient elasticsearchClient;
+
+	@Test
+	void mirrorsWritesAndDeletesMadeDuringTheReindexAndSwitchesTheAlias() throws Exception {
+		String alias = aliasManager.aliasFor(Staff.class);
+		Map<String, String> expected = new ConcurrentHashMap<>();
+		seed(alias, 600, expected);
+		String sourceIndex = aliasManager.currentIndex(alias).orElseThrow();
+
+		AtomicBoolean running = new AtomicBoolean(true);
+		ExecutorService writer = Executors.newSingleThreadExecutor();
+		Future<?> writes = writer.submit(() -> {
+			mutate(alias, expected, running);
+			return null;
+		});
+		try {
+			ReindexJobDto job = indexReindexer.start(Staff.class);
+			assertThatThrownBy(() -> indexReindexer.start(Staff.class)).isInstanceOf(LockAcquisitionException.class);
+
+			ReindexJobDto finished = await(job.getJobId());
+			running.set(false);
+			writes.get(30, TimeUnit.SECONDS);
+
+			assertThat(finished.getStatus()).as(finished.getMessage()).isEqualTo(ReindexStatus.COMPLETED);
+			assertThat(finished.getSourceIndex()).isEqualTo(sourceIndex);
+			assertThat(finished.getCopiedDocuments()).isGreaterThanOrEqualTo(600);
+			assertThat(aliasManager.currentIndex(alias)).contains(finished.getTargetIndex());
+		} finally {
+			running.set(false);
+			writer.shutdownNow();
+		}
+
+		elasticsearchClient.indices().refresh(r -> r.index(alias));
+		assertThat(documents(alias)).isEqualTo(expected);
+		// the write block is lifted once the alias has moved
+		elasticsearchClient.index(i -> i.index(sourceIndex).id("after").document(Map.of("name", "after")));
+	}
+
+	@Test
+	void removesDocumentsDeletedBeforeTheFinalDelta() throws Exception {
+		String alias = aliasManager.aliasFor(Staff.class);
+		Map<String, String> expected = new ConcurrentHashMap<>(documents(alias));
+		seed(alias, 50, expected);
+		List<String> deleted = new ArrayList<>(expected.keySet()).subList(0, 10);
+
+		ReindexJobDto job = indexReindexer.start(Staff.class);
+		for (String id : deleted) {
+			elasticsearchClient.delete(d -> d.index(alias).id(id).refresh(Refresh.True));
+			expected.remove(id);
+		}
+		ReindexJobDto finished = await(job.getJobId());
+
+		assertThat(finished.getStatus()).as(finished.getMessage()).isEqualTo(ReindexStatus.COMPLETED);
+		elasticsearchClient.indices().refresh(r -> r.index(alias));
+		assertThat(documents(alias)).isEqualTo(expected);
+	}
+
+	private void seed(String alias, int count, Map<String, String> expected) throws IOException {
+		String prefix = "seed-" + System.nanoTime() + "-";
+		List<BulkOperation> operations = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			String id = prefix + i;
+			String name = "Staff " + i;
+			operations.add(BulkOperation.of(op -> op.index(idx -> idx.index(alias).id(id).document(Map.of("name", name)))));
+			expected.put(id, name);
+		}
+		elasticsearchClient.bulk(b -> b.operations(operations).refresh(Refresh.True));
+	}
+
+	private void mutate(String alias, Map<String, String> expected, AtomicBoolean running) throws Exception {
+		Random random = new Random(7);
+		int step = 0;
+		while (running.get()) {
+			List<String> ids = new ArrayList<>(expected.keySet());
+			String id = switch (step % 3) {
+				case 0 -> "live-" + step;
+				default -> ids.get(random.nextInt(ids.size()));
+			};
+			String name = "v" + step;
+			boolean delete = step % 3 == 2;
+			while (running.get()) {
+				try {
+					if (delete) {
+						elasticsearchClient.delete(d -> d.index(alias).id(id));
+						expected.remove(id);
+					} else {
+						elasticsearchClient.index(i -> i.index(alias).id(id).document(Map.of("name", name)));
+						expected.put(id, name);
+					}
+					break;
+				} catch (ElasticsearchException e) {
+					if (!"cluster_block_exception".equals(e.error().type())) {
+						throw e;
+					}
+					// the source is write-blocked for the final delta; retry until the alias points at the target
+					Thread.sleep(5);
+				}
+			}
+			step++;
+			Thread.sleep(2);
+		}
+	}
+
+	private ReindexJobDto await(String jobId) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+		ReindexJobDto job = indexReindexer.status(jobId);
+		while (job.getStatus() == ReindexStatus.RUNNING && System.nanoTime() < deadline) {
+			Thread.sleep(100);
+			job = indexReindexer.status(jobId);
+		}
+		return job;
+	}
+
+	private Map<String, String> documents(String alias) throws IOException {
+		Map<String, String> documents = new HashMap<>();
+		elasticsearchClient.search(s -> s.index(alias).size(10_000), ObjectNode.class).hits().hits()
+				.forEach(hit -> documents.put(hit.id(), hit.source().get("name").asText()));
+		return documents;
+	}
+}
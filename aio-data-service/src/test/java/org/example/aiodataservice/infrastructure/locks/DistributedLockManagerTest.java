@@ -0,0 +1,135 @@
+package org.example.aiodataservice.infrastructure.locks;
+
+import io.lettuce.core.cluster.SlotHash;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.aiodataservice.application.exceptions.LockAcquisitionException;
+import org.example.aiodataservice.infrastructure.configs.AppLockProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Testcontainers(disabledWithoutDocker = true)
+class DistributedLockManagerTest {
+	@Container
+	static GenericContainer<?> redis = new GenericContainer<>("redis:7.2-alpine").withExposedPorts(6379);
+
+	private final AppLockProperties properties = new AppLockProperties();
+	private LettuceConnectionFactory connectionFactory;
+	private StringRedisTemplate redisTemplate;
+	private DistributedLockManager lockManager;
+
+	@BeforeEach
+	void setUp() {
+		connectionFactory = new LettuceConnectionFactory(redis.getHost(), redis.getMappedPort(6379));
+		connectionFactory.afterPropertiesSet();
+		connectionFactory.start();
+		redisTemplate = new StringRedisTemplate(connectionFactory);
+		redisTemplate.getRequiredConnectionFactory().getConnection().serverCommands().flushAll();
+		properties.setMaxWait(Duration.ofMillis(100));
+		lockManager = new DistributedLockManager(redisTemplate, properties, new SimpleMeterRegistry());
+	}
+
+	@AfterEach
+	void tearDown() {
+		lockManager.shutdown();
+		connectionFactory.destroy();
+	}
+
+	@Test
+	void fencingTokensIncreasePerResourceAndShareTheLockSlot() {
+		long first;
+		try (DistributedLock lock = lockManager.acquire("group", "g1")) {
+			first = lock.getFencingToken();
+			assertThat(SlotHash.getSlot(lock.getKey())).isEqualTo(SlotHash.getSlot(lock.getKey() + ":fencing-token"));
+		}
+		try (DistributedLock lock = lockManager.acquire("group", "g1")) {
+			assertThat(lock.getFencingToken()).isEqualTo(first + 1);
+		}
+		// tokens start from the Redis clock, above anything the old global counter handed out
+		assertThat(first).isGreaterThan(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1));
+		assertThat(redisTemplate.hasKey("lock:fencing-token")).isFalse();
+	}
+
+	@Test
+	void aHeldLockIsNotAcquiredTwice() {
+		try (DistributedLock ignored = lockManager.acquire("group", "g1")) {
+			assertThatThrownBy(() -> lockManager.acquire("group", "g1")).isInstanceOf(LockAcquisitionException.class);
+			assertThat(lockManager.tryAcquire("group", "g2", properties.getLease(), Duration.ZERO)).isPresent()
+					.get().satisfies(DistributedLock::close);
+		}
+	}
+
+	@Test
+	void releaseOnlyDeletesTheOwnersKey() {
+		DistributedLock lock = lockManager.acquire("group", "g1");
+		// the lease ran out and another process took the lock over
+		redisTemplate.opsForValue().set(lock.getKey(), "someone-else");
+
+		lock.close();
+
+		assertThat(redisTemplate.opsForValue().get(lock.getKey())).isEqualTo("someone-else");
+	}
+
+	@Test
+	void watchdogRenewsTheLeaseWhileHeld() throws Exception {
+		Duration lease = Duration.ofMillis(300);
+		DistributedLock lock = lockManager.tryAcquire("group", "g1", lease, Duration.ZERO).orElseThrow();
+
+		Thread.sleep(lease.multipliedBy(3).toMillis());
+
+		assertThat(lock.isHeld()).isTrue();
+		assertThat(redisTemplate.getExpire(lock.getKey(), TimeUnit.MILLISECONDS)).isPositive();
+		lock.close();
+		assertThat(redisTemplate.hasKey(lock.getKey())).isFalse();
+	}
+
+	@Test
+	void failedRenewalMarksTheLockLost() throws Exception {
+		Duration lease = Duration.ofMillis(300);
+		DistributedLock lock = lockManager.tryAcquire("group", "g1", lease, Duration.ZERO).orElseThrow();
+		redisTemplate.opsForValue().set(lock.getKey(), "someone-else");
+
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+		while (lock.isHeld() && System.nanoTime() < deadline) {
+			Thread.sleep(20);
+		}
+
+		assertThat(lock.isHeld()).isFalse();
+		lock.close();
+		assertThat(redisTemplate.opsForValue().get(lock.getKey())).isEqualTo("someone-else");
+	}
+
+	@Test
+	void waitsWithBackoffUntilTheHolderReleases() throws Exception {
+		properties.setMaxWait(Duration.ofSeconds(2));
+		DistributedLock holder = lockManager.acquire("group", "g1");
+		Thread releaser = new Thread(() -> {
+			try {
+				Thread.sleep(200);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			holder.close();
+		});
+		releaser.start();
+
+		Optional<DistributedLock> next = lockManager.tryAcquire("group", "g1", properties.getLease(), properties.getMaxWait());
+
+		assertThat(next).isPresent();
+		assertThat(next.get().getFencingToken()).isGreaterThan(holder.getFencingToken());
+		next.get().close();
+		releaser.join();
+	}
+}
@@ -0,0 +1,85 @@
+package org.example.aiodataservice.infrastructure.repositories;
+
+import org.example.aiodataservice.domain.documents.Staff;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.elasticsearch.ElasticsearchContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+// Typeahead latency over 100k staff: prefixes of growing length, plus a misspelt full name that takes the fuzzy clause.
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = "app.warmup.enabled=false")
+class DirectorySearchBenchmark {
+	private static final int STAFF = 100_000;
+	private static final String[] FIRST = {"Alice", "Alina", "Bao", "Binh", "Chau", "Dung", "Hanh", "Khoa", "Linh", "Minh"};
+	private static final String[] LAST = {"Nguyen", "Tran", "Le", "Pham", "Hoang", "Vu", "Dang", "Bui", "Do", "Ngo"};
+	private static final String[] QUERIES = {"a", "al", "ali", "alin", "alina tr", "Alcie Nguyen"};
+	private static final int ROUNDS = 200;
+
+	@Container
+	static ElasticsearchContainer elasticsearch = new ElasticsearchContainer("docker.elastic.co/elasticsearch/elasticsearch:8.18.1")
+			.withEnv("xpack.security.enabled", "false");
+
+	@Container
+	static GenericContainer<?> redis = new GenericContainer<>("redis:7.2-alpine").withExposedPorts(6379);
+
+	@DynamicPropertySource
+	static void properties(DynamicPropertyRegistry registry) {
+		registry.add("spring.elasticsearch.uris", elasticsearch::getHttpHostAddress);
+		registry.add("spring.data.redis.host", redis::getHost);
+		registry.add("spring.data.redis.port", () -> redis.getMappedPort(6379));
+	}
+
+	@Autowired
+	private DirectorySearchRepository directorySearchRepository;
+
+	@Autowired
+	private StaffRepository staffRepository;
+
+	@Autowired
+	private ElasticsearchOperations elasticsearchOperations;
+
+	@Test
+	void typeaheadLatency() {
+		Random random = new Random(42);
+		List<Staff> batch = new ArrayList<>();
+		for (int i = 0; i < STAFF; i++) {
+			String name = FIRST[random.nextInt(FIRST.length)] + " " + LAST[random.nextInt(LAST.length)] + " " + i;
+			batch.add(DirectorySearchRepositoryTest.staff("s" + i, String.format("S%06d", i), name, "s" + i + "@example.org",
+					LocalDate.of(2026, 1 + i % 12, 1)));
+			if (batch.size() == 5_000) {
+				staffRepository.saveAll(batch);
+				batch.clear();
+			}
+		}
+		elasticsearchOperations.indexOps(Staff.class).refresh();
+
+		System.out.printf("typeahead over %d staff%n", STAFF);
+		for (String query : QUERIES) {
+			long[] elapsed = new long[ROUNDS];
+			long total = 0;
+			for (int round = 0; round < ROUNDS; round++) {
+				long startedAt = System.nanoTime();
+				total = directorySearchRepository.searchStaff(query, null, null, null, 0, 10).getTotal();
+				elapsed[round] = System.nanoTime() - startedAt;
+			}
+			Arrays.sort(elapsed);
+			System.out.printf("  %-14s %6d hits, median %.2f ms, p95 %.2f ms%n",
+					"\"" + query + "\"", total, elapsed[ROUNDS / 2] / 1e6, elapsed[ROUNDS * 95 / 100] / 1e6);
+		}
+	}
+}
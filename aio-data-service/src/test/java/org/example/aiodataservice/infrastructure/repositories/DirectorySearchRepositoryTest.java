@@ -0,0 +1,154 @@
+package org.example.aiodataservice.infrastructure.repositories;
+
+import org.example.aiodataservice.application.dtos.SearchResultDto;
+import org.example.aiodataservice.application.exceptions.InvalidSearchRequestException;
+import org.example.aiodataservice.domain.documents.Staff;
+import org.example.aiodataservice.domain.documents.StaffGroup;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.elasticsearch.ElasticsearchContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = "app.warmup.enabled=false")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DirectorySearchRepositoryTest {
+	@Container
+	static ElasticsearchContainer elasticsearch = new ElasticsearchContainer("docker.elastic.co/elasticsearch/elasticsearch:8.18.1")
+			.withEnv("xpack.security.enabled", "false");
+
+	@Container
+	static GenericContainer<?> redis = new GenericContainer<>("redis:7.2-alpine").withExposedPorts(6379);
+
+	@DynamicPropertySource
+	static void properties(DynamicPropertyRegistry registry) {
+		registry.add("spring.elasticsearch.uris", elasticsearch::getHttpHostAddress);
+		registry.add("spring.data.redis.host", redis::getHost);
+		registry.add("spring.data.redis.port", () -> redis.getMappedPort(6379));
+	}
+
+	@Autowired
+	private DirectorySearchRepository directorySearchRepository;
+
+	@Autowired
+	private StaffRepository staffRepository;
+
+	@Autowired
+	private StaffGroupRepository staffGroupRepository;
+
+	@Autowired
+	private ElasticsearchOperations elasticsearchOperations;
+
+	@BeforeAll
+	void seed() {
+		staffRepository.saveAll(List.of(
+				staff("s1", "S001", "Alice Nguyen", "alice@example.org", LocalDate.of(2026, 1, 5)),
+				staff("s2", "S002", "Alina Tran", "alina@example.org", LocalDate.of(2026, 1, 20)),
+				staff("s3", "S003", "Bob Pham", "bob@example.org", LocalDate.of(2026, 2, 3))));
+		staffGroupRepository.saveAll(List.of(
+				group("g1", "SALES", "Sales", null, LocalDate.of(2026, 1, 1)),
+				group("g2", "SALES-N", "Sales North", "g1", LocalDate.of(2026, 2, 1)),
+				group("g3", "SALES-S", "Sales South", "g1", LocalDate.of(2026, 2, 1))));
+		elasticsearchOperations.indexOps(Staff.class).refresh();
+		elasticsearchOperations.indexOps(StaffGroup.class).refresh();
+	}
+
+	@Test
+	void typeaheadMatchesNamePrefixes() {
+		SearchResultDto<Staff> result = directorySearchRepository.searchStaff("ali", null, null, null, 0, 10);
+
+		assertThat(result.getItems()).extracting(Staff::getStaffCode).containsExactlyInAnyOrder("S001", "S002");
+		assertThat(result.getTotal()).isEqualTo(2);
+	}
+
+	@Test
+	void toleratesMisspellings() {
+		SearchResultDto<Staff> result = directorySearchRepository.searchStaff("Alcie", null, null, null, 0, 10);
+
+		assertThat(result.getItems()).extracting(Staff::getStaffCode).contains("S001");
+	}
+
+	@Test
+	void filtersNarrowResultsAndFacets() {
+		SearchResultDto<Staff> byEmail = directorySearchRepository.searchStaff(null, null, "bob@example.org", null, 0, 10);
+		SearchResultDto<Staff> byMembership = directorySearchRepository.searchStaff(null, null, null, List.of("s1", "s3"), 0, 10);
+
+		assertThat(byEmail.getItems()).extracting(Staff::getStaffCode).containsExactly("S003");
+		assertThat(byEmail.getFacets().get("createdMonth")).isEqualTo(Map.of("2026-02", 1L));
+		assertThat(byMembership.getItems()).extracting(Staff::getStaffCode).containsExactly("S001", "S003");
+		assertThat(byMembership.getFacets().get("createdMonth")).containsEntry("2026-01", 1L).containsEntry("2026-02", 1L);
+	}
+
+	@Test
+	void groupSearchCountsChildrenPerParent() {
+		SearchResultDto<StaffGroup> result = directorySearchRepository.searchGroups("sales", null, null, null, 0, 10);
+		SearchResultDto<StaffGroup> children = directorySearchRepository.searchGroups(null, null, "g1", null, 0, 10);
+
+		assertThat(result.getTotal()).isEqualTo(3);
+		assertThat(result.getFacets().get("parentId")).isEqualTo(Map.of("g1", 2L));
+		assertThat(children.getItems()).extracting(StaffGroup::getGroupCode).containsExactly("SALES-N", "SALES-S");
+	}
+
+	@Test
+	void rejectsPagesBeyondTheResultWindow() {
+		assertThatThrownBy(() -> directorySearchRepository.searchStaff("ali", null, null, null, 0, DirectorySearchRepository.MAX_PAGE_SIZE + 1))
+				.isInstanceOf(InvalidSearchRequestException.class);
+		assertThatThrownBy(() -> directorySearchRepository.searchStaff("ali", null, null, null, 100, 100))
+				.isInstanceOf(InvalidSearchRequestException.class);
+	}
+
+	@Test
+	void rejectsMembershipFiltersLargerThanTheCap() {
+		List<String> staffIds = new ArrayList<>();
+		for (int i = 0; i <= DirectorySearchRepository.MAX_FILTER_IDS; i++) {
+			staffIds.add("s" + i);
+		}
+
+		assertThatThrownBy(() -> directorySearchRepository.searchStaff(null, null, null, staffIds, 0, 10))
+				.isInstanceOf(InvalidSearchRequestException.class)
+				.hasMessageContaining(String.valueOf(DirectorySearchRepository.MAX_FILTER_IDS));
+		assertThat(directorySearchRepository.searchStaff(null, null, null, staffIds.subList(0, DirectorySearchRepository.MAX_FILTER_IDS), 0, 10)
+				.getItems()).extracting(Staff::getStaffCode).contains("S001", "S002", "S003");
+	}
+
+	static Staff staff(String id, String staffCode, String name, String email, LocalDate createdAt) {
+		return Staff.builder()
+				.id(id)
+				.staffCode(staffCode)
+				.name(name)
+				.email(email)
+				.createdAt(createdAt)
+				.updatedAt(createdAt)
+				.build();
+	}
+
+	private static StaffGroup group(String id, String groupCode, String name, String parentId, LocalDate createdAt) {
+		return StaffGroup.builder()
+				.id(id)
+				.groupCode(groupCode)
+				.name(name)
+				.parentId(parentId)
+				.children(new ArrayList<>())
+				.memberIds(new HashSet<>())
+				.createdAt(createdAt)
+				.updatedAt(createdAt)
+				.build();
+	}
+}
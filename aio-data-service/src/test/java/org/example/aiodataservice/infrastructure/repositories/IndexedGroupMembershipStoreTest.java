@@ -0,0 +1,131 @@
+package org.example.aiodataservice.infrastructure.repositories;
+
+import org.example.aiodataservice.application.exceptions.ResourceNotFoundException;
+import org.example.aiodataservice.domain.documents.StaffGroup;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.elasticsearch.ElasticsearchContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {
+		"app.warmup.enabled=false",
+		"app.membership.model=index",
+		"app.import.chunk-size=2"
+})
+class IndexedGroupMembershipStoreTest {
+	@Container
+	static ElasticsearchContainer elasticsearch = new ElasticsearchContainer("docker.elastic.co/elasticsearch/elasticsearch:8.18.1")
+			.withEnv("xpack.security.enabled", "false");
+
+	@Container
+	static GenericContainer<?> redis = new GenericContainer<>("redis:7.2-alpine").withExposedPorts(6379);
+
+	@DynamicPropertySource
+	static void properties(DynamicPropertyRegistry registry) {
+		registry.add("spring.elasticsearch.uris", elasticsearch::getHttpHostAddress);
+		registry.add("spring.data.redis.host", redis::getHost);
+		registry.add("spring.data.redis.port", () -> redis.getMappedPort(6379));
+	}
+
+	@Autowired
+	private GroupMembershipStore membershipStore;
+
+	@Autowired
+	private StaffGroupRepository staffGroupRepository;
+
+	@Test
+	void usesTheEdgeIndex() {
+		assertThat(membershipStore).isInstanceOf(IndexedGroupMembershipStore.class);
+	}
+
+	@Test
+	void appliesAdditionsAndRemovals() {
+		StaffGroup group = saveGroup("apply");
+
+		membershipStore.apply(group.getId(), Map.of("s1", true, "s2", true, "s3", true));
+		membershipStore.apply(group.getId(), Map.of("s2", false, "s4", true));
+
+		assertThat(membershipStore.findMembersByGroup(List.of(group)))
+				.containsEntry(group.getId(), Set.of("s1", "s3", "s4"));
+		assertThat(membershipStore.findGroupIds("s2")).doesNotContain(group.getId());
+		assertThat(membershipStore.findGroupIds("s4")).contains(group.getId());
+	}
+
+	@Test
+	void findsMembersAcrossMoreGroupsThanOneTermsChunk() {
+		List<StaffGroup> groups = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			groups.add(saveGroup("chunk" + i));
+		}
+		Map<String, Set<String>> expected = new LinkedHashMap<>();
+		for (int i = 0; i < 4; i++) {
+			String staffId = "chunk-staff-" + i;
+			membershipStore.apply(groups.get(i).getId(), Map.of(staffId, true));
+			expected.put(groups.get(i).getId(), Set.of(staffId));
+		}
+		expected.put(groups.get(4).getId(), Set.of());
+
+		assertThat(membershipStore.findMembersByGroup(groups)).isEqualTo(expected);
+		assertThat(membershipStore.findMembersByGroup(List.of())).isEmpty();
+	}
+
+	@Test
+	void removeStaffDropsEveryEdgeOfThatStaff() {
+		StaffGroup first = saveGroup("remove-staff-a");
+		StaffGroup second = saveGroup("remove-staff-b");
+		membershipStore.apply(first.getId(), Map.of("leaver", true, "stayer", true));
+		membershipStore.apply(second.getId(), Map.of("leaver", true));
+
+		membershipStore.removeStaff("leaver");
+
+		assertThat(membershipStore.findGroupIds("leaver")).isEmpty();
+		assertThat(membershipStore.findMembersByGroup(List.of(first, second)))
+				.containsEntry(first.getId(), Set.of("stayer"))
+				.containsEntry(second.getId(), Set.of());
+	}
+
+	@Test
+	void removeGroupDropsItsEdges() {
+		StaffGroup group = saveGroup("remove-group");
+		membershipStore.apply(group.getId(), Map.of("member", true));
+
+		membershipStore.removeGroup(group.getId());
+
+		assertThat(membershipStore.findGroupIds("member")).doesNotContain(group.getId());
+	}
+
+	@Test
+	void rejectsChangesToUnknownGroups() {
+		assertThatThrownBy(() -> membershipStore.apply("missing", Map.of("s1", true)))
+				.isInstanceOf(ResourceNotFoundException.class);
+	}
+
+	private StaffGroup saveGroup(String id) {
+		return staffGroupRepository.save(StaffGroup.builder()
+				.id(id)
+				.groupCode(id.toUpperCase())
+				.name(id)
+				.children(new ArrayList<>())
+				.memberIds(new HashSet<>())
+				.createdAt(LocalDate.of(2026, 1, 1))
+				.updatedAt(LocalDate.of(2026, 1, 1))
+				.build());
+	}
+}
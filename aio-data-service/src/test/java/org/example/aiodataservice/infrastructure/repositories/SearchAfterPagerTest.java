@@ -0,0 +1,161 @@
+package org.example.aiodataservice.infrastructure.repositories;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.aiodataservice.application.dtos.CursorPageDto;
+import org.example.aiodataservice.application.exceptions.InvalidCursorException;
+import org.example.aiodataservice.domain.documents.Staff;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.ResourceNotFoundException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.Query;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class SearchAfterPagerTest {
+	@Mock
+	private ElasticsearchOperations elasticsearchOperations;
+
+	private SearchAfterPager pager;
+
+	@BeforeEach
+	void setUp() {
+		pager = new SearchAfterPager(elasticsearchOperations, new ObjectMapper());
+		when(elasticsearchOperations.openPointInTime(any(), any())).thenReturn("pit-1");
+	}
+
+	@Test
+	void nextCursorCarriesTheLastSortValuesAndPointInTime() {
+		returnHits(List.of(List.of("alice", 1), List.of("bob", 2), List.of("carol", 3)), "pit-1");
+
+		CursorPageDto<Staff> first = pager.page(Staff.class, "name", null, 2, true);
+
+		assertThat(first.getSize()).isEqualTo(2);
+		assertThat(first.getNextCursor()).isNotNull();
+		SearchAfterPager.CursorState state = decode(first.getNextCursor());
+		assertThat(state.getSearchAfter()).containsExactly("bob", 2);
+		assertThat(state.getPitId()).isEqualTo("pit-1");
+
+		returnHits(List.of(List.of("carol", 3)), "pit-1");
+		CursorPageDto<Staff> second = pager.page(Staff.class, "name", first.getNextCursor(), 2, true);
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		verify(elasticsearchOperations, times(2)).search(query.capture(), eq(Staff.class));
+		assertThat(query.getValue().getSearchAfter()).containsExactly("bob", 2);
+		assertThat(query.getValue().getPointInTime().id()).isEqualTo("pit-1");
+		assertThat(query.getValue().getSort()).isEqualTo(Sort.by("name").and(Sort.by("_shard_doc")));
+		assertThat(second.getNextCursor()).isNull();
+		verify(elasticsearchOperations, times(1)).openPointInTime(any(), any());
+		verify(elasticsearchOperations).closePointInTime("pit-1");
+	}
+
+	@Test
+	void withoutPointInTimeTiesOnEqualCodesAreBrokenByTheId() {
+		returnHits(List.of(List.of("S001", "a"), List.of("S001", "b"), List.of("S002", "c")), null);
+
+		CursorPageDto<Staff> first = pager.page(Staff.class, "staffCode", null, 2, false);
+
+		assertThat(decode(first.getNextCursor()).getSearchAfter()).containsExactly("S001", "b");
+		assertThat(decode(first.getNextCursor()).getPitId()).isNull();
+
+		returnHits(List.of(List.of("S002", "c")), null);
+		// a plain cursor stays a plain cursor even if the caller now asks for a point in time
+		CursorPageDto<Staff> second = pager.page(Staff.class, "staffCode", first.getNextCursor(), 2, true);
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		verify(elasticsearchOperations, times(2)).search(query.capture(), eq(Staff.class));
+		assertThat(query.getAllValues()).allSatisfy(q -> {
+			assertThat(q.getSort()).isEqualTo(Sort.by("staffCode").and(Sort.by("id")));
+			assertThat(q.getPointInTime()).isNull();
+		});
+		assertThat(query.getValue().getSearchAfter()).containsExactly("S001", "b");
+		assertThat(second.getItems()).hasSize(1);
+		assertThat(second.getNextCursor()).isNull();
+		verify(elasticsearchOperations, never()).openPointInTime(any(), any());
+		verify(elasticsearchOperations, never()).closePointInTime(any());
+	}
+
+	@Test
+	void rejectsMalformedCursors() {
+		String noSearchAfter = Base64.getUrlEncoder().withoutPadding()
+				.encodeToString("{\"pitId\":\"pit-1\"}".getBytes(StandardCharsets.UTF_8));
+
+		assertThatThrownBy(() -> pager.page(Staff.class, "name", "not a cursor!", 2, true))
+				.isInstanceOf(InvalidCursorException.class);
+		assertThatThrownBy(() -> pager.page(Staff.class, "name", noSearchAfter, 2, true))
+				.isInstanceOf(InvalidCursorException.class);
+		// cursors from before the id tiebreaker carry a single sort value
+		String codeOnly = Base64.getUrlEncoder().withoutPadding()
+				.encodeToString("{\"searchAfter\":[\"S001\"]}".getBytes(StandardCharsets.UTF_8));
+		assertThatThrownBy(() -> pager.page(Staff.class, "name", codeOnly, 2, false))
+				.isInstanceOf(InvalidCursorException.class);
+		verifyNoInteractions(elasticsearchOperations);
+	}
+
+	@Test
+	void expiredPointInTimeBecomesAnInvalidCursor() {
+		when(elasticsearchOperations.search(any(Query.class), eq(Staff.class)))
+				.thenThrow(new ResourceNotFoundException("No search context found for id [1]"));
+
+		assertThatThrownBy(() -> pager.page(Staff.class, "name", cursor("pit-1"), 2, true))
+				.isInstanceOf(InvalidCursorException.class)
+				.hasMessageContaining("expired");
+	}
+
+	@Test
+	void otherSearchFailuresAreRethrown() {
+		DataAccessResourceFailureException unavailable = new DataAccessResourceFailureException("cluster unavailable");
+		when(elasticsearchOperations.search(any(Query.class), eq(Staff.class))).thenThrow(unavailable);
+
+		assertThatThrownBy(() -> pager.page(Staff.class, "name", cursor("pit-1"), 2, true)).isSameAs(unavailable);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void returnHits(List<List<Object>> sortValues, String pitId) {
+		List<SearchHit<Staff>> hits = new ArrayList<>();
+		for (List<Object> values : sortValues) {
+			SearchHit<Staff> hit = mock(SearchHit.class);
+			when(hit.getContent()).thenReturn(Staff.builder().id(String.valueOf(values.get(1))).build());
+			when(hit.getSortValues()).thenReturn(values);
+			hits.add(hit);
+		}
+		SearchHits<Staff> searchHits = mock(SearchHits.class);
+		when(searchHits.getSearchHits()).thenReturn(hits);
+		when(searchHits.getPointInTimeId()).thenReturn(pitId);
+		when(elasticsearchOperations.search(any(Query.class), eq(Staff.class))).thenReturn(searchHits);
+	}
+
+	private static String cursor(String pitId) throws Exception {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(new ObjectMapper()
+				.writeValueAsBytes(new SearchAfterPager.CursorState(List.of("bob", 2), pitId)));
+	}
+
+	private static SearchAfterPager.CursorState decode(String cursor) {
+		try {
+			return new ObjectMapper().readValue(Base64.getUrlDecoder().decode(cursor), SearchAfterPager.CursorState.class);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package org.example.aiodataservice.infrastructure.repositories;
+
+import org.example.aiodataservice.application.dtos.staff.StaffGroupChildDto;
+import org.example.aiodataservice.domain.documents.StaffGroup;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class StaffGroupHierarchyWriterTest {
+	private static final IndexCoordinates INDEX = IndexCoordinates.of("staff_group");
+
+	private final ElasticsearchOperations elasticsearchOperations = mock(ElasticsearchOperations.class);
+	private final StaffGroupHierarchyWriter writer = new StaffGroupHierarchyWriter(elasticsearchOperations);
+
+	@BeforeEach
+	void setUp() {
+		SimpleElasticsearchMappingContext mappingContext = new SimpleElasticsearchMappingContext();
+		MappingElasticsearchConverter converter = new MappingElasticsearchConverter(mappingContext);
+		converter.afterPropertiesSet();
+		when(elasticsearchOperations.getElasticsearchConverter()).thenReturn(converter);
+		when(elasticsearchOperations.getIndexCoordinatesFor(StaffGroup.class)).thenReturn(INDEX);
+		when(elasticsearchOperations.indexOps(INDEX)).thenReturn(mock(IndexOperations.class));
+	}
+
+	@Test
+	void existingGroupsAreUpdatedWithoutTheirMembers() {
+		StaffGroup parent = group("p", null, Set.of("s1", "s2"));
+		StaffGroup child = group("c", "p", Set.of("s3"));
+		parent.getChildren().add(StaffGroupChildDto.builder().id("c").groupCode("C").parentId("p").build());
+
+		writer.write(List.of(), List.of(parent, child));
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<UpdateQuery>> updates = ArgumentCaptor.forClass(List.class);
+		verify(elasticsearchOperations).bulkUpdate(updates.capture(), eq(INDEX));
+		assertThat(updates.getValue()).extracting(UpdateQuery::getId).containsExactly("p", "c");
+		for (UpdateQuery update : updates.getValue()) {
+			assertThat(update.getDocument()).doesNotContainKey("memberIds").containsKeys("groupCode", "children", "updatedAt");
+		}
+		assertThat(updates.getValue().get(1).getDocument().get("parentId")).isEqualTo("p");
+		verify(elasticsearchOperations, never()).save(anyList(), any(IndexCoordinates.class));
+	}
+
+	@Test
+	void newGroupsAreIndexedInFull() {
+		StaffGroup created = group("n", null, Set.of());
+
+		writer.write(List.of(created), List.of());
+
+		verify(elasticsearchOperations).save(List.of(created), INDEX);
+		verify(elasticsearchOperations, never()).bulkUpdate(anyList(), any(IndexCoordinates.class));
+		verify(elasticsearchOperations.indexOps(INDEX)).refresh();
+	}
+
+	private static StaffGroup group(String id, String parentId, Set<String> memberIds) {
+		return StaffGroup.builder()
+				.id(id)
+				.groupCode(id.toUpperCase())
+				.name(id)
+				.parentId(parentId)
+				.children(new ArrayList<>())
+				.memberIds(memberIds)
+				.createdAt(LocalDate.of(2026, 1, 1))
+				.updatedAt(LocalDate.of(2026, 2, 1))
+				.build();
+	}
+}
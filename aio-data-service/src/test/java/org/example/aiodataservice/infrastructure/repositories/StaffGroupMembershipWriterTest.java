@@ -0,0 +1,136 @@
+package org.example.aiodataservice.infrastructure.repositories;
+
+import org.example.aiodataservice.application.exceptions.LockAcquisitionException;
+import org.example.aiodataservice.domain.documents.StaffGroup;
+import org.example.aiodataservice.infrastructure.caches.GroupCacheInvalidator;
+import org.example.aiodataservice.infrastructure.configs.AppLockProperties;
+import org.example.aiodataservice.infrastructure.configs.AppMembershipProperties;
+import org.example.aiodataservice.infrastructure.locks.DistributedLock;
+import org.example.aiodataservice.infrastructure.locks.DistributedLockManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class StaffGroupMembershipWriterTest {
+	private final ElasticsearchOperations elasticsearchOperations = mock(ElasticsearchOperations.class);
+	private final StaffGroupRepository staffGroupRepository = mock(StaffGroupRepository.class);
+	private final DistributedLockManager lockManager = mock(DistributedLockManager.class);
+	private final GroupCacheInvalidator groupCacheInvalidator = mock(GroupCacheInvalidator.class);
+	private final DistributedLock lock = mock(DistributedLock.class);
+	private final AppMembershipProperties properties = new AppMembershipProperties();
+	private final AppLockProperties lockProperties = new AppLockProperties();
+	private final StaffGroup group = StaffGroup.builder().id("g1").groupCode("G1").memberIds(new HashSet<>()).build();
+	private StaffGroupMembershipWriter writer;
+
+	@BeforeEach
+	void setUp() {
+		properties.setCoalesceWindow(Duration.ofMillis(100));
+		lockProperties.setInitialBackoff(Duration.ofMillis(5));
+		lockProperties.setMaxBackoff(Duration.ofMillis(20));
+		when(elasticsearchOperations.getIndexCoordinatesFor(StaffGroup.class)).thenReturn(IndexCoordinates.of("staff_group"));
+		when(staffGroupRepository.findById("g1")).thenReturn(Optional.of(group));
+		when(lockManager.tryAcquire(eq("staffgroup"), eq("g1"), any(), eq(Duration.ZERO))).thenReturn(Optional.of(lock));
+		writer = new StaffGroupMembershipWriter(elasticsearchOperations, staffGroupRepository, lockManager,
+				groupCacheInvalidator, properties, lockProperties);
+	}
+
+	@AfterEach
+	void tearDown() {
+		writer.shutdown();
+	}
+
+	@Test
+	void coalescesConcurrentChangesIntoOneUpdate() throws Exception {
+		List<CompletableFuture<StaffGroup>> futures = List.of(
+				writer.submit("g1", Map.of("s1", true)),
+				writer.submit("g1", Map.of("s2", true)),
+				writer.submit("g1", Map.of("s3", false)));
+
+		for (CompletableFuture<StaffGroup> future : futures) {
+			assertThat(future.get(5, TimeUnit.SECONDS)).isSameAs(group);
+		}
+		UpdateQuery update = singleUpdate();
+		assertThat(update.getParams().get("add")).isEqualTo(List.of("s1", "s2"));
+		assertThat(update.getParams().get("remove")).isEqualTo(List.of("s3"));
+		verify(lock).close();
+	}
+
+	@Test
+	void theLastChangeForAStaffWins() {
+		writer.submit("g1", Map.of("s1", true));
+		writer.apply("g1", Map.of("s1", false));
+
+		UpdateQuery update = singleUpdate();
+		assertThat(update.getParams().get("add")).isEqualTo(List.of());
+		assertThat(update.getParams().get("remove")).isEqualTo(List.of("s1"));
+	}
+
+	@Test
+	void evictsTheGroupAndOnlyTheChangedStaff() {
+		writer.submit("g1", Map.of("s1", true));
+		writer.apply("g1", Map.of("s2", false));
+
+		verify(groupCacheInvalidator).evictMembershipChange(List.of(group), Set.of("s1", "s2"));
+	}
+
+	@Test
+	void retriesWithBackoffWhileTheGroupIsLocked() {
+		when(lockManager.tryAcquire(eq("staffgroup"), eq("g1"), any(), eq(Duration.ZERO)))
+				.thenReturn(Optional.empty(), Optional.empty(), Optional.of(lock));
+
+		assertThat(writer.apply("g1", Map.of("s1", true))).isSameAs(group);
+
+		verify(lockManager, times(3)).tryAcquire(eq("staffgroup"), eq("g1"), any(), eq(Duration.ZERO));
+		singleUpdate();
+	}
+
+	@Test
+	void changesArrivingWhileLockedJoinTheRetriedBatch() throws Exception {
+		List<CompletableFuture<StaffGroup>> late = new ArrayList<>();
+		when(lockManager.tryAcquire(eq("staffgroup"), eq("g1"), any(), eq(Duration.ZERO))).thenAnswer(invocation -> {
+			if (late.isEmpty()) {
+				late.add(writer.submit("g1", Map.of("s2", true)));
+				return Optional.empty();
+			}
+			return Optional.of(lock);
+		});
+
+		CompletableFuture<StaffGroup> first = writer.submit("g1", Map.of("s1", true));
+
+		assertThat(first.get(5, TimeUnit.SECONDS)).isSameAs(group);
+		assertThat(late.get(0).get(5, TimeUnit.SECONDS)).isSameAs(group);
+		assertThat(singleUpdate().getParams().get("add")).isEqualTo(List.of("s2", "s1"));
+	}
+
+	@Test
+	void failsWaitersOnceTheLockWaitIsExhausted() {
+		lockProperties.setMaxWait(Duration.ofMillis(100));
+		when(lockManager.tryAcquire(eq("staffgroup"), eq("g1"), any(), eq(Duration.ZERO))).thenReturn(Optional.empty());
+
+		assertThatThrownBy(() -> writer.apply("g1", Map.of("s1", true)))
+				.isInstanceOf(LockAcquisitionException.class);
+		verify(elasticsearchOperations, never()).update(any(UpdateQuery.class), any(IndexCoordinates.class));
+		verifyNoInteractions(groupCacheInvalidator);
+	}
+
+	private UpdateQuery singleUpdate() {
+		ArgumentCaptor<UpdateQuery> update = ArgumentCaptor.forClass(UpdateQuery.class);
+		verify(elasticsearchOperations, times(1)).update(update.capture(), eq(IndexCoordinates.of("staff_group")));
+		return update.getValue();
+	}
+}
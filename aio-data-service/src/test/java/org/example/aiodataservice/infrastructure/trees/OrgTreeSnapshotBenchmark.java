@@ -0,0 +1,102 @@
+package org.example.aiodataservice.infrastructure.trees;
+
+import org.example.aiodataservice.infrastructure.trees.OrgTreeSnapshot.Node;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.*;
+
+// In-memory cost of the snapshot for 100k groups, 10 members each, fan-out 10.
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class OrgTreeSnapshotBenchmark {
+	private static final int GROUPS = 100_000;
+	private static final int MEMBERS_PER_GROUP = 10;
+	private static final int FAN_OUT = 10;
+	private static final int ROUNDS = 20;
+
+	static List<Node> generate(int groups) {
+		List<List<String>> children = new ArrayList<>(groups);
+		for (int i = 0; i < groups; i++) {
+			children.add(new ArrayList<>());
+		}
+		for (int i = 1; i < groups; i++) {
+			children.get((i - 1) / FAN_OUT).add("group-" + i);
+		}
+		List<Node> nodes = new ArrayList<>(groups);
+		for (int i = 0; i < groups; i++) {
+			String[] members = new String[MEMBERS_PER_GROUP];
+			for (int m = 0; m < MEMBERS_PER_GROUP; m++) {
+				members[m] = "staff-" + (i * MEMBERS_PER_GROUP + m);
+			}
+			nodes.add(new Node("group-" + i, i == 0 ? null : "group-" + ((i - 1) / FAN_OUT),
+					children.get(i).toArray(String[]::new), members));
+		}
+		return nodes;
+	}
+
+	@Test
+	void buildChangeAndMemory() {
+		long beforeNodes = usedHeap();
+		List<Node> nodes = generate(GROUPS);
+		long nodeBytes = usedHeap() - beforeNodes;
+		OrgTreeSnapshot snapshot = OrgTreeSnapshot.of(1, nodes);
+		long indexBytes = usedHeap() - beforeNodes - nodeBytes;
+
+		long[] build = new long[ROUNDS];
+		for (int round = 0; round < ROUNDS; round++) {
+			long startedAt = System.nanoTime();
+			snapshot = OrgTreeSnapshot.of(round, nodes);
+			build[round] = System.nanoTime() - startedAt;
+		}
+
+		Random random = new Random(42);
+		long[] single = new long[ROUNDS];
+		long[] batch = new long[ROUNDS];
+		for (int round = 0; round < ROUNDS; round++) {
+			Node moved = nodes.get(1 + random.nextInt(GROUPS - 1));
+			Map<String, Node> change = Map.of(moved.id(), new Node(moved.id(), moved.parentId(), moved.childIds(),
+					new String[]{"staff-new-" + round}));
+			long startedAt = System.nanoTime();
+			snapshot = snapshot.withChanges(change, Set.of());
+			single[round] = System.nanoTime() - startedAt;
+
+			Map<String, Node> changes = new HashMap<>();
+			for (int i = 0; i < 100; i++) {
+				Node node = nodes.get(1 + random.nextInt(GROUPS - 1));
+				changes.put(node.id(), new Node(node.id(), node.parentId(), node.childIds(), new String[0]));
+			}
+			startedAt = System.nanoTime();
+			snapshot = snapshot.withChanges(changes, Set.of());
+			batch[round] = System.nanoTime() - startedAt;
+		}
+
+		long[] resolve = new long[ROUNDS];
+		int members = 0;
+		for (int round = 0; round < ROUNDS; round++) {
+			long startedAt = System.nanoTime();
+			members = snapshot.resolveMembers("group-0").size();
+			resolve[round] = System.nanoTime() - startedAt;
+		}
+
+		System.out.printf("org-tree snapshot, %d groups, %d member links%n", snapshot.size(), snapshot.memberLinks());
+		System.out.printf("  full build          median %.2f ms%n", median(build));
+		System.out.printf("  1-group change      median %.3f ms%n", median(single));
+		System.out.printf("  100-group change    median %.3f ms%n", median(batch));
+		System.out.printf("  resolve root (%d)   median %.2f ms%n", members, median(resolve));
+		System.out.printf("  heap: nodes %.1f MB, index arrays %.1f MB%n", nodeBytes / 1e6, indexBytes / 1e6);
+	}
+
+	private static double median(long[] nanos) {
+		long[] sorted = nanos.clone();
+		Arrays.sort(sorted);
+		return sorted[sorted.length / 2] / 1e6;
+	}
+
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
@@ -0,0 +1,86 @@
+package org.example.aiodataservice.infrastructure.trees;
+
+import org.example.aiodataservice.application.dtos.staff.StaffGroupChildDto;
+import org.example.aiodataservice.domain.documents.StaffGroup;
+import org.example.aiodataservice.infrastructure.repositories.StaffGroupRepository;
+import org.example.aiodataservice.infrastructure.trees.OrgTreeSnapshot.Node;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.elasticsearch.ElasticsearchContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.*;
+
+// Full snapshot load from Elasticsearch for 100k embedded-membership groups, as done at startup and by the periodic rebuild.
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {"app.warmup.enabled=false", "app.org-tree.full-rebuild-interval=1h"})
+class OrgTreeSnapshotLoadBenchmark {
+	private static final int GROUPS = 100_000;
+	private static final int SAVE_BATCH = 5_000;
+
+	@Container
+	static ElasticsearchContainer elasticsearch = new ElasticsearchContainer("docker.elastic.co/elasticsearch/elasticsearch:8.18.1")
+			.withEnv("xpack.security.enabled", "false");
+
+	@Container
+	static GenericContainer<?> redis = new GenericContainer<>("redis:7.2-alpine").withExposedPorts(6379);
+
+	@DynamicPropertySource
+	static void properties(DynamicPropertyRegistry registry) {
+		registry.add("spring.elasticsearch.uris", elasticsearch::getHttpHostAddress);
+		registry.add("spring.data.redis.host", redis::getHost);
+		registry.add("spring.data.redis.port", () -> redis.getMappedPort(6379));
+	}
+
+	@Autowired
+	private StaffGroupRepository staffGroupRepository;
+
+	@Autowired
+	private OrgTreeSnapshotManager orgTreeSnapshotManager;
+
+	@Test
+	void loadHundredThousandGroups() {
+		List<Node> nodes = OrgTreeSnapshotBenchmark.generate(GROUPS);
+		List<StaffGroup> batch = new ArrayList<>(SAVE_BATCH);
+		for (Node node : nodes) {
+			batch.add(StaffGroup.builder()
+					.id(node.id())
+					.groupCode(node.id())
+					.name(node.id())
+					.parentId(node.parentId())
+					.children(new ArrayList<>(Arrays.stream(node.childIds())
+							.map(id -> StaffGroupChildDto.builder().id(id).groupCode(id).name(id).parentId(node.id()).build())
+							.toList()))
+					.memberIds(new HashSet<>(Arrays.asList(node.memberIds())))
+					.createdAt(LocalDate.now())
+					.updatedAt(LocalDate.now())
+					.build());
+			if (batch.size() == SAVE_BATCH) {
+				staffGroupRepository.saveAll(batch);
+				batch.clear();
+			}
+		}
+		staffGroupRepository.saveAll(batch);
+
+		Runtime runtime = Runtime.getRuntime();
+		System.gc();
+		long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+		long startedAt = System.nanoTime();
+		orgTreeSnapshotManager.rebuild();
+		long elapsedMs = (System.nanoTime() - startedAt) / 1_000_000;
+		System.gc();
+		long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+
+		OrgTreeSnapshot snapshot = orgTreeSnapshotManager.current();
+		System.out.printf("org-tree load from Elasticsearch: %d groups, %d member links in %d ms, retained heap ~%.1f MB%n",
+				snapshot.size(), snapshot.memberLinks(), elapsedMs, (heapAfter - heapBefore) / 1e6);
+	}
+}
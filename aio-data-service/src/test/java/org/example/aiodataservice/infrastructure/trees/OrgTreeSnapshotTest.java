@@ -0,0 +1,109 @@
+package org.example.aiodataservice.infrastructure.trees;
+
+import org.example.aiodataservice.infrastructure.trees.OrgTreeSnapshot.Node;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrgTreeSnapshotTest {
+
+	private static Node node(String id, String parentId, List<String> childIds, String... memberIds) {
+		return new Node(id, parentId, childIds.toArray(String[]::new), memberIds);
+	}
+
+	// root -> a -> a1, root -> b
+	private static OrgTreeSnapshot tree() {
+		return OrgTreeSnapshot.of(1, List.of(
+				node("root", null, List.of("a", "b"), "s0"),
+				node("a", "root", List.of("a1"), "s1"),
+				node("a1", "a", List.of(), "s2", "s3"),
+				node("b", "root", List.of(), "s4")));
+	}
+
+	@Test
+	void resolvesNestedMembersAndAncestors() {
+		OrgTreeSnapshot tree = tree();
+
+		assertThat(tree.resolveMembers("root")).containsExactlyInAnyOrder("s0", "s1", "s2", "s3", "s4");
+		assertThat(tree.resolveMembers("a")).containsExactlyInAnyOrder("s1", "s2", "s3");
+		assertThat(tree.membersOf("a")).containsExactly("s1");
+		assertThat(tree.ancestorsOf("a1")).containsExactly("a", "root");
+		assertThat(tree.resolveMembers("missing")).isNull();
+		assertThat(tree.memberLinks()).isEqualTo(5);
+	}
+
+	@Test
+	void resolveReturnsNullWhenSubtreeHasStaleGroup() {
+		OrgTreeSnapshot tree = tree();
+
+		assertThat(tree.resolveMembers("root", Set.of("a1"))).isNull();
+		assertThat(tree.resolveMembers("b", Set.of("a1"))).containsExactly("s4");
+	}
+
+	@Test
+	void withChangesMovesGroupAndLeavesPreviousSnapshotUntouched() {
+		OrgTreeSnapshot before = tree();
+
+		OrgTreeSnapshot after = before.withChanges(Map.of(
+				"a", node("a", "root", List.of(), "s1"),
+				"b", node("b", "root", List.of("a1"), "s4"),
+				"a1", node("a1", "b", List.of(), "s2", "s3")), Set.of());
+
+		assertThat(after.getVersion()).isEqualTo(2);
+		assertThat(after.resolveMembers("a")).containsExactly("s1");
+		assertThat(after.resolveMembers("b")).containsExactlyInAnyOrder("s2", "s3", "s4");
+		assertThat(after.ancestorsOf("a1")).containsExactly("b", "root");
+		assertThat(before.resolveMembers("a")).containsExactlyInAnyOrder("s1", "s2", "s3");
+		assertThat(before.ancestorsOf("a1")).containsExactly("a", "root");
+	}
+
+	@Test
+	void withChangesAddsAndRemovesGroups() {
+		OrgTreeSnapshot after = tree().withChanges(Map.of(
+				"root", node("root", null, List.of("a", "c"), "s0"),
+				"c", node("c", "root", List.of(), "s5")), Set.of("b"));
+
+		assertThat(after.size()).isEqualTo(4);
+		assertThat(after.contains("b")).isFalse();
+		assertThat(after.contains("c")).isTrue();
+		assertThat(after.resolveMembers("root")).containsExactlyInAnyOrder("s0", "s1", "s2", "s3", "s5");
+		assertThat(after.memberLinks()).isEqualTo(5);
+
+		OrgTreeSnapshot readded = after.withChanges(Map.of(
+				"root", node("root", null, List.of("a", "b", "c"), "s0"),
+				"b", node("b", "root", List.of(), "s6")), Set.of());
+		assertThat(readded.resolveMembers("root")).containsExactlyInAnyOrder("s0", "s1", "s2", "s3", "s5", "s6");
+		assertThat(readded.ancestorsOf("b")).containsExactly("root");
+	}
+
+	@Test
+	void childAddedBeforeItsParentIsLinkedWhenTheParentArrives() {
+		OrgTreeSnapshot withChild = tree().withChanges(Map.of("x1", node("x1", "x", List.of(), "s7")), Set.of());
+		OrgTreeSnapshot withParent = withChild.withChanges(Map.of("x", node("x", null, List.of("x1"), "s8")), Set.of());
+
+		assertThat(withParent.resolveMembers("x")).containsExactlyInAnyOrder("s7", "s8");
+		assertThat(withParent.ancestorsOf("x1")).containsExactly("x");
+	}
+
+	@Test
+	void compactsAfterManyAppendsWithoutChangingTheTree() {
+		OrgTreeSnapshot tree = tree();
+		List<String> children = new ArrayList<>(List.of("a", "b"));
+		for (int i = 0; i < 3000; i++) {
+			String id = "g" + i;
+			children.add(id);
+			tree = tree.withChanges(Map.of(
+					id, node(id, "root", List.of(), "m" + i),
+					"root", node("root", null, List.copyOf(children), "s0")), Set.of());
+		}
+
+		assertThat(tree.size()).isEqualTo(3004);
+		assertThat(tree.resolveMembers("root")).hasSize(3005);
+		assertThat(tree.ancestorsOf("g2999")).containsExactly("root");
+	}
+}
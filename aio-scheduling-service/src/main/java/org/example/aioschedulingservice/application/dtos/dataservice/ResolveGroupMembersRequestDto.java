@@ -0,0 +1,14 @@
+package org.example.aioschedulingservice.application.dtos.dataservice;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResolveGroupMembersRequestDto {
+    private Set<String> groupIds;
+}
@@ -0,0 +1,16 @@
+package org.example.aioschedulingservice.application.dtos.schedulebatch;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import org.example.aioschedulingservice.application.dtos.schedulejob.CreateScheduleRequestDto;
+
+import java.util.List;
+
+@Data
+public class CreateScheduleBatchRequestDto {
+    @NotEmpty(message = "Schedules cannot be empty")
+    @Size(max = 1000, message = "A batch must not exceed 1000 schedules")
+    private List<@Valid CreateScheduleRequestDto> schedules;
+}
@@ -0,0 +1,21 @@
+package org.example.aioschedulingservice.application.dtos.schedulebatch;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.aioschedulingservice.domain.enums.JobStatus;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleBatchResponseDto {
+    private String batchId;
+    private long totalJobs;
+    private Map<JobStatus, Long> statusCounts;
+    private List<String> scheduleIds;
+}
@@ -45,6 +45,20 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(ErrorDetail, HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(ScheduleQueueFullException.class)
+    public ResponseEntity<ErrorDetail> handleScheduleQueueFullException(
+            ScheduleQueueFullException ex, WebRequest request) {
+
+        ErrorDetail ErrorDetail = new ErrorDetail(
+                LocalDateTime.now(),
+                ex.getMessage(),
+                request.getDescription(false),
+                HttpStatus.TOO_MANY_REQUESTS.value()
+        );
+
+        return new ResponseEntity<>(ErrorDetail, HttpStatus.TOO_MANY_REQUESTS);
+    }
+
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public Map<String, String> handleValidationExceptions(MethodArgumentNotValidException ex) {
@@ -0,0 +1,13 @@
+package org.example.aioschedulingservice.application.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class ScheduleQueueFullException extends RuntimeException {
+
+    public ScheduleQueueFullException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,69 @@
+package org.example.aioschedulingservice.application.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledFuture;
+
+public class DistributedLock implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(DistributedLock.class);
+    private final LockService lockService;
+    private final String key;
+    private final String owner;
+    private final long fencingToken;
+    private final Duration lease;
+    private volatile boolean held = true;
+    private volatile ScheduledFuture<?> renewal;
+
+    DistributedLock(LockService lockService, String key, String owner, long fencingToken, Duration lease) {
+        this.lockService = lockService;
+        this.key = key;
+        this.owner = owner;
+        this.fencingToken = fencingToken;
+        this.lease = lease;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getFencingToken() {
+        return fencingToken;
+    }
+
+    public boolean isHeld() {
+        return held;
+    }
+
+    void startWatchdog(ScheduledFuture<?> renewal) {
+        this.renewal = renewal;
+    }
+
+    void renew() {
+        if (!held) {
+            return;
+        }
+        if (!lockService.renew(key, owner, lease)) {
+            held = false;
+            cancelWatchdog();
+            logger.warn("Lost lock {} (fencing token {}) before release", key, fencingToken);
+        }
+    }
+
+    @Override
+    public void close() {
+        cancelWatchdog();
+        if (held) {
+            held = false;
+            lockService.release(key, owner);
+        }
+    }
+
+    private void cancelWatchdog() {
+        ScheduledFuture<?> current = renewal;
+        if (current != null) {
+            current.cancel(false);
+        }
+    }
+}
@@ -1,51 +1,143 @@
 package org.example.aioschedulingservice.application.services;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.example.aioschedulingservice.infrastructure.configs.SchedulingProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.redis.core.RedisCallback;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 @Service
-@RequiredArgsConstructor
 public class LockService {
     private static final Logger logger = LoggerFactory.getLogger(LockService.class);
+    private static final String KEY_PREFIX = "lock:";
+    private static final String FENCING_TOKEN_SUFFIX = ":fencing-token";
+
+    // the counter is per resource and shares the lock key's hash tag, so both keys live in one cluster slot; a new
+    // counter starts from the Redis clock in ms, which keeps it above tokens issued by the old global counter
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>(
+            "if not redis.call('set', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then return 0 end "
+                    + "if redis.call('exists', KEYS[2]) == 0 then "
+                    + "local now = redis.call('time') "
+                    + "redis.call('set', KEYS[2], string.format('%d', now[1] * 1000 + math.floor(now[2] / 1000))) "
+                    + "end "
+                    + "return redis.call('incr', KEYS[2])",
+            Long.class);
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) end return 0",
+            Long.class);
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) end return 0",
+            Long.class);
+
     private final StringRedisTemplate redisTemplate;
-    private static final long DEFAULT_LOCK_TIMEOUT_MS = 30000;
+    private final SchedulingProperties.Lock properties;
+    private final MeterRegistry meterRegistry;
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "lock-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public LockService(StringRedisTemplate redisTemplate, SchedulingProperties schedulingProperties, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.properties = schedulingProperties.getLock();
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Optional<DistributedLock> tryAcquire(String name, String resourceId, Duration maxWait) {
+        return tryAcquire(name, resourceId, properties.getLease(), maxWait);
+    }
+
+    public Optional<DistributedLock> tryAcquire(String name, String resourceId, Duration lease, Duration maxWait) {
+        String key = lockKey(name, resourceId);
+        String owner = UUID.randomUUID().toString();
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + maxWait.toNanos();
+        long backoffMs = Math.max(1, properties.getInitialBackoff().toMillis());
+        int attempts = 0;
+        while (true) {
+            attempts++;
+            Long token = redisTemplate.execute(ACQUIRE_SCRIPT, List.of(key, key + FENCING_TOKEN_SUFFIX),
+                    owner, String.valueOf(lease.toMillis()));
+            if (token != null && token > 0) {
+                record(name, "acquired", startedAt, attempts);
+                DistributedLock lock = new DistributedLock(this, key, owner, token, lease);
+                long renewEveryMs = Math.max(1, lease.toMillis() / 3);
+                lock.startWatchdog(watchdog.scheduleAtFixedRate(lock::renew, renewEveryMs, renewEveryMs, TimeUnit.MILLISECONDS));
+                logger.info("Acquired lock {} with fencing token {}", key, token);
+                return Optional.of(lock);
+            }
+            long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMs <= 0) {
+                record(name, "timeout", startedAt, attempts);
+                logger.warn("Failed to acquire lock {} after {} attempts (held by another process)", key, attempts);
+                return Optional.empty();
+            }
+            try {
+                Thread.sleep(Math.min(remainingMs, ThreadLocalRandom.current().nextLong(backoffMs / 2, backoffMs + 1)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                record(name, "interrupted", startedAt, attempts);
+                return Optional.empty();
+            }
+            backoffMs = Math.min(backoffMs * 2, properties.getMaxBackoff().toMillis());
+        }
+    }
+
+    static String lockKey(String name, String resourceId) {
+        return KEY_PREFIX + "{" + name + ":" + resourceId + "}";
+    }
 
-    public boolean acquireLock(String lockKey, String lockValue, Duration timeout) {
-        Boolean success = redisTemplate.opsForValue().setIfAbsent(lockKey, lockValue, timeout);
-        if (success != null && success) {
-            logger.info("Acquired lock for key: {} with value: {}", lockKey, lockValue);
-            return true;
+    boolean renew(String key, String owner, Duration lease) {
+        try {
+            Long renewed = redisTemplate.execute(RENEW_SCRIPT, List.of(key), owner, String.valueOf(lease.toMillis()));
+            return renewed != null && renewed == 1;
+        } catch (Exception e) {
+            logger.warn("Failed to renew lock {}, treating it as lost: {}", key, e.getMessage());
+            return false;
         }
-        logger.warn("Failed to acquire lock for key: {} (possibly held by another process)", lockKey);
-        return false;
-    }
-
-    public boolean releaseLock(String lockKey, String lockValue) {
-        String script = "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end";
-        Long result = redisTemplate.execute(
-                ((RedisCallback<Long>)(connection) -> connection.eval(
-                        script.getBytes(),
-                        org.springframework.data.redis.connection.ReturnType.INTEGER,
-                        1,
-                        lockKey.getBytes(),
-                        lockValue.getBytes()
-                )
-        ));
-
-        if (result != null && result == 1) {
-            logger.info("Released lock for key: {} with value: {}", lockKey, lockValue);
-            return true;
+    }
+
+    void release(String key, String owner) {
+        Long released = redisTemplate.execute(RELEASE_SCRIPT, List.of(key), owner);
+        if (released != null && released == 1) {
+            logger.info("Released lock {}", key);
+        } else {
+            logger.warn("Lock {} expired or was taken over before release", key);
         }
-        logger.warn("Failed to release lock for key: {} (lock not held by {} or expired)", lockKey, lockValue);
-        return false;
     }
 
+    private void record(String name, String outcome, long startedAt, int attempts) {
+        Timer.builder("lock.wait")
+                .tag("lock", name)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("lock.acquire.attempts")
+                .tag("lock", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(attempts);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        watchdog.shutdownNow();
+    }
 }
@@ -0,0 +1,69 @@
+package org.example.aioschedulingservice.application.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.aioschedulingservice.application.webclients.DataServiceClient;
+import org.example.aioschedulingservice.domain.entities.ScheduleJob;
+import org.example.aioschedulingservice.infrastructure.configs.SchedulingProperties;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class ScheduleJobDispatcher {
+    private final ScheduleJobQueue scheduleJobQueue;
+    private final ScheduleGeneratorService scheduleGeneratorService;
+    private final DataServiceClient dataServiceClient;
+    private final ThreadPoolTaskExecutor taskExecutor;
+    private final int batchSize;
+
+    public ScheduleJobDispatcher(ScheduleJobQueue scheduleJobQueue,
+                                 ScheduleGeneratorService scheduleGeneratorService,
+                                 DataServiceClient dataServiceClient,
+                                 @Qualifier("taskExecutor") ThreadPoolTaskExecutor taskExecutor,
+                                 SchedulingProperties schedulingProperties) {
+        this.scheduleJobQueue = scheduleJobQueue;
+        this.scheduleGeneratorService = scheduleGeneratorService;
+        this.dataServiceClient = dataServiceClient;
+        this.taskExecutor = taskExecutor;
+        this.batchSize = schedulingProperties.getQueue().getBatchSize();
+    }
+
+    @Scheduled(fixedDelayString = "${scheduling.queue.poll-interval-ms:1000}")
+    public void dispatchQueuedJobs() {
+        int freeSlots = taskExecutor.getMaxPoolSize() + taskExecutor.getQueueCapacity()
+                - taskExecutor.getActiveCount() - taskExecutor.getQueueSize();
+        List<ScheduleJob> jobs = scheduleJobQueue.claim(Math.min(batchSize, freeSlots));
+        if (jobs.isEmpty()) {
+            return;
+        }
+        Map<String, Set<String>> staffByGroup = resolveStaff(jobs);
+        for (ScheduleJob job : jobs) {
+            Set<String> staffIds = staffByGroup.get(job.getStaffGroupId());
+            try {
+                taskExecutor.execute(() -> scheduleGeneratorService.generateScheduleAsync(job.getId(), staffIds));
+            } catch (TaskRejectedException e) {
+                log.warn("Worker pool rejected job {}, returning it to the queue", job.getId());
+                scheduleJobQueue.release(job.getId());
+            }
+        }
+    }
+
+    private Map<String, Set<String>> resolveStaff(List<ScheduleJob> jobs) {
+        Set<String> groupIds = jobs.stream().map(ScheduleJob::getStaffGroupId).collect(Collectors.toSet());
+        try {
+            Map<String, Set<String>> staffByGroup = dataServiceClient.resolveMembersForGroups(groupIds).block();
+            return staffByGroup != null ? staffByGroup : Map.of();
+        } catch (Exception e) {
+            log.warn("Bulk member resolution for {} groups failed, jobs will resolve individually: {}", groupIds.size(), e.getMessage());
+            return Map.of();
+        }
+    }
+}
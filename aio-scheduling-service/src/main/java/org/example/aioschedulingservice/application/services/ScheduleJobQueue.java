@@ -0,0 +1,90 @@
+package org.example.aioschedulingservice.application.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.aioschedulingservice.domain.entities.ScheduleJob;
+import org.example.aioschedulingservice.domain.enums.JobStatus;
+import org.example.aioschedulingservice.infrastructure.configs.SchedulingProperties;
+import org.example.aioschedulingservice.infrastructure.repositories.ScheduleJobRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@Slf4j
+public class ScheduleJobQueue {
+    private static final String INSERT_SQL =
+            "INSERT INTO schedule_job (id, staff_group_id, week_begin_date, status, created_at, batch_id) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final ScheduleJobRepository scheduleJobRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration leaseDuration;
+    private final int maxQueuedJobs;
+
+    public ScheduleJobQueue(ScheduleJobRepository scheduleJobRepository,
+                            JdbcTemplate jdbcTemplate,
+                            SchedulingProperties schedulingProperties) {
+        this.scheduleJobRepository = scheduleJobRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.leaseDuration = schedulingProperties.getQueue().getLeaseDuration();
+        this.maxQueuedJobs = schedulingProperties.getQueue().getMaxQueuedJobs();
+    }
+
+    @Transactional(readOnly = true)
+    public boolean isFull() {
+        return !hasRoomFor(1);
+    }
+
+    @Transactional(readOnly = true)
+    public boolean hasRoomFor(int jobs) {
+        return scheduleJobRepository.countByStatus(JobStatus.QUEUED) + jobs <= maxQueuedJobs;
+    }
+
+    @Transactional
+    public void enqueueAll(List<ScheduleJob> jobs) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, jobs, jobs.size(), (ps, job) -> {
+            ps.setString(1, job.getId());
+            ps.setString(2, job.getStaffGroupId());
+            ps.setObject(3, job.getWeekBeginDate());
+            ps.setString(4, job.getStatus().name());
+            ps.setObject(5, job.getCreatedAt());
+            ps.setString(6, job.getBatchId());
+        });
+        log.info("Enqueued {} schedule jobs", jobs.size());
+    }
+
+    @Transactional
+    public List<ScheduleJob> claim(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<ScheduleJob> jobs = scheduleJobRepository.findClaimableJobs(now, limit);
+        for (ScheduleJob job : jobs) {
+            job.setLockedUntil(now.plus(leaseDuration));
+        }
+        scheduleJobRepository.saveAll(jobs);
+        if (!jobs.isEmpty()) {
+            log.debug("Claimed {} queued schedule jobs", jobs.size());
+        }
+        return jobs;
+    }
+
+    @Transactional
+    public void release(String jobId) {
+        scheduleJobRepository.releaseClaim(jobId, JobStatus.QUEUED);
+    }
+
+    @Transactional
+    public boolean fence(String jobId, long fencingToken) {
+        return scheduleJobRepository.advanceFenceToken(jobId, fencingToken) > 0;
+    }
+
+    @Transactional
+    public boolean finish(String jobId, long fencingToken, JobStatus status, String errorMessage) {
+        return scheduleJobRepository.finishFenced(jobId, fencingToken, status.name(), errorMessage) > 0;
+    }
+}
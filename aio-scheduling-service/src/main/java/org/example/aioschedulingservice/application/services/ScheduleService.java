@@ -1,15 +1,22 @@
 package org.example.aioschedulingservice.application.services;
 
+import org.example.aioschedulingservice.application.dtos.schedulebatch.CreateScheduleBatchRequestDto;
+import org.example.aioschedulingservice.application.dtos.schedulebatch.ScheduleBatchResponseDto;
 import org.example.aioschedulingservice.application.dtos.schedulejob.CreateScheduleRequestDto;
 import org.example.aioschedulingservice.application.dtos.schedulejob.ScheduleResponseDto;
 import org.example.aioschedulingservice.application.dtos.shiftassignment.GetScheduleResultDto;
 import org.example.aioschedulingservice.domain.entities.ScheduleJob;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface ScheduleService {
     List<ScheduleJob> getScheduleJobs(int page, int size);
     ScheduleResponseDto generateSchedule(CreateScheduleRequestDto requestDto);
     ScheduleResponseDto getJobStatus(String scheduleId);
+    ScheduleBatchResponseDto generateScheduleBatch(CreateScheduleBatchRequestDto requestDto);
+    ScheduleBatchResponseDto getBatchStatus(String batchId);
     GetScheduleResultDto getGeneratedSchedule(String scheduleId);
+    void streamGeneratedSchedule(String scheduleId, OutputStream outputStream, boolean ndjson) throws IOException;
 }
@@ -1,16 +1,22 @@
 package org.example.aioschedulingservice.application.services;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.aioschedulingservice.application.dtos.schedulebatch.CreateScheduleBatchRequestDto;
+import org.example.aioschedulingservice.application.dtos.schedulebatch.ScheduleBatchResponseDto;
 import org.example.aioschedulingservice.application.dtos.schedulejob.CreateScheduleRequestDto;
 import org.example.aioschedulingservice.application.dtos.schedulejob.ScheduleResponseDto;
 import org.example.aioschedulingservice.application.dtos.shiftassignment.GetScheduleResultDto;
 import org.example.aioschedulingservice.application.dtos.shiftassignment.ShiftAssignmentDto;
 import org.example.aioschedulingservice.application.exceptions.ResourceNotFoundException;
+import org.example.aioschedulingservice.application.exceptions.ScheduleQueueFullException;
 import org.example.aioschedulingservice.application.webclients.DataServiceClient;
 import org.example.aioschedulingservice.domain.entities.ScheduleJob;
 import org.example.aioschedulingservice.domain.entities.ShiftAssignment;
 import org.example.aioschedulingservice.domain.enums.JobStatus;
+import org.example.aioschedulingservice.infrastructure.configs.SchedulingProperties;
 import org.example.aioschedulingservice.infrastructure.repositories.ScheduleJobRepository;
 import org.example.aioschedulingservice.infrastructure.repositories.ShiftAssignmentRepository;
 import org.hibernate.annotations.NotFound;
@@ -22,8 +28,15 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.Console;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -35,7 +48,9 @@ public class ScheduleServiceImpl implements ScheduleService {
 
     private final ScheduleJobRepository scheduleJobRepository;
     private final ShiftAssignmentRepository shiftAssignmentRepository;
-    private final ScheduleGeneratorService scheduleGeneratorService;
+    private final ScheduleJobQueue scheduleJobQueue;
+    private final SchedulingProperties schedulingProperties;
+    private final ObjectMapper objectMapper;
 
     @Override
     @Transactional(readOnly = true)
@@ -51,20 +66,71 @@ public class ScheduleServiceImpl implements ScheduleService {
         logger.info("Generate new schedule request. Staff Group ID: {}, Week Begin: {}",
                 requestDto.getStaffGroupId(), requestDto.getWeekBeginDate());
 
+        if (scheduleJobQueue.isFull()) {
+            throw new ScheduleQueueFullException("Schedule queue is full, please retry later");
+        }
         ScheduleJob job = ScheduleJob.builder()
                 .id(UUID.randomUUID().toString())
                 .staffGroupId(requestDto.getStaffGroupId())
                 .weekBeginDate(requestDto.getWeekBeginDate())
-                .status(JobStatus.PENDING)
+                .status(JobStatus.QUEUED)
+                .createdAt(LocalDateTime.now())
                 .build();
         scheduleJobRepository.save(job);
-        scheduleGeneratorService.generateScheduleAsync(job.getId());
-        var newestJob = scheduleJobRepository.findById(job.getId())
-                .orElseThrow(() -> new ResourceNotFoundException("Schedule job not found with ID: " + job.getId()));
         return new ScheduleResponseDto(
-                newestJob.getId(),
-                newestJob.getStatus(),
-                newestJob.getErrorMessage());
+                job.getId(),
+                job.getStatus(),
+                job.getErrorMessage());
+    }
+
+    @Override
+    public ScheduleBatchResponseDto generateScheduleBatch(CreateScheduleBatchRequestDto requestDto) {
+        List<CreateScheduleRequestDto> schedules = requestDto.getSchedules();
+        logger.info("Generate new schedule batch request. Schedules: {}", schedules.size());
+
+        if (!scheduleJobQueue.hasRoomFor(schedules.size())) {
+            throw new ScheduleQueueFullException("Schedule queue cannot take " + schedules.size() + " more jobs, please retry later");
+        }
+        String batchId = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        List<ScheduleJob> jobs = new ArrayList<>(schedules.size());
+        for (CreateScheduleRequestDto schedule : schedules) {
+            jobs.add(ScheduleJob.builder()
+                    .id(UUID.randomUUID().toString())
+                    .staffGroupId(schedule.getStaffGroupId())
+                    .weekBeginDate(schedule.getWeekBeginDate())
+                    .status(JobStatus.QUEUED)
+                    .createdAt(now)
+                    .batchId(batchId)
+                    .build());
+        }
+        scheduleJobQueue.enqueueAll(jobs);
+        return ScheduleBatchResponseDto.builder()
+                .batchId(batchId)
+                .totalJobs(jobs.size())
+                .statusCounts(Map.of(JobStatus.QUEUED, (long) jobs.size()))
+                .scheduleIds(jobs.stream().map(ScheduleJob::getId).toList())
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ScheduleBatchResponseDto getBatchStatus(String batchId) {
+        logger.debug("Fetching status for batch ID: {}", batchId);
+        Map<JobStatus, Long> statusCounts = new EnumMap<>(JobStatus.class);
+        long totalJobs = 0;
+        for (Object[] row : scheduleJobRepository.countStatusesByBatchId(batchId)) {
+            statusCounts.put((JobStatus) row[0], (Long) row[1]);
+            totalJobs += (Long) row[1];
+        }
+        if (totalJobs == 0) {
+            throw new ResourceNotFoundException("Schedule batch not found with ID: " + batchId);
+        }
+        return ScheduleBatchResponseDto.builder()
+                .batchId(batchId)
+                .totalJobs(totalJobs)
+                .statusCounts(statusCounts)
+                .build();
     }
 
     @Transactional(readOnly = true)
@@ -96,4 +162,46 @@ public class ScheduleServiceImpl implements ScheduleService {
                 assignmentDtos
         );
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamGeneratedSchedule(String scheduleId, OutputStream outputStream, boolean ndjson) throws IOException {
+        logger.debug("Streaming result for job ID: {}", scheduleId);
+        ScheduleJob job = scheduleJobRepository.findById(scheduleId)
+                .orElseThrow(() -> new ResourceNotFoundException("Schedule job not found with ID: " + scheduleId));
+        int fetchSize = schedulingProperties.getPersistence().getResultFetchSize();
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (!ndjson) {
+                generator.writeStartObject();
+                generator.writeStringField("scheduleId", job.getId());
+                generator.writeStringField("weekBeginDate", job.getWeekBeginDate().toString());
+                generator.writeStringField("staffGroupId", job.getStaffGroupId());
+                generator.writeArrayFieldStart("assignments");
+            }
+            try {
+                shiftAssignmentRepository.streamByScheduleJobId(scheduleId, fetchSize, sa -> {
+                    try {
+                        generator.writeStartObject();
+                        generator.writeStringField("staffId", sa.getStaffId());
+                        generator.writeStringField("date", sa.getDate().toString());
+                        generator.writeStringField("shift", sa.getShiftType().name());
+                        generator.writeEndObject();
+                        if (ndjson) {
+                            generator.writeRaw('\n');
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (!ndjson) {
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+        }
+    }
 }
@@ -0,0 +1,118 @@
+package org.example.aioschedulingservice.application.services;
+
+import org.example.aioschedulingservice.application.utils.DateUtil;
+import org.example.aioschedulingservice.domain.enums.ShiftType;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class ShiftScheduleEngine {
+    public static final byte MORNING = (byte) ShiftType.MORNING.getCode();
+    public static final byte EVENING = (byte) ShiftType.EVENING.getCode();
+    public static final byte DAY_OFF = (byte) ShiftType.DAY_OFF.getCode();
+    private static final byte NONE = -1;
+
+    private final boolean isAvoidMorningAfterEvening;
+    private final boolean isBalanceShifts;
+    private final boolean isDayOffEnabled;
+    private final int offDaysPerWeek;
+
+    public ShiftScheduleEngine(boolean isAvoidMorningAfterEvening, boolean isBalanceShifts,
+                               boolean isDayOffEnabled, int offDaysPerWeek) {
+        this.isAvoidMorningAfterEvening = isAvoidMorningAfterEvening;
+        this.isBalanceShifts = isBalanceShifts;
+        this.isDayOffEnabled = isDayOffEnabled;
+        this.offDaysPerWeek = offDaysPerWeek;
+    }
+
+    public byte[][] generate(LocalDate startDate, int days, int staffCount) {
+        byte[][] shifts = new byte[staffCount][days];
+        byte[] lastShift = new byte[staffCount];
+        int[] morningCount = new int[staffCount];
+        int[] eveningCount = new int[staffCount];
+        int[] dayOffsThisWeek = new int[staffCount];
+        Arrays.fill(lastShift, NONE);
+
+        DayOfWeek[] dayOfWeeks = new DayOfWeek[days];
+        for (int day = 0; day < days; day++) {
+            dayOfWeeks[day] = startDate.plusDays(day).getDayOfWeek();
+        }
+
+        byte[] candidates = new byte[3];
+        int previousWeek = Integer.MIN_VALUE;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        for (int day = 0; day < days; day++) { //RULE 1: period-weeks
+            LocalDate currentDate = startDate.plusDays(day);
+            int currentWeek = DateUtil.getWeekOfYear(currentDate);
+            if (currentWeek != previousWeek) {
+                Arrays.fill(dayOffsThisWeek, 0);
+                previousWeek = currentWeek;
+            }
+            boolean isSunday = dayOfWeeks[day] == DayOfWeek.SUNDAY;
+
+            for (int staff = 0; staff < staffCount; staff++) {
+                // RULE 3: day-off, Sunday closes the week with any missing day-offs
+                if (isDayOffEnabled && isSunday && dayOffsThisWeek[staff] < offDaysPerWeek) {
+                    fillMissingDayOffs(shifts[staff], day, dayOfWeeks, staff,
+                            morningCount, eveningCount, dayOffsThisWeek);
+                    lastShift[staff] = DAY_OFF;
+                    continue;
+                }
+
+                boolean allowMorning = true;
+                boolean allowEvening = true;
+                boolean allowDayOff = isDayOffEnabled && dayOffsThisWeek[staff] < offDaysPerWeek;
+
+                // RULE 2: avoid-morning-after-evening
+                if (isAvoidMorningAfterEvening && lastShift[staff] == EVENING) {
+                    allowMorning = false;
+                }
+
+                // RULE 4: balance-shifts
+                if (isBalanceShifts) {
+                    if (morningCount[staff] < eveningCount[staff]) {
+                        allowEvening = false;
+                    } else if (eveningCount[staff] < morningCount[staff]) {
+                        allowMorning = false;
+                    }
+                }
+
+                int size = 0;
+                if (allowMorning) candidates[size++] = MORNING;
+                if (allowEvening) candidates[size++] = EVENING;
+                if (allowDayOff) candidates[size++] = DAY_OFF;
+                byte shift = size == 0 ? EVENING : candidates[random.nextInt(size)];
+
+                shifts[staff][day] = shift;
+                lastShift[staff] = shift;
+                if (shift == MORNING) morningCount[staff]++;
+                else if (shift == EVENING) eveningCount[staff]++;
+                else dayOffsThisWeek[staff]++;
+            }
+        }
+        return shifts;
+    }
+
+    private void fillMissingDayOffs(byte[] staffShifts, int day, DayOfWeek[] dayOfWeeks, int staff,
+                                    int[] morningCount, int[] eveningCount, int[] dayOffsThisWeek) {
+        staffShifts[day] = DAY_OFF;
+        dayOffsThisWeek[staff]++;
+
+        for (int previousDay = day - 1;
+             previousDay >= 0 && dayOffsThisWeek[staff] < offDaysPerWeek
+                     && dayOfWeeks[previousDay] != DayOfWeek.MONDAY;
+             previousDay--) {
+            byte shift = staffShifts[previousDay];
+            if (shift == DAY_OFF) {
+                continue;
+            }
+            if (shift == MORNING) morningCount[staff]--;
+            else eveningCount[staff]--;
+            staffShifts[previousDay] = DAY_OFF;
+            dayOffsThisWeek[staff]++;
+        }
+    }
+}
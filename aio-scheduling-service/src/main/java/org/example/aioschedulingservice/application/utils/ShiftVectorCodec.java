@@ -0,0 +1,25 @@
+package org.example.aioschedulingservice.application.utils;
+
+import org.example.aioschedulingservice.domain.enums.ShiftType;
+
+import java.util.Arrays;
+
+public class ShiftVectorCodec {
+    private static final int EMPTY = 3;
+
+    public static byte[] newVector(int dayCount) {
+        byte[] vector = new byte[(dayCount + 3) / 4];
+        Arrays.fill(vector, (byte) 0xFF);
+        return vector;
+    }
+
+    public static void set(byte[] vector, int day, ShiftType shiftType) {
+        int shift = (day & 3) << 1;
+        vector[day >> 2] = (byte) ((vector[day >> 2] & ~(3 << shift)) | (shiftType.getCode() << shift));
+    }
+
+    public static ShiftType get(byte[] vector, int day) {
+        int code = (vector[day >> 2] >> ((day & 3) << 1)) & 3;
+        return code == EMPTY ? null : ShiftType.fromCode(code);
+    }
+}
@@ -3,6 +3,7 @@ package org.example.aioschedulingservice.application.webclients;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import lombok.RequiredArgsConstructor;
+import org.example.aioschedulingservice.application.dtos.dataservice.ResolveGroupMembersRequestDto;
 import org.example.aioschedulingservice.application.exceptions.DataServiceException;
 import org.example.aioschedulingservice.application.exceptions.DataServiceNonRetryableException;
 import org.slf4j.Logger;
@@ -14,8 +15,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @Service
@@ -31,7 +35,7 @@ public class DataServiceClient {
     public Set<String> getStaffForGroup(String staffGroupId) {
         logger.info("Fetching staff for group: {}", staffGroupId);
         return dataServiceWebClient.get()
-                .uri("/staff-groups/{id}/members", staffGroupId)
+                .uri("/staff-groups/{id}/resolve-members", staffGroupId)
                 .retrieve()
                 .onStatus(HttpStatus.NOT_FOUND::equals, clientResponse -> {
                     logger.warn("Staff group {} not found in Data Service.", staffGroupId);
@@ -57,4 +61,30 @@ public class DataServiceClient {
         return Collections.emptySet();
     }
 
+    @CircuitBreaker(name = "dataService", fallbackMethod = "resolveMembersForGroupsFallback")
+    @Retry(name = "dataService")
+    public Mono<Map<String, Set<String>>> resolveMembersForGroups(Collection<String> staffGroupIds) {
+        logger.info("Resolving staff for {} groups", staffGroupIds.size());
+        return dataServiceWebClient.post()
+                .uri("/staff-groups/resolve-members")
+                .bodyValue(new ResolveGroupMembersRequestDto(new HashSet<>(staffGroupIds)))
+                .retrieve()
+                .onStatus(status -> status.is4xxClientError(), clientResponse -> {
+                    logger.error("Client error from Data Service for bulk resolution: {}", clientResponse.statusCode());
+                    return clientResponse.bodyToMono(String.class)
+                            .flatMap(body -> Mono.error(new DataServiceNonRetryableException("Client error from Data Service: " + clientResponse.statusCode() + " - " + body)));
+                })
+                .onStatus(status -> status.is5xxServerError(), clientResponse -> {
+                    logger.error("Server error from DataService for bulk resolution: {}", clientResponse.statusCode());
+                    return clientResponse.bodyToMono(String.class)
+                            .flatMap(body -> Mono.error(new DataServiceException("Server error from Data Service: " + clientResponse.statusCode() + " - " + body)));
+                })
+                .bodyToMono(new ParameterizedTypeReference<Map<String, Set<String>>>() {});
+    }
+
+    public Mono<Map<String, Set<String>>> resolveMembersForGroupsFallback(Collection<String> staffGroupIds, Throwable t) {
+        logger.error("Fallback for resolveMembersForGroups ({} groups): Circuit breaker opened or retry exhausted. Error: {}", staffGroupIds.size(), t.getMessage());
+        return Mono.just(Collections.emptyMap());
+    }
+
 }
@@ -6,6 +6,7 @@ import lombok.*;
 import org.example.aioschedulingservice.domain.enums.JobStatus;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
@@ -36,4 +37,11 @@ public class ScheduleJob {
     @Column(columnDefinition = "TEXT")
     private String errorMessage;
 
+    private LocalDateTime createdAt;
+
+    private String batchId;
+
+    @JsonIgnore
+    private LocalDateTime lockedUntil;
+
 }
@@ -1,6 +1,7 @@
 package org.example.aioschedulingservice.domain.enums;
 
 public enum JobStatus {
+    QUEUED,
     PENDING,
     PROCESSING,
     COMPLETED,
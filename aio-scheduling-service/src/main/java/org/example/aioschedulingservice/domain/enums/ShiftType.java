@@ -1,7 +1,33 @@
 package org.example.aioschedulingservice.domain.enums;
 
 public enum ShiftType {
-    MORNING,
-    EVENING,
-    DAY_OFF
-}
\ No newline at end of file
+    // codes are stored two bits per day in staff_shift_vector (3 marks an empty day), so never renumber them
+    MORNING(0),
+    EVENING(1),
+    DAY_OFF(2);
+
+    private static final ShiftType[] BY_CODE = new ShiftType[3];
+
+    static {
+        for (ShiftType shiftType : values()) {
+            BY_CODE[shiftType.code] = shiftType;
+        }
+    }
+
+    private final int code;
+
+    ShiftType(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public static ShiftType fromCode(int code) {
+        if (code < 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("Unknown shift type code: " + code);
+        }
+        return BY_CODE[code];
+    }
+}
@@ -6,6 +6,8 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 @ConfigurationProperties(prefix = "scheduling")
 @Component
 @Getter
@@ -13,6 +15,10 @@ import org.springframework.stereotype.Component;
 @NoArgsConstructor
 public class SchedulingProperties {
     private Rules rules;
+    private Queue queue = new Queue();
+    private Persistence persistence = new Persistence();
+    private Lock lock = new Lock();
+
     @Getter
     @Setter
     @NoArgsConstructor
@@ -30,4 +36,32 @@ public class SchedulingProperties {
             private int daysPerWeek;
         }
     }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class Queue {
+        private long pollIntervalMs = 1000;
+        private int batchSize = 20;
+        private Duration leaseDuration = Duration.ofMinutes(10);
+        private int maxQueuedJobs = 1000;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class Persistence {
+        private String assignmentWriter = "jdbc-batch";
+        private int batchSize = 1000;
+        private int resultFetchSize = 1000;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class Lock {
+        private Duration lease = Duration.ofMinutes(1);
+        private Duration initialBackoff = Duration.ofMillis(20);
+        private Duration maxBackoff = Duration.ofMillis(250);
+    }
 }
@@ -0,0 +1,77 @@
+package org.example.aioschedulingservice.infrastructure.repositories;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.aioschedulingservice.domain.entities.ScheduleJob;
+import org.example.aioschedulingservice.domain.entities.ShiftAssignment;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "scheduling.persistence.assignment-writer", havingValue = "copy")
+public class CopyShiftAssignmentWriter implements ShiftAssignmentWriter {
+    private static final String COPY_SQL =
+            "COPY shift_assignment (schedule_job_id, staff_id, assignment_date, shift_type) FROM STDIN WITH (FORMAT csv)";
+    private static final int FLUSH_THRESHOLD = 64 * 1024;
+
+    private final DataSource dataSource;
+
+    @Override
+    @Transactional
+    public void write(ScheduleJob job, List<ShiftAssignment> assignments) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+            try {
+                String jobId = csv(job.getId());
+                StringBuilder buffer = new StringBuilder(FLUSH_THRESHOLD + 256);
+                for (ShiftAssignment assignment : assignments) {
+                    buffer.append(jobId).append(',')
+                            .append(csv(assignment.getStaffId())).append(',')
+                            .append(assignment.getDate()).append(',')
+                            .append(assignment.getShiftType().name()).append('\n');
+                    if (buffer.length() >= FLUSH_THRESHOLD) {
+                        flush(copyIn, buffer);
+                    }
+                }
+                flush(copyIn, buffer);
+                long rows = copyIn.endCopy();
+                log.debug("Copied {} assignments for job {}", rows, job.getId());
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessResourceFailureException("COPY of shift assignments failed for job " + job.getId(), e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private static void flush(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    private static String csv(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.aioschedulingservice.infrastructure.repositories;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.aioschedulingservice.domain.entities.ScheduleJob;
+import org.example.aioschedulingservice.domain.entities.ShiftAssignment;
+import org.example.aioschedulingservice.infrastructure.configs.SchedulingProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.util.List;
+
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "scheduling.persistence.assignment-writer", havingValue = "jdbc-batch", matchIfMissing = true)
+public class JdbcBatchShiftAssignmentWriter implements ShiftAssignmentWriter {
+    private static final String INSERT_SQL =
+            "INSERT INTO shift_assignment (schedule_job_id, staff_id, assignment_date, shift_type) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public JdbcBatchShiftAssignmentWriter(JdbcTemplate jdbcTemplate, SchedulingProperties schedulingProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = schedulingProperties.getPersistence().getBatchSize();
+    }
+
+    @Override
+    @Transactional
+    public void write(ScheduleJob job, List<ShiftAssignment> assignments) {
+        String jobId = job.getId();
+        jdbcTemplate.batchUpdate(INSERT_SQL, assignments, batchSize, (ps, assignment) -> {
+            ps.setString(1, jobId);
+            ps.setString(2, assignment.getStaffId());
+            ps.setDate(3, Date.valueOf(assignment.getDate()));
+            ps.setString(4, assignment.getShiftType().name());
+        });
+        log.debug("Batch inserted {} assignments for job {}", assignments.size(), jobId);
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.aioschedulingservice.infrastructure.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.example.aioschedulingservice.domain.entities.ScheduleJob;
+import org.example.aioschedulingservice.domain.entities.ShiftAssignment;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "scheduling.persistence.assignment-writer", havingValue = "jpa")
+public class JpaShiftAssignmentWriter implements ShiftAssignmentWriter {
+    private final ShiftAssignmentRepository shiftAssignmentRepository;
+
+    @Override
+    @Transactional
+    public void write(ScheduleJob job, List<ShiftAssignment> assignments) {
+        shiftAssignmentRepository.saveAll(assignments);
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.aioschedulingservice.infrastructure.repositories;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.aioschedulingservice.application.utils.ShiftVectorCodec;
+import org.example.aioschedulingservice.domain.entities.ScheduleJob;
+import org.example.aioschedulingservice.domain.entities.ShiftAssignment;
+import org.example.aioschedulingservice.infrastructure.configs.SchedulingProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "scheduling.persistence.assignment-writer", havingValue = "packed")
+public class PackedShiftAssignmentWriter implements ShiftAssignmentWriter {
+    private static final String INSERT_SQL =
+            "INSERT INTO staff_shift_vector (schedule_job_id, staff_id, start_offset, day_count, shifts) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public PackedShiftAssignmentWriter(JdbcTemplate jdbcTemplate, SchedulingProperties schedulingProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = schedulingProperties.getPersistence().getBatchSize();
+    }
+
+    @Override
+    @Transactional
+    public void write(ScheduleJob job, List<ShiftAssignment> assignments) {
+        LocalDate weekBeginDate = job.getWeekBeginDate();
+        Map<String, List<ShiftAssignment>> byStaff = new LinkedHashMap<>();
+        for (ShiftAssignment assignment : assignments) {
+            byStaff.computeIfAbsent(assignment.getStaffId(), k -> new ArrayList<>()).add(assignment);
+        }
+
+        List<Object[]> rows = new ArrayList<>(byStaff.size());
+        for (Map.Entry<String, List<ShiftAssignment>> entry : byStaff.entrySet()) {
+            int startOffset = Integer.MAX_VALUE;
+            int endOffset = Integer.MIN_VALUE;
+            for (ShiftAssignment assignment : entry.getValue()) {
+                int offset = (int) ChronoUnit.DAYS.between(weekBeginDate, assignment.getDate());
+                startOffset = Math.min(startOffset, offset);
+                endOffset = Math.max(endOffset, offset);
+            }
+            int dayCount = endOffset - startOffset + 1;
+            byte[] vector = ShiftVectorCodec.newVector(dayCount);
+            for (ShiftAssignment assignment : entry.getValue()) {
+                int day = (int) ChronoUnit.DAYS.between(weekBeginDate, assignment.getDate()) - startOffset;
+                ShiftVectorCodec.set(vector, day, assignment.getShiftType());
+            }
+            rows.add(new Object[]{job.getId(), entry.getKey(), (short) startOffset, (short) dayCount, vector});
+        }
+
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows.subList(from, Math.min(from + batchSize, rows.size())));
+        }
+        log.debug("Stored {} packed shift vectors ({} assignments) for job {}", rows.size(), assignments.size(), job.getId());
+    }
+}
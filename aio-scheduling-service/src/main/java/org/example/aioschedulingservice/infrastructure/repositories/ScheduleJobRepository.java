@@ -3,11 +3,43 @@ package org.example.aioschedulingservice.infrastructure.repositories;
 import org.example.aioschedulingservice.domain.entities.ScheduleJob;
 import org.example.aioschedulingservice.domain.enums.JobStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface ScheduleJobRepository extends JpaRepository<ScheduleJob, String> {
     List<ScheduleJob> findByStatus(JobStatus status);
+
+    long countByStatus(JobStatus status);
+
+    @Query("SELECT j.status, COUNT(j) FROM ScheduleJob j WHERE j.batchId = :batchId GROUP BY j.status")
+    List<Object[]> countStatusesByBatchId(@Param("batchId") String batchId);
+
+    @Query(value = "SELECT * FROM schedule_job " +
+            "WHERE status = 'QUEUED' AND (locked_until IS NULL OR locked_until < :now) " +
+            "ORDER BY created_at " +
+            "LIMIT :limit " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<ScheduleJob> findClaimableJobs(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE ScheduleJob j SET j.lockedUntil = NULL WHERE j.id = :jobId AND j.status = :status")
+    int releaseClaim(@Param("jobId") String jobId, @Param("status") JobStatus status);
+
+    // a holder can only raise the token, so an older holder that lost its lock can no longer finish the job
+    @Modifying
+    @Query(value = "UPDATE schedule_job SET fence_token = :token " +
+            "WHERE id = :jobId AND (fence_token IS NULL OR fence_token < :token)", nativeQuery = true)
+    int advanceFenceToken(@Param("jobId") String jobId, @Param("token") long token);
+
+    @Modifying
+    @Query(value = "UPDATE schedule_job SET status = :status, error_message = :errorMessage, locked_until = NULL " +
+            "WHERE id = :jobId AND fence_token = :token", nativeQuery = true)
+    int finishFenced(@Param("jobId") String jobId, @Param("token") long token,
+                     @Param("status") String status, @Param("errorMessage") String errorMessage);
 }
@@ -0,0 +1,14 @@
+package org.example.aioschedulingservice.infrastructure.repositories;
+
+import org.example.aioschedulingservice.domain.entities.ShiftAssignment;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface ShiftAssignmentRepositoryCustom {
+    List<ShiftAssignment> findByScheduleJobId(String scheduleJobId);
+    LocalDate findMinDateByJobId(String jobId);
+    LocalDate findMaxDateByJobId(String jobId);
+    void streamByScheduleJobId(String scheduleJobId, int fetchSize, Consumer<ShiftAssignment> consumer);
+}
@@ -0,0 +1,116 @@
+package org.example.aioschedulingservice.infrastructure.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.example.aioschedulingservice.application.utils.ShiftVectorCodec;
+import org.example.aioschedulingservice.domain.entities.ScheduleJob;
+import org.example.aioschedulingservice.domain.entities.ShiftAssignment;
+import org.example.aioschedulingservice.domain.enums.ShiftType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+@RequiredArgsConstructor
+public class ShiftAssignmentRepositoryImpl implements ShiftAssignmentRepositoryCustom {
+    private static final String SELECT_VECTORS_SQL =
+            "SELECT v.staff_id, v.start_offset, v.day_count, v.shifts, j.week_begin_date " +
+            "FROM staff_shift_vector v JOIN schedule_job j ON j.id = v.schedule_job_id " +
+            "WHERE v.schedule_job_id = ? ORDER BY v.staff_id";
+    private static final String SELECT_ROWS_SQL =
+            "SELECT staff_id, assignment_date, shift_type FROM shift_assignment WHERE schedule_job_id = ? ORDER BY id";
+    private static final String MIN_VECTOR_DATE_SQL =
+            "SELECT MIN(j.week_begin_date + v.start_offset) " +
+            "FROM staff_shift_vector v JOIN schedule_job j ON j.id = v.schedule_job_id WHERE v.schedule_job_id = ?";
+    private static final String MAX_VECTOR_DATE_SQL =
+            "SELECT MAX(j.week_begin_date + v.start_offset + v.day_count - 1) " +
+            "FROM staff_shift_vector v JOIN schedule_job j ON j.id = v.schedule_job_id WHERE v.schedule_job_id = ?";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<ShiftAssignment> findByScheduleJobId(String scheduleJobId) {
+        ScheduleJob job = entityManager.getReference(ScheduleJob.class, scheduleJobId);
+        List<ShiftAssignment> assignments = new ArrayList<>();
+        jdbcTemplate.query(SELECT_VECTORS_SQL, (RowCallbackHandler) rs -> decodeVector(rs, job, assignments::add), scheduleJobId);
+        if (!assignments.isEmpty()) {
+            return assignments;
+        }
+        return entityManager.createQuery(
+                        "SELECT sa FROM ShiftAssignment sa WHERE sa.scheduleJob.id = :jobId", ShiftAssignment.class)
+                .setParameter("jobId", scheduleJobId)
+                .getResultList();
+    }
+
+    @Override
+    public void streamByScheduleJobId(String scheduleJobId, int fetchSize, Consumer<ShiftAssignment> consumer) {
+        JdbcTemplate cursorTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        cursorTemplate.setFetchSize(fetchSize);
+
+        boolean[] packed = {false};
+        cursorTemplate.query(SELECT_VECTORS_SQL, (RowCallbackHandler) rs -> {
+            packed[0] = true;
+            decodeVector(rs, null, consumer);
+        }, scheduleJobId);
+        if (packed[0]) {
+            return;
+        }
+        cursorTemplate.query(SELECT_ROWS_SQL, (RowCallbackHandler) rs -> consumer.accept(ShiftAssignment.builder()
+                .staffId(rs.getString("staff_id"))
+                .date(rs.getObject("assignment_date", LocalDate.class))
+                .shiftType(ShiftType.valueOf(rs.getString("shift_type")))
+                .build()), scheduleJobId);
+    }
+
+    @Override
+    public LocalDate findMinDateByJobId(String jobId) {
+        LocalDate packed = jdbcTemplate.queryForObject(MIN_VECTOR_DATE_SQL, LocalDate.class, jobId);
+        if (packed != null) {
+            return packed;
+        }
+        return entityManager.createQuery(
+                        "SELECT MIN(sa.date) FROM ShiftAssignment sa WHERE sa.scheduleJob.id = :jobId", LocalDate.class)
+                .setParameter("jobId", jobId)
+                .getSingleResult();
+    }
+
+    @Override
+    public LocalDate findMaxDateByJobId(String jobId) {
+        LocalDate packed = jdbcTemplate.queryForObject(MAX_VECTOR_DATE_SQL, LocalDate.class, jobId);
+        if (packed != null) {
+            return packed;
+        }
+        return entityManager.createQuery(
+                        "SELECT MAX(sa.date) FROM ShiftAssignment sa WHERE sa.scheduleJob.id = :jobId", LocalDate.class)
+                .setParameter("jobId", jobId)
+                .getSingleResult();
+    }
+
+    private static void decodeVector(ResultSet rs, ScheduleJob job, Consumer<ShiftAssignment> consumer) throws SQLException {
+        String staffId = rs.getString("staff_id");
+        int startOffset = rs.getShort("start_offset");
+        int dayCount = rs.getShort("day_count");
+        byte[] vector = rs.getBytes("shifts");
+        LocalDate startDate = rs.getObject("week_begin_date", LocalDate.class).plusDays(startOffset);
+        for (int day = 0; day < dayCount; day++) {
+            ShiftType shiftType = ShiftVectorCodec.get(vector, day);
+            if (shiftType != null) {
+                consumer.accept(ShiftAssignment.builder()
+                        .scheduleJob(job)
+                        .staffId(staffId)
+                        .date(startDate.plusDays(day))
+                        .shiftType(shiftType)
+                        .build());
+            }
+        }
+    }
+}
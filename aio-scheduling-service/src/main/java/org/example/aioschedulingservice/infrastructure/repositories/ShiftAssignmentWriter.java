@@ -0,0 +1,10 @@
+package org.example.aioschedulingservice.infrastructure.repositories;
+
+import org.example.aioschedulingservice.domain.entities.ScheduleJob;
+import org.example.aioschedulingservice.domain.entities.ShiftAssignment;
+
+import java.util.List;
+
+public interface ShiftAssignmentWriter {
+    void write(ScheduleJob job, List<ShiftAssignment> assignments);
+}
@@ -4,15 +4,19 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.example.aioschedulingservice.application.dtos.schedulebatch.CreateScheduleBatchRequestDto;
+import org.example.aioschedulingservice.application.dtos.schedulebatch.ScheduleBatchResponseDto;
 import org.example.aioschedulingservice.application.dtos.schedulejob.CreateScheduleRequestDto;
 import org.example.aioschedulingservice.application.dtos.schedulejob.ScheduleResponseDto;
 import org.example.aioschedulingservice.application.dtos.shiftassignment.GetScheduleResultDto;
 import org.example.aioschedulingservice.application.services.ScheduleService;
 import org.example.aioschedulingservice.domain.entities.ScheduleJob;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -50,6 +54,22 @@ public class ScheduleController {
         return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Generate schedules in batch",
+               description = "Submits many (staffGroupId, weekBeginDate) schedule requests in one call and returns a batch ID.")
+    public ResponseEntity<ScheduleBatchResponseDto> generateScheduleBatch(@Valid @RequestBody CreateScheduleBatchRequestDto requestDto) {
+        ScheduleBatchResponseDto response = service.generateScheduleBatch(requestDto);
+        return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/batch/{batchId}/status")
+    @Operation(summary = "Get the progress of a schedule batch",
+               description = "Retrieves the number of jobs per status for a schedule batch.")
+    public ResponseEntity<ScheduleBatchResponseDto> getBatchStatus(@PathVariable String batchId) {
+        ScheduleBatchResponseDto response = service.getBatchStatus(batchId);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping(value = "/{scheduleId}/result")
     @Operation(summary = "Get the generated schedule",
                description = "Retrieves the generated schedule by its ID.")
@@ -58,4 +78,19 @@ public class ScheduleController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping(value = "/{scheduleId}/result/stream",
+                produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Stream the generated schedule",
+               description = "Streams the generated schedule row by row as JSON, or as NDJSON when requested with Accept: application/x-ndjson.")
+    public ResponseEntity<StreamingResponseBody> streamGeneratedSchedule(
+            @PathVariable String scheduleId,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        service.getJobStatus(scheduleId);
+        boolean ndjson = accept != null && accept.contains(MediaType.APPLICATION_NDJSON_VALUE);
+        StreamingResponseBody body = outputStream -> service.streamGeneratedSchedule(scheduleId, outputStream, ndjson);
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
 }
@@ -0,0 +1,4 @@
+ALTER TABLE schedule_job ADD COLUMN IF NOT EXISTS created_at TIMESTAMP NOT NULL DEFAULT NOW();
+ALTER TABLE schedule_job ADD COLUMN IF NOT EXISTS locked_until TIMESTAMP;
+
+CREATE INDEX IF NOT EXISTS idx_schedule_job_queued ON schedule_job(created_at) WHERE status = 'QUEUED';
@@ -0,0 +1,8 @@
+CREATE TABLE IF NOT EXISTS staff_shift_vector (
+                                    schedule_job_id VARCHAR(100) NOT NULL REFERENCES schedule_job(id) ON DELETE CASCADE,
+                                    staff_id VARCHAR(100) NOT NULL,
+                                    start_offset SMALLINT NOT NULL,
+                                    day_count SMALLINT NOT NULL,
+                                    shifts BYTEA NOT NULL,
+                                    PRIMARY KEY (schedule_job_id, staff_id)
+);
@@ -0,0 +1,3 @@
+ALTER TABLE schedule_job ADD COLUMN IF NOT EXISTS batch_id VARCHAR(100);
+
+CREATE INDEX IF NOT EXISTS idx_schedule_job_batch_id ON schedule_job(batch_id);
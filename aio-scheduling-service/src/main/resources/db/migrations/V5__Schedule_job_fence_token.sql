@@ -0,0 +1 @@
+ALTER TABLE schedule_job ADD COLUMN IF NOT EXISTS fence_token BIGINT;
@@ -0,0 +1,97 @@
+package org.example.aioschedulingservice.application.services;
+
+import io.lettuce.core.cluster.SlotHash;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.aioschedulingservice.infrastructure.configs.SchedulingProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+class LockServiceTest {
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7.2-alpine").withExposedPorts(6379);
+
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+    private LockService lockService;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new LettuceConnectionFactory(redis.getHost(), redis.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.getRequiredConnectionFactory().getConnection().serverCommands().flushAll();
+        lockService = new LockService(redisTemplate, new SchedulingProperties(), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        lockService.shutdown();
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void fencingTokensIncreasePerJobAndShareTheLockSlot() {
+        long first;
+        try (DistributedLock lock = lockService.tryAcquire("job", "j1", Duration.ZERO).orElseThrow()) {
+            first = lock.getFencingToken();
+            assertThat(SlotHash.getSlot(lock.getKey())).isEqualTo(SlotHash.getSlot(lock.getKey() + ":fencing-token"));
+            assertThat(lockService.tryAcquire("job", "j1", Duration.ZERO)).isEmpty();
+        }
+        try (DistributedLock lock = lockService.tryAcquire("job", "j1", Duration.ZERO).orElseThrow()) {
+            assertThat(lock.getFencingToken()).isEqualTo(first + 1);
+        }
+        // new counters start from the Redis clock, so they stay above fence tokens stored from the old global counter
+        assertThat(first).isGreaterThan(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1));
+    }
+
+    @Test
+    void releaseOnlyDeletesTheOwnersKey() {
+        DistributedLock lock = lockService.tryAcquire("job", "j1", Duration.ZERO).orElseThrow();
+        redisTemplate.opsForValue().set(lock.getKey(), "another-worker");
+
+        lock.close();
+
+        assertThat(redisTemplate.opsForValue().get(lock.getKey())).isEqualTo("another-worker");
+    }
+
+    @Test
+    void watchdogKeepsTheLeaseAliveUntilClose() throws Exception {
+        Duration lease = Duration.ofMillis(300);
+        DistributedLock lock = lockService.tryAcquire("job", "j1", lease, Duration.ZERO).orElseThrow();
+
+        Thread.sleep(lease.multipliedBy(3).toMillis());
+
+        assertThat(lock.isHeld()).isTrue();
+        assertThat(redisTemplate.hasKey(lock.getKey())).isTrue();
+        lock.close();
+        assertThat(redisTemplate.hasKey(lock.getKey())).isFalse();
+    }
+
+    @Test
+    void failedRenewalMarksTheLockLost() throws Exception {
+        Duration lease = Duration.ofMillis(300);
+        DistributedLock lock = lockService.tryAcquire("job", "j1", lease, Duration.ZERO).orElseThrow();
+        redisTemplate.opsForValue().set(lock.getKey(), "another-worker");
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (lock.isHeld() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertThat(lock.isHeld()).isFalse();
+    }
+}
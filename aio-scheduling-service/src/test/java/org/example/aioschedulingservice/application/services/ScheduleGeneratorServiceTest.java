@@ -0,0 +1,122 @@
+package org.example.aioschedulingservice.application.services;
+
+import org.example.aioschedulingservice.application.webclients.DataServiceClient;
+import org.example.aioschedulingservice.domain.entities.ScheduleJob;
+import org.example.aioschedulingservice.domain.enums.JobStatus;
+import org.example.aioschedulingservice.infrastructure.configs.SchedulingProperties;
+import org.example.aioschedulingservice.infrastructure.repositories.ScheduleJobRepository;
+import org.example.aioschedulingservice.infrastructure.repositories.ShiftAssignmentWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ScheduleGeneratorServiceTest {
+    private static final long TOKEN = 42;
+
+    private final ScheduleJobRepository scheduleJobRepository = mock(ScheduleJobRepository.class);
+    private final DataServiceClient dataServiceClient = mock(DataServiceClient.class);
+    private final LockService lockService = mock(LockService.class);
+    private final ShiftAssignmentWriter shiftAssignmentWriter = mock(ShiftAssignmentWriter.class);
+    private final ScheduleJobQueue scheduleJobQueue = mock(ScheduleJobQueue.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final ScheduleJob job = ScheduleJob.builder()
+            .id("job-1")
+            .staffGroupId("group-1")
+            .weekBeginDate(LocalDate.of(2026, 10, 19))
+            .status(JobStatus.QUEUED)
+            .createdAt(LocalDateTime.now())
+            .build();
+    private DistributedLock lock;
+    private ScheduleGeneratorService service;
+
+    @BeforeEach
+    void setUp() {
+        SchedulingProperties properties = new SchedulingProperties();
+        SchedulingProperties.Rules rules = new SchedulingProperties.Rules();
+        rules.setPeriodWeeks(1);
+        rules.setDayOff(new SchedulingProperties.Rules.DayOff());
+        properties.setRules(rules);
+        service = new ScheduleGeneratorService(properties, scheduleJobRepository, dataServiceClient, lockService,
+                shiftAssignmentWriter, scheduleJobQueue, transactionManager);
+
+        lock = spy(new DistributedLock(lockService, "lock:{job:job-1}", "owner", TOKEN, Duration.ofMinutes(1)));
+        when(lockService.tryAcquire("job", "job-1", Duration.ZERO)).thenReturn(Optional.of(lock));
+        when(scheduleJobQueue.fence("job-1", TOKEN)).thenReturn(true);
+        when(scheduleJobRepository.findById("job-1")).thenReturn(Optional.of(job));
+        when(dataServiceClient.getStaffForGroup("group-1")).thenReturn(Set.of("s1", "s2"));
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @Test
+    void writesAssignmentsOnlyAfterTheFencedStatusUpdate() {
+        when(scheduleJobRepository.finishFenced("job-1", TOKEN, JobStatus.PENDING.name(), null)).thenReturn(1);
+
+        service.generateScheduleAsync("job-1");
+
+        var order = inOrder(scheduleJobQueue, scheduleJobRepository, shiftAssignmentWriter, lock);
+        order.verify(scheduleJobQueue).fence("job-1", TOKEN);
+        order.verify(scheduleJobRepository).finishFenced("job-1", TOKEN, JobStatus.PENDING.name(), null);
+        order.verify(shiftAssignmentWriter).write(eq(job), argThat(assignments -> assignments.size() == 14));
+        order.verify(lock).close();
+    }
+
+    @Test
+    void skipsTheJobWhenANewerHolderAlreadyFencedIt() {
+        when(scheduleJobQueue.fence("job-1", TOKEN)).thenReturn(false);
+
+        service.generateScheduleAsync("job-1");
+
+        verifyNoInteractions(dataServiceClient, shiftAssignmentWriter);
+        verify(scheduleJobQueue, never()).finish(any(), anyLong(), any(), any());
+        verify(lock).close();
+    }
+
+    @Test
+    void discardsAssignmentsWhenFencedOutDuringGeneration() {
+        when(scheduleJobRepository.finishFenced("job-1", TOKEN, JobStatus.PENDING.name(), null)).thenReturn(0);
+
+        service.generateScheduleAsync("job-1");
+
+        verifyNoInteractions(shiftAssignmentWriter);
+        verify(scheduleJobQueue, never()).finish(any(), anyLong(), any(), any());
+    }
+
+    @Test
+    void failuresAreRecordedUnderTheSameToken() {
+        when(dataServiceClient.getStaffForGroup("group-1")).thenThrow(new IllegalStateException("data service down"));
+
+        service.generateScheduleAsync("job-1");
+
+        verify(scheduleJobQueue).finish(eq("job-1"), eq(TOKEN), eq(JobStatus.FAILED), contains("data service down"));
+        verifyNoInteractions(shiftAssignmentWriter);
+        verify(lock).close();
+    }
+
+    @Test
+    void emptyGroupsFailUnderTheSameToken() {
+        when(dataServiceClient.getStaffForGroup("group-1")).thenReturn(Set.of());
+
+        service.generateScheduleAsync("job-1");
+
+        verify(scheduleJobQueue).finish(eq("job-1"), eq(TOKEN), eq(JobStatus.FAILED), contains("No staff members"));
+    }
+
+    @Test
+    void doesNothingWithoutTheLock() {
+        when(lockService.tryAcquire("job", "job-1", Duration.ZERO)).thenReturn(Optional.empty());
+
+        service.generateScheduleAsync("job-1");
+
+        verifyNoInteractions(scheduleJobQueue, scheduleJobRepository, dataServiceClient, shiftAssignmentWriter);
+    }
+}
@@ -0,0 +1,96 @@
+package org.example.aioschedulingservice.application.services;
+
+import org.example.aioschedulingservice.application.exceptions.DataServiceException;
+import org.example.aioschedulingservice.application.webclients.DataServiceClient;
+import org.example.aioschedulingservice.domain.entities.ScheduleJob;
+import org.example.aioschedulingservice.domain.enums.JobStatus;
+import org.example.aioschedulingservice.infrastructure.configs.SchedulingProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ScheduleJobDispatcherTest {
+    private final ScheduleJobQueue scheduleJobQueue = mock(ScheduleJobQueue.class);
+    private final ScheduleGeneratorService scheduleGeneratorService = mock(ScheduleGeneratorService.class);
+    private final DataServiceClient dataServiceClient = mock(DataServiceClient.class);
+    private final ThreadPoolTaskExecutor taskExecutor = mock(ThreadPoolTaskExecutor.class);
+
+    private ScheduleJobDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new ScheduleJobDispatcher(scheduleJobQueue, scheduleGeneratorService, dataServiceClient,
+                taskExecutor, new SchedulingProperties());
+        when(taskExecutor.getMaxPoolSize()).thenReturn(4);
+        when(taskExecutor.getQueueCapacity()).thenReturn(4);
+        SyncTaskExecutor inline = new SyncTaskExecutor();
+        doAnswer(invocation -> {
+            inline.execute(invocation.getArgument(0));
+            return null;
+        }).when(taskExecutor).execute(any(Runnable.class));
+        when(scheduleJobQueue.claim(anyInt())).thenReturn(List.of(job("job-1", "g1"), job("job-2", "g2"), job("job-3", "g1")));
+    }
+
+    @Test
+    void oneBulkCallResolvesStaffForEveryClaimedJob() {
+        when(dataServiceClient.resolveMembersForGroups(anyCollection()))
+                .thenReturn(Mono.just(Map.of("g1", Set.of("s1", "s2"), "g2", Set.of("s3"))));
+
+        dispatcher.dispatchQueuedJobs();
+
+        verify(dataServiceClient, times(1)).resolveMembersForGroups(argThat((Collection<String> ids) -> Set.copyOf(ids).equals(Set.of("g1", "g2"))));
+        verify(scheduleGeneratorService).generateScheduleAsync("job-1", Set.of("s1", "s2"));
+        verify(scheduleGeneratorService).generateScheduleAsync("job-2", Set.of("s3"));
+        verify(scheduleGeneratorService).generateScheduleAsync("job-3", Set.of("s1", "s2"));
+    }
+
+    @Test
+    void groupsMissingFromTheBulkResultResolveIndividually() {
+        when(dataServiceClient.resolveMembersForGroups(anyCollection()))
+                .thenReturn(Mono.just(Map.of("g1", Set.of("s1"))));
+
+        dispatcher.dispatchQueuedJobs();
+
+        verify(scheduleGeneratorService).generateScheduleAsync("job-1", Set.of("s1"));
+        verify(scheduleGeneratorService).generateScheduleAsync("job-2", null);
+    }
+
+    @Test
+    void failedBulkCallLetsEveryJobResolveIndividually() {
+        when(dataServiceClient.resolveMembersForGroups(anyCollection()))
+                .thenReturn(Mono.error(new DataServiceException("Server error from Data Service: 503")));
+
+        dispatcher.dispatchQueuedJobs();
+
+        verify(scheduleGeneratorService).generateScheduleAsync("job-1", null);
+        verify(scheduleGeneratorService).generateScheduleAsync("job-2", null);
+        verify(scheduleGeneratorService).generateScheduleAsync("job-3", null);
+    }
+
+    private static ScheduleJob job(String id, String staffGroupId) {
+        return ScheduleJob.builder()
+                .id(id)
+                .staffGroupId(staffGroupId)
+                .weekBeginDate(LocalDate.now().plusDays(7))
+                .status(JobStatus.QUEUED)
+                .build();
+    }
+}
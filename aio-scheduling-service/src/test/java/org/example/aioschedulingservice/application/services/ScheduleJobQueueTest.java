@@ -0,0 +1,164 @@
+package org.example.aioschedulingservice.application.services;
+
+import org.example.aioschedulingservice.domain.entities.ScheduleJob;
+import org.example.aioschedulingservice.domain.enums.JobStatus;
+import org.example.aioschedulingservice.infrastructure.configs.SchedulingProperties;
+import org.example.aioschedulingservice.infrastructure.repositories.ScheduleJobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "scheduling.queue.max-queued-jobs=5")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(ScheduleJobQueue.class)
+@EnableConfigurationProperties(SchedulingProperties.class)
+class ScheduleJobQueueTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private ScheduleJobQueue scheduleJobQueue;
+
+    @Autowired
+    private ScheduleJobRepository scheduleJobRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void clearQueue() {
+        scheduleJobRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentClaimSkipsRowsLockedByAnotherWorker() throws Exception {
+        scheduleJobQueue.enqueueAll(queuedJobs(5));
+        CountDownLatch firstLocked = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<List<String>> first = executor.submit(() -> new TransactionTemplate(transactionManager).execute(status -> {
+                List<String> ids = ids(scheduleJobRepository.findClaimableJobs(LocalDateTime.now(), 2));
+                firstLocked.countDown();
+                try {
+                    releaseFirst.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return ids;
+            }));
+            assertThat(firstLocked.await(10, TimeUnit.SECONDS)).isTrue();
+
+            List<String> second = ids(scheduleJobQueue.claim(10));
+            releaseFirst.countDown();
+            List<String> firstIds = first.get(10, TimeUnit.SECONDS);
+
+            assertThat(firstIds).hasSize(2);
+            assertThat(second).hasSize(3).doesNotContainAnyElementsOf(firstIds);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void claimedJobsAreLeasedUntilReleased() {
+        scheduleJobQueue.enqueueAll(queuedJobs(3));
+
+        List<ScheduleJob> claimed = scheduleJobQueue.claim(10);
+        assertThat(claimed).hasSize(3).allSatisfy(job -> assertThat(job.getLockedUntil()).isAfter(LocalDateTime.now()));
+        assertThat(scheduleJobQueue.claim(10)).isEmpty();
+
+        scheduleJobQueue.release(claimed.get(0).getId());
+        assertThat(ids(scheduleJobQueue.claim(10))).containsExactly(claimed.get(0).getId());
+    }
+
+    @Test
+    void claimReturnsOldestJobsFirstAndHonoursTheLimit() {
+        List<ScheduleJob> jobs = queuedJobs(4);
+        scheduleJobQueue.enqueueAll(jobs);
+
+        assertThat(ids(scheduleJobQueue.claim(2))).containsExactly(jobs.get(0).getId(), jobs.get(1).getId());
+        assertThat(scheduleJobQueue.claim(0)).isEmpty();
+    }
+
+    @Test
+    void queueReportsBackpressureAtMaxQueuedJobs() {
+        scheduleJobQueue.enqueueAll(queuedJobs(4));
+        assertThat(scheduleJobQueue.isFull()).isFalse();
+        assertThat(scheduleJobQueue.hasRoomFor(2)).isFalse();
+
+        scheduleJobQueue.enqueueAll(queuedJobs(1));
+        assertThat(scheduleJobQueue.isFull()).isTrue();
+    }
+
+    @Test
+    void fenceOnlyMovesForwardAndFinishNeedsTheCurrentToken() {
+        List<ScheduleJob> jobs = queuedJobs(1);
+        scheduleJobQueue.enqueueAll(jobs);
+        String jobId = jobs.get(0).getId();
+
+        assertThat(scheduleJobQueue.fence(jobId, 10)).isTrue();
+        assertThat(scheduleJobQueue.fence(jobId, 11)).isTrue();
+        // the holder with token 10 paused past its lease; it can neither re-fence nor finish the job
+        assertThat(scheduleJobQueue.fence(jobId, 10)).isFalse();
+        assertThat(scheduleJobQueue.fence(jobId, 11)).isFalse();
+        assertThat(scheduleJobQueue.finish(jobId, 10, JobStatus.FAILED, "stale")).isFalse();
+        assertThat(scheduleJobRepository.findById(jobId).orElseThrow().getStatus()).isEqualTo(JobStatus.QUEUED);
+
+        assertThat(scheduleJobQueue.finish(jobId, 11, JobStatus.FAILED, "boom")).isTrue();
+        ScheduleJob finished = scheduleJobRepository.findById(jobId).orElseThrow();
+        assertThat(finished.getStatus()).isEqualTo(JobStatus.FAILED);
+        assertThat(finished.getErrorMessage()).isEqualTo("boom");
+        assertThat(finished.getLockedUntil()).isNull();
+    }
+
+    @Test
+    void fenceAndFinishIgnoreUnknownJobs() {
+        assertThat(scheduleJobQueue.fence("missing", 1)).isFalse();
+        assertThat(scheduleJobQueue.finish("missing", 1, JobStatus.FAILED, null)).isFalse();
+    }
+
+    private static List<ScheduleJob> queuedJobs(int count) {
+        LocalDateTime createdAt = LocalDateTime.now().minusMinutes(count);
+        List<ScheduleJob> jobs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            jobs.add(ScheduleJob.builder()
+                    .id(UUID.randomUUID().toString())
+                    .staffGroupId("group-" + i)
+                    .weekBeginDate(LocalDate.now().plusDays(7))
+                    .status(JobStatus.QUEUED)
+                    .createdAt(createdAt.plusSeconds(i))
+                    .build());
+        }
+        return jobs;
+    }
+
+    private static List<String> ids(List<ScheduleJob> jobs) {
+        return jobs.stream().map(ScheduleJob::getId).toList();
+    }
+}
@@ -0,0 +1,170 @@
+package org.example.aioschedulingservice.application.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.example.aioschedulingservice.application.dtos.schedulebatch.CreateScheduleBatchRequestDto;
+import org.example.aioschedulingservice.application.dtos.schedulebatch.ScheduleBatchResponseDto;
+import org.example.aioschedulingservice.application.dtos.schedulejob.CreateScheduleRequestDto;
+import org.example.aioschedulingservice.application.dtos.shiftassignment.ShiftAssignmentDto;
+import org.example.aioschedulingservice.application.exceptions.ResourceNotFoundException;
+import org.example.aioschedulingservice.application.exceptions.ScheduleQueueFullException;
+import org.example.aioschedulingservice.domain.entities.ScheduleJob;
+import org.example.aioschedulingservice.domain.entities.ShiftAssignment;
+import org.example.aioschedulingservice.domain.enums.JobStatus;
+import org.example.aioschedulingservice.domain.enums.ShiftType;
+import org.example.aioschedulingservice.infrastructure.configs.SchedulingProperties;
+import org.example.aioschedulingservice.infrastructure.repositories.ScheduleJobRepository;
+import org.example.aioschedulingservice.infrastructure.repositories.ShiftAssignmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ScheduleServiceImplTest {
+    private static final LocalDate WEEK = LocalDate.of(2026, 11, 2);
+
+    // configured like the mapper Spring Boot serialises GetScheduleResultDto with
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final ScheduleJobRepository scheduleJobRepository = mock(ScheduleJobRepository.class);
+    private final ShiftAssignmentRepository shiftAssignmentRepository = mock(ShiftAssignmentRepository.class);
+    private final ScheduleJobQueue scheduleJobQueue = mock(ScheduleJobQueue.class);
+
+    private ScheduleServiceImpl service;
+    private ScheduleJob job;
+    private List<ShiftAssignment> assignments;
+
+    @BeforeEach
+    void setUp() {
+        service = new ScheduleServiceImpl(scheduleJobRepository, shiftAssignmentRepository, scheduleJobQueue,
+                new SchedulingProperties(), objectMapper);
+        job = ScheduleJob.builder()
+                .id("job-1")
+                .staffGroupId("group-1")
+                .weekBeginDate(WEEK)
+                .status(JobStatus.PENDING)
+                .build();
+        assignments = new ArrayList<>();
+        ShiftType[] shiftTypes = {ShiftType.MORNING, ShiftType.EVENING, ShiftType.DAY_OFF};
+        for (int day = 0; day < 3; day++) {
+            for (String staffId : List.of("s1", "s2")) {
+                assignments.add(ShiftAssignment.builder()
+                        .scheduleJob(job)
+                        .staffId(staffId)
+                        .date(WEEK.plusDays(day))
+                        .shiftType(shiftTypes[day])
+                        .build());
+            }
+        }
+        when(scheduleJobRepository.findById("job-1")).thenReturn(Optional.of(job));
+        when(scheduleJobRepository.findById("missing")).thenReturn(Optional.empty());
+        when(shiftAssignmentRepository.findByScheduleJobId("job-1")).thenReturn(assignments);
+        doAnswer(invocation -> {
+            Consumer<ShiftAssignment> consumer = invocation.getArgument(2);
+            assignments.forEach(consumer);
+            return null;
+        }).when(shiftAssignmentRepository).streamByScheduleJobId(eq("job-1"), anyInt(), any());
+    }
+
+    @Test
+    void streamedJsonMatchesTheBufferedResult() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.streamGeneratedSchedule("job-1", out, false);
+
+        JsonNode streamed = objectMapper.readTree(out.toByteArray());
+        JsonNode buffered = objectMapper.valueToTree(service.getGeneratedSchedule("job-1"));
+        assertThat(streamed).isEqualTo(buffered);
+        assertThat(objectMapper.convertValue(streamed.get("assignments"), ShiftAssignmentDto[].class))
+                .hasSize(6)
+                .startsWith(new ShiftAssignmentDto("s1", WEEK, ShiftType.MORNING));
+    }
+
+    @Test
+    void streamedNdjsonWritesOneAssignmentPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.streamGeneratedSchedule("job-1", out, true);
+
+        List<ShiftAssignmentDto> lines = new ArrayList<>();
+        for (String line : out.toString().split("\n")) {
+            lines.add(objectMapper.readValue(line, ShiftAssignmentDto.class));
+        }
+        assertThat(out.toString()).endsWith("\n");
+        assertThat(lines).containsExactlyElementsOf(service.getGeneratedSchedule("job-1").getAssignments());
+    }
+
+    @Test
+    void streamingAnUnknownScheduleThrowsBeforeWritingAnything() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThatThrownBy(() -> service.streamGeneratedSchedule("missing", out, false))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(out.size()).isZero();
+        verify(shiftAssignmentRepository, never()).streamByScheduleJobId(eq("missing"), anyInt(), any());
+    }
+
+    @Test
+    void batchIsRejectedWhenTheQueueCannotTakeEveryJob() {
+        when(scheduleJobQueue.hasRoomFor(3)).thenReturn(false);
+
+        assertThatThrownBy(() -> service.generateScheduleBatch(batch(3)))
+                .isInstanceOf(ScheduleQueueFullException.class)
+                .hasMessageContaining("3");
+        verify(scheduleJobQueue, never()).enqueueAll(anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void batchEnqueuesEveryJobUnderOneBatchId() {
+        when(scheduleJobQueue.hasRoomFor(3)).thenReturn(true);
+
+        ScheduleBatchResponseDto response = service.generateScheduleBatch(batch(3));
+
+        ArgumentCaptor<List<ScheduleJob>> enqueued = ArgumentCaptor.forClass(List.class);
+        verify(scheduleJobQueue).enqueueAll(enqueued.capture());
+        assertThat(enqueued.getValue())
+                .hasSize(3)
+                .allSatisfy(queued -> {
+                    assertThat(queued.getBatchId()).isEqualTo(response.getBatchId());
+                    assertThat(queued.getStatus()).isEqualTo(JobStatus.QUEUED);
+                })
+                .extracting(ScheduleJob::getStaffGroupId)
+                .containsExactly("group-0", "group-1", "group-2");
+        assertThat(response.getTotalJobs()).isEqualTo(3);
+        assertThat(response.getScheduleIds()).containsExactlyElementsOf(enqueued.getValue().stream().map(ScheduleJob::getId).toList());
+    }
+
+    private static CreateScheduleBatchRequestDto batch(int size) {
+        List<CreateScheduleRequestDto> schedules = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            CreateScheduleRequestDto schedule = new CreateScheduleRequestDto();
+            schedule.setStaffGroupId("group-" + i);
+            schedule.setWeekBeginDate(WEEK);
+            schedules.add(schedule);
+        }
+        CreateScheduleBatchRequestDto request = new CreateScheduleBatchRequestDto();
+        request.setSchedules(schedules);
+        return request;
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.aioschedulingservice.application.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+// Engine time for a 4-week schedule as the group grows; linear in staff x days.
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ShiftScheduleEngineBenchmark {
+    private static final int[] STAFF = {100, 1_000, 10_000, 50_000};
+    private static final int DAYS = 28;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 15;
+
+    @Test
+    void generateForGrowingGroups() {
+        ShiftScheduleEngine engine = new ShiftScheduleEngine(true, true, true, 1);
+        LocalDate startDate = LocalDate.of(2026, 10, 19);
+        System.out.printf("shift engine, %d days%n", DAYS);
+        for (int staff : STAFF) {
+            for (int round = 0; round < WARMUP_ROUNDS; round++) {
+                engine.generate(startDate, DAYS, staff);
+            }
+            long[] elapsed = new long[ROUNDS];
+            for (int round = 0; round < ROUNDS; round++) {
+                long startedAt = System.nanoTime();
+                engine.generate(startDate, DAYS, staff);
+                elapsed[round] = System.nanoTime() - startedAt;
+            }
+            double median = median(elapsed);
+            System.out.printf("  %6d staff  median %8.2f ms  (%.1f ns per staff-day)%n",
+                    staff, median, median * 1e6 / ((double) staff * DAYS));
+        }
+    }
+
+    private static double median(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2] / 1e6;
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.aioschedulingservice.application.services;
+
+import org.example.aioschedulingservice.application.utils.DateUtil;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.example.aioschedulingservice.application.services.ShiftScheduleEngine.*;
+
+class ShiftScheduleEngineTest {
+    private static final LocalDate MONDAY = LocalDate.of(2026, 10, 19);
+    private static final int DAYS = 28;
+    private static final int STAFF = 500;
+
+    @Test
+    void generatesOneShiftPerStaffAndDay() {
+        byte[][] shifts = new ShiftScheduleEngine(true, true, true, 1).generate(MONDAY, DAYS, STAFF);
+
+        assertThat(shifts).hasNumberOfRows(STAFF);
+        for (byte[] staffShifts : shifts) {
+            assertThat(staffShifts).hasSize(DAYS);
+            for (byte shift : staffShifts) {
+                assertThat(shift).isIn(MORNING, EVENING, DAY_OFF);
+            }
+        }
+    }
+
+    @Test
+    void neverSchedulesMorningAfterEvening() {
+        byte[][] shifts = new ShiftScheduleEngine(true, true, true, 1).generate(MONDAY, DAYS, STAFF);
+
+        for (byte[] staffShifts : shifts) {
+            for (int day = 1; day < DAYS; day++) {
+                if (staffShifts[day - 1] == EVENING) {
+                    assertThat(staffShifts[day]).isNotEqualTo(MORNING);
+                }
+            }
+        }
+    }
+
+    @Test
+    void givesEachWeekEndingOnSundayItsDayOff() {
+        byte[][] shifts = new ShiftScheduleEngine(true, true, true, 1).generate(MONDAY, DAYS, STAFF);
+
+        for (byte[] staffShifts : shifts) {
+            int weekStart = 0;
+            for (int day = 1; day <= DAYS; day++) {
+                if (day == DAYS || DateUtil.getWeekOfYear(MONDAY.plusDays(day)) != DateUtil.getWeekOfYear(MONDAY.plusDays(weekStart))) {
+                    int dayOffs = 0;
+                    boolean hasSunday = false;
+                    for (int d = weekStart; d < day; d++) {
+                        dayOffs += staffShifts[d] == DAY_OFF ? 1 : 0;
+                        hasSunday |= MONDAY.plusDays(d).getDayOfWeek() == DayOfWeek.SUNDAY;
+                    }
+                    if (hasSunday) {
+                        assertThat(dayOffs).isEqualTo(1);
+                    } else {
+                        assertThat(dayOffs).isLessThanOrEqualTo(1);
+                    }
+                    weekStart = day;
+                }
+            }
+        }
+    }
+
+    @Test
+    void balancesMorningAndEveningShifts() {
+        byte[][] shifts = new ShiftScheduleEngine(false, true, false, 0).generate(MONDAY, DAYS, STAFF);
+
+        for (byte[] staffShifts : shifts) {
+            int balance = 0;
+            for (byte shift : staffShifts) {
+                assertThat(shift).isNotEqualTo(DAY_OFF);
+                balance += shift == MORNING ? 1 : -1;
+                assertThat(Math.abs(balance)).isLessThanOrEqualTo(1);
+            }
+        }
+    }
+}
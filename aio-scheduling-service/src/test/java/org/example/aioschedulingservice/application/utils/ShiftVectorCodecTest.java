@@ -0,0 +1,88 @@
+package org.example.aioschedulingservice.application.utils;
+
+import org.example.aioschedulingservice.domain.enums.ShiftType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShiftVectorCodecTest {
+
+    @Test
+    void packsFourDaysPerByte() {
+        assertThat(ShiftVectorCodec.newVector(1)).hasSize(1);
+        assertThat(ShiftVectorCodec.newVector(4)).hasSize(1);
+        assertThat(ShiftVectorCodec.newVector(5)).hasSize(2);
+        assertThat(ShiftVectorCodec.newVector(28)).hasSize(7);
+    }
+
+    @Test
+    void newVectorHasNoShifts() {
+        byte[] vector = ShiftVectorCodec.newVector(9);
+        for (int day = 0; day < 9; day++) {
+            assertThat(ShiftVectorCodec.get(vector, day)).isNull();
+        }
+    }
+
+    @Test
+    void roundTripsEveryShiftOnEveryDay() {
+        ShiftType[] shiftTypes = ShiftType.values();
+        Random random = new Random(7);
+        for (int days = 1; days <= 31; days++) {
+            ShiftType[] expected = new ShiftType[days];
+            byte[] vector = ShiftVectorCodec.newVector(days);
+            for (int day = 0; day < days; day++) {
+                expected[day] = random.nextInt(4) == 0 ? null : shiftTypes[random.nextInt(shiftTypes.length)];
+                if (expected[day] != null) {
+                    ShiftVectorCodec.set(vector, day, expected[day]);
+                }
+            }
+            for (int day = 0; day < days; day++) {
+                assertThat(ShiftVectorCodec.get(vector, day)).as("day %d of %d", day, days).isEqualTo(expected[day]);
+            }
+        }
+    }
+
+    @Test
+    void shiftCodesAreFixed() {
+        // stored vectors are decoded with these codes; reordering the enum must not change them
+        assertThat(ShiftType.MORNING.getCode()).isZero();
+        assertThat(ShiftType.EVENING.getCode()).isEqualTo(1);
+        assertThat(ShiftType.DAY_OFF.getCode()).isEqualTo(2);
+        for (ShiftType shiftType : ShiftType.values()) {
+            assertThat(ShiftType.fromCode(shiftType.getCode())).isEqualTo(shiftType);
+        }
+        assertThatThrownBy(() -> ShiftType.fromCode(3)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void storedLayoutIsTwoBitsPerDayFromTheLowBits() {
+        byte[] vector = ShiftVectorCodec.newVector(4);
+        ShiftVectorCodec.set(vector, 0, ShiftType.MORNING);
+        ShiftVectorCodec.set(vector, 1, ShiftType.EVENING);
+        ShiftVectorCodec.set(vector, 2, ShiftType.DAY_OFF);
+
+        assertThat(vector).containsExactly(0b11_10_01_00);
+        assertThat(ShiftVectorCodec.get(new byte[]{0b00_01_10_11}, 0)).isNull();
+        assertThat(ShiftVectorCodec.get(new byte[]{0b00_01_10_11}, 1)).isEqualTo(ShiftType.DAY_OFF);
+        assertThat(ShiftVectorCodec.get(new byte[]{0b00_01_10_11}, 2)).isEqualTo(ShiftType.EVENING);
+        assertThat(ShiftVectorCodec.get(new byte[]{0b00_01_10_11}, 3)).isEqualTo(ShiftType.MORNING);
+    }
+
+    @Test
+    void overwritingADayLeavesItsNeighboursAlone() {
+        byte[] vector = ShiftVectorCodec.newVector(4);
+        ShiftVectorCodec.set(vector, 0, ShiftType.MORNING);
+        ShiftVectorCodec.set(vector, 1, ShiftType.EVENING);
+        ShiftVectorCodec.set(vector, 2, ShiftType.DAY_OFF);
+
+        ShiftVectorCodec.set(vector, 1, ShiftType.DAY_OFF);
+
+        assertThat(ShiftVectorCodec.get(vector, 0)).isEqualTo(ShiftType.MORNING);
+        assertThat(ShiftVectorCodec.get(vector, 1)).isEqualTo(ShiftType.DAY_OFF);
+        assertThat(ShiftVectorCodec.get(vector, 2)).isEqualTo(ShiftType.DAY_OFF);
+        assertThat(ShiftVectorCodec.get(vector, 3)).isNull();
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.aioschedulingservice.application.webclients;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.springboot3.circuitbreaker.autoconfigure.CircuitBreakerAutoConfiguration;
+import io.github.resilience4j.springboot3.retry.autoconfigure.RetryAutoConfiguration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = DataServiceClientTest.Config.class,
+        properties = "resilience4j.retry.instances.dataService.wait-duration=10ms")
+class DataServiceClientTest {
+    static WireMockServer dataService = new WireMockServer(wireMockConfig().dynamicPort());
+
+    static {
+        dataService.start();
+    }
+
+    @Configuration
+    @ImportAutoConfiguration({AopAutoConfiguration.class, CircuitBreakerAutoConfiguration.class, RetryAutoConfiguration.class})
+    @Import(DataServiceClient.class)
+    static class Config {
+        @Bean
+        WebClient dataServiceWebClient() {
+            return WebClient.builder()
+                    .baseUrl(dataService.baseUrl())
+                    .defaultHeader("Content-Type", "application/json")
+                    .build();
+        }
+    }
+
+    @Autowired
+    private DataServiceClient dataServiceClient;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @AfterEach
+    void reset() {
+        dataService.resetAll();
+        circuitBreakerRegistry.circuitBreaker("dataService").reset();
+    }
+
+    @AfterAll
+    static void stopDataService() {
+        dataService.stop();
+    }
+
+    @Test
+    void resolvesEveryGroupInOneRequest() {
+        dataService.stubFor(post(urlPathEqualTo("/staff-groups/resolve-members"))
+                .willReturn(okJson("{\"g1\":[\"s1\",\"s2\"],\"g2\":[]}")));
+
+        Map<String, Set<String>> staffByGroup = dataServiceClient.resolveMembersForGroups(List.of("g1", "g2", "g1", "unknown")).block();
+
+        assertThat(staffByGroup).containsOnly(Map.entry("g1", Set.of("s1", "s2")), Map.entry("g2", Set.of()));
+        dataService.verify(1, postRequestedFor(urlPathEqualTo("/staff-groups/resolve-members"))
+                .withRequestBody(matchingJsonPath("$.groupIds.length()", equalTo("3")))
+                .withRequestBody(matchingJsonPath("$.groupIds[?(@ == 'unknown')]")));
+    }
+
+    @Test
+    void serverErrorFallsBackToAnEmptyMapping() {
+        dataService.stubFor(post(urlPathEqualTo("/staff-groups/resolve-members"))
+                .willReturn(serverError().withBody("boom")));
+
+        assertThat(dataServiceClient.resolveMembersForGroups(List.of("g1")).block()).isEmpty();
+    }
+
+    @Test
+    void openCircuitFallsBackWithoutCallingTheDataService() {
+        circuitBreakerRegistry.circuitBreaker("dataService").transitionToForcedOpenState();
+
+        assertThat(dataServiceClient.resolveMembersForGroups(List.of("g1")).block()).isEmpty();
+        dataService.verify(0, postRequestedFor(urlPathEqualTo("/staff-groups/resolve-members")));
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.aioschedulingservice.infrastructure.repositories;
+
+import org.example.aioschedulingservice.domain.entities.ScheduleJob;
+import org.example.aioschedulingservice.domain.entities.ShiftAssignment;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+// Persisting a 28-day schedule for a 5,000-person group (140,000 assignments) with each configurable writer.
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ShiftAssignmentWriterBenchmark {
+    private static final int STAFF = 5_000;
+    private static final int DAYS = 28;
+    private static final int ROUNDS = 3;
+    private static final String[] WRITERS = {"jpa", "jdbc-batch", "copy", "packed"};
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withUrlParam("reWriteBatchedInserts", "true");
+
+    @Autowired
+    private ScheduleJobRepository scheduleJobRepository;
+
+    @Autowired
+    private ShiftAssignmentRepository shiftAssignmentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void writeFiveThousandStaffSchedule() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        System.out.printf("shift assignment writers, %d staff x %d days = %d rows%n", STAFF, DAYS, STAFF * DAYS);
+        for (String writerName : WRITERS) {
+            ShiftAssignmentWriter writer = ShiftAssignmentWritersTest.writer(writerName, shiftAssignmentRepository, jdbcTemplate, dataSource);
+            long best = Long.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                ScheduleJob job = scheduleJobRepository.save(ShiftAssignmentWritersTest.job());
+                List<ShiftAssignment> assignments = ShiftAssignmentWritersTest.assignments(job, STAFF, DAYS);
+                long startedAt = System.nanoTime();
+                transactionTemplate.executeWithoutResult(status -> writer.write(job, assignments));
+                best = Math.min(best, System.nanoTime() - startedAt);
+            }
+            System.out.printf("  %-10s best of %d: %8.0f ms (%.0f rows/s)%n",
+                    writerName, ROUNDS, best / 1e6, STAFF * DAYS / (best / 1e9));
+        }
+    }
+}
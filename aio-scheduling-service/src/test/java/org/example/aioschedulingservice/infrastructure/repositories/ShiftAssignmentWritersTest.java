@@ -0,0 +1,117 @@
+package org.example.aioschedulingservice.infrastructure.repositories;
+
+import org.example.aioschedulingservice.application.services.ShiftScheduleEngine;
+import org.example.aioschedulingservice.domain.entities.ScheduleJob;
+import org.example.aioschedulingservice.domain.entities.ShiftAssignment;
+import org.example.aioschedulingservice.domain.enums.JobStatus;
+import org.example.aioschedulingservice.domain.enums.ShiftType;
+import org.example.aioschedulingservice.infrastructure.configs.SchedulingProperties;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ShiftAssignmentWritersTest {
+    private static final LocalDate WEEK_BEGIN = LocalDate.of(2026, 10, 19);
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private ScheduleJobRepository scheduleJobRepository;
+
+    @Autowired
+    private ShiftAssignmentRepository shiftAssignmentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    static ShiftAssignmentWriter writer(String name, ShiftAssignmentRepository shiftAssignmentRepository,
+                                       JdbcTemplate jdbcTemplate, DataSource dataSource) {
+        SchedulingProperties properties = new SchedulingProperties();
+        return switch (name) {
+            case "jpa" -> new JpaShiftAssignmentWriter(shiftAssignmentRepository);
+            case "jdbc-batch" -> new JdbcBatchShiftAssignmentWriter(jdbcTemplate, properties);
+            case "copy" -> new CopyShiftAssignmentWriter(dataSource);
+            case "packed" -> new PackedShiftAssignmentWriter(jdbcTemplate, properties);
+            default -> throw new IllegalArgumentException(name);
+        };
+    }
+
+    static ScheduleJob job() {
+        return ScheduleJob.builder()
+                .id(UUID.randomUUID().toString())
+                .staffGroupId("group")
+                .weekBeginDate(WEEK_BEGIN)
+                .status(JobStatus.QUEUED)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    static List<ShiftAssignment> assignments(ScheduleJob job, int staffCount, int days) {
+        byte[][] shifts = new ShiftScheduleEngine(true, true, true, 1).generate(job.getWeekBeginDate(), days, staffCount);
+        ShiftType[] shiftTypes = ShiftType.values();
+        List<ShiftAssignment> assignments = new ArrayList<>(staffCount * days);
+        for (int day = 0; day < days; day++) {
+            for (int staff = 0; staff < staffCount; staff++) {
+                assignments.add(ShiftAssignment.builder()
+                        .scheduleJob(job)
+                        .staffId(String.format("staff-%05d", staff))
+                        .date(job.getWeekBeginDate().plusDays(day))
+                        .shiftType(shiftTypes[shifts[staff][day]])
+                        .build());
+            }
+        }
+        return assignments;
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"jpa", "jdbc-batch", "copy", "packed"})
+    void writtenAssignmentsReadBackUnchanged(String writerName) {
+        ScheduleJob job = scheduleJobRepository.save(job());
+        List<ShiftAssignment> written = assignments(job, 50, 28);
+        ShiftAssignmentWriter writer = writer(writerName, shiftAssignmentRepository, jdbcTemplate, dataSource);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> writer.write(job, written));
+
+        List<String> read = new ArrayList<>();
+        shiftAssignmentRepository.streamByScheduleJobId(job.getId(), 500, assignment -> read.add(key(assignment)));
+        assertThat(read).containsExactlyInAnyOrderElementsOf(written.stream().map(ShiftAssignmentWritersTest::key).toList());
+        assertThat(shiftAssignmentRepository.findMinDateByJobId(job.getId())).isEqualTo(WEEK_BEGIN);
+        assertThat(shiftAssignmentRepository.findMaxDateByJobId(job.getId())).isEqualTo(WEEK_BEGIN.plusDays(27));
+    }
+
+    private static String key(ShiftAssignment assignment) {
+        return assignment.getStaffId() + "|" + assignment.getDate() + "|" + assignment.getShiftType();
+    }
+}
@@ -0,0 +1,95 @@
+package org.example.aioschedulingservice.presentation.controllers;
+
+import org.example.aioschedulingservice.application.dtos.schedulebatch.CreateScheduleBatchRequestDto;
+import org.example.aioschedulingservice.application.dtos.schedulebatch.ScheduleBatchResponseDto;
+import org.example.aioschedulingservice.application.exceptions.GlobalExceptionHandler;
+import org.example.aioschedulingservice.application.exceptions.ResourceNotFoundException;
+import org.example.aioschedulingservice.application.exceptions.ScheduleQueueFullException;
+import org.example.aioschedulingservice.application.services.ScheduleService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+import java.util.StringJoiner;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ScheduleControllerTest {
+    private static final String WEEK = LocalDate.now().plusDays(7).toString();
+
+    private final ScheduleService service = mock(ScheduleService.class);
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new ScheduleController(service))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void streamingAnUnknownScheduleReturnsNotFound() throws Exception {
+        when(service.getJobStatus("missing"))
+                .thenThrow(new ResourceNotFoundException("Schedule job not found with ID: missing"));
+
+        mockMvc.perform(get("/schedules/missing/result/stream").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Schedule job not found with ID: missing"));
+        mockMvc.perform(get("/schedules/missing/result/stream").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isNotFound());
+        verify(service, never()).streamGeneratedSchedule(anyString(), any(), anyBoolean());
+    }
+
+    @Test
+    void batchOfTheMaximumSizeIsAccepted() throws Exception {
+        when(service.generateScheduleBatch(any())).thenReturn(ScheduleBatchResponseDto.builder()
+                .batchId("batch-1")
+                .totalJobs(1000)
+                .build());
+
+        mockMvc.perform(post("/schedules/batch").contentType(MediaType.APPLICATION_JSON).content(batch(1000)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.batchId").value("batch-1"));
+    }
+
+    @Test
+    void batchOverTheLimitIsRejectedBeforeReachingTheService() throws Exception {
+        mockMvc.perform(post("/schedules/batch").contentType(MediaType.APPLICATION_JSON).content(batch(1001)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.schedules").value("A batch must not exceed 1000 schedules"));
+        mockMvc.perform(post("/schedules/batch").contentType(MediaType.APPLICATION_JSON).content(batch(0)))
+                .andExpect(status().isBadRequest());
+        verify(service, never()).generateScheduleBatch(any(CreateScheduleBatchRequestDto.class));
+    }
+
+    @Test
+    void batchThatDoesNotFitTheQueueIsTooManyRequests() throws Exception {
+        when(service.generateScheduleBatch(any()))
+                .thenThrow(new ScheduleQueueFullException("Schedule queue cannot take 3 more jobs, please retry later"));
+
+        mockMvc.perform(post("/schedules/batch").contentType(MediaType.APPLICATION_JSON).content(batch(3)))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    private static String batch(int size) {
+        StringJoiner schedules = new StringJoiner(",", "{\"schedules\":[", "]}");
+        for (int i = 0; i < size; i++) {
+            schedules.add("{\"staffGroupId\":\"group-" + i + "\",\"weekBeginDate\":\"" + WEEK + "\"}");
+        }
+        return schedules.toString();
+    }
+}
@@ -0,0 +1,119 @@
+package org.example.aioschedulingservice.presentation.controllers;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.example.aioschedulingservice.domain.enums.JobStatus;
+import org.example.aioschedulingservice.infrastructure.repositories.ScheduleJobRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.StringJoiner;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// POST /schedules latency while workers generate schedules for groups of growing size: the request only enqueues,
+// so its p99 should stay flat while generation time per job grows with the group.
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"scheduling.queue.poll-interval-ms=50", "scheduling.queue.max-queued-jobs=100000"})
+class ScheduleSubmitLatencyBenchmark {
+    private static final int[] GROUP_SIZES = {100, 1_000, 5_000, 20_000};
+    private static final int REQUESTS = 300;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7.2-alpine").withExposedPorts(6379);
+
+    static WireMockServer dataService = new WireMockServer(wireMockConfig().dynamicPort());
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        dataService.start();
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", () -> redis.getMappedPort(6379));
+        registry.add("external.data-service.url", dataService::baseUrl);
+    }
+
+    @AfterAll
+    static void stopDataService() {
+        dataService.stop();
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ScheduleJobRepository scheduleJobRepository;
+
+    @Test
+    void submitLatencyStaysFlatAsGenerationCostGrows() throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        System.out.printf("POST /schedules, %d requests per group size%n", REQUESTS);
+        for (int groupSize : GROUP_SIZES) {
+            stubGroupsOfSize(groupSize);
+            long[] latencies = new long[REQUESTS];
+            long startedAt = System.nanoTime();
+            for (int i = 0; i < REQUESTS; i++) {
+                String body = "{\"staffGroupId\":\"group-" + groupSize + "\",\"weekBeginDate\":\""
+                        + LocalDate.now().plusDays(7) + "\"}";
+                HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/schedules"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+                long requestStartedAt = System.nanoTime();
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                latencies[i] = System.nanoTime() - requestStartedAt;
+                assertThat(response.statusCode()).isEqualTo(202);
+            }
+            double submitSeconds = (System.nanoTime() - startedAt) / 1e9;
+            while (scheduleJobRepository.countByStatus(JobStatus.QUEUED) > 0) {
+                Thread.sleep(50);
+            }
+            double drainSeconds = (System.nanoTime() - startedAt) / 1e9;
+            System.out.printf("  %6d staff: p50 %.2f ms, p99 %.2f ms, submitted in %.2f s, queue drained after %.2f s (%.1f jobs/s)%n",
+                    groupSize, percentile(latencies, 0.50), percentile(latencies, 0.99), submitSeconds,
+                    drainSeconds, REQUESTS / drainSeconds);
+        }
+    }
+
+    private static void stubGroupsOfSize(int groupSize) {
+        StringJoiner staff = new StringJoiner(",", "[", "]");
+        for (int i = 0; i < groupSize; i++) {
+            staff.add("\"staff-" + i + "\"");
+        }
+        dataService.resetAll();
+        // every job of a round targets the same group, so one static body answers both endpoints
+        dataService.stubFor(post(urlPathEqualTo("/staff-groups/resolve-members"))
+                .willReturn(okJson("{\"group-" + groupSize + "\":" + staff + "}")));
+        dataService.stubFor(get(urlPathMatching("/staff-groups/.+/resolve-members"))
+                .willReturn(okJson(staff.toString())));
+    }
+
+    private static double percentile(long[] nanos, double percentile) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)] / 1e6;
+    }
+}